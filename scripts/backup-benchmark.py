@@ -0,0 +1,106 @@
+#!/usr/bin/env python3
+"""
+Measures request throughput and latency with and without an online backup running.
+
+Seeds the students table through the CSV import, then drives a closed-loop mix of
+reads (GET /students/{id}) and writes (POST /students) from several threads, first
+without backups and then while GET /admin/backup runs back to back.
+
+usage: scripts/backup-benchmark.py [base-url] [rows] [seconds-per-phase] [threads]
+"""
+import http.client
+import random
+import sys
+import threading
+import time
+import urllib.parse
+
+BASE = sys.argv[1] if len(sys.argv) > 1 else "http://localhost:8080"
+ROWS = int(sys.argv[2]) if len(sys.argv) > 2 else 100_000
+SECONDS = float(sys.argv[3]) if len(sys.argv) > 3 else 20
+THREADS = int(sys.argv[4]) if len(sys.argv) > 4 else 8
+URL = urllib.parse.urlparse(BASE)
+
+
+def cpf(number):
+    digits = [int(d) for d in f"{number:09d}"]
+    for size in (9, 10):
+        total = sum(d * (size + 1 - i) for i, d in enumerate(digits))
+        digits.append(0 if total % 11 < 2 else 11 - total % 11)
+    return "".join(map(str, digits))
+
+
+def connection():
+    return http.client.HTTPConnection(URL.hostname, URL.port, timeout=60)
+
+
+def seed():
+    body = "name,cpf\n" + "".join(f"Student {i},{cpf(100_000_000 + i)}\n" for i in range(ROWS))
+    conn = connection()
+    conn.request("POST", "/students/import", body, {"Content-Type": "text/csv"})
+    print("seed:", conn.getresponse().read().decode())
+
+
+def percentile(values, p):
+    values = sorted(values)
+    return values[min(len(values) - 1, int(len(values) * p))] * 1000 if values else float("nan")
+
+
+def load(stop, latencies, errors, next_cpf):
+    conn = connection()
+    while not stop.is_set():
+        if random.random() < 0.8:
+            method, path, body = "GET", f"/students/{random.randint(1, ROWS)}", None
+        else:
+            with next_cpf[1]:
+                next_cpf[0] += 1
+                number = next_cpf[0]
+            method, path, body = "POST", "/students", f'{{"name":"Load","cpf":"{cpf(number)}"}}'
+        start = time.perf_counter()
+        try:
+            conn.request(method, path, body, {"Content-Type": "application/json"})
+            response = conn.getresponse()
+            response.read()
+            if response.status >= 500 or response.status == 429:
+                errors.append(response.status)
+        except OSError:
+            errors.append("io")
+            conn = connection()
+        latencies.append(time.perf_counter() - start)
+
+
+def backups(stop, durations, sizes):
+    conn = connection()
+    while not stop.is_set():
+        start = time.perf_counter()
+        conn.request("GET", "/admin/backup")
+        response = conn.getresponse()
+        sizes.append(len(response.read()))
+        durations.append(time.perf_counter() - start)
+
+
+def phase(name, with_backup, next_cpf):
+    stop = threading.Event()
+    latencies, errors, durations, sizes = [], [], [], []
+    threads = [threading.Thread(target=load, args=(stop, latencies, errors, next_cpf)) for _ in range(THREADS)]
+    if with_backup:
+        threads.append(threading.Thread(target=backups, args=(stop, durations, sizes)))
+    for thread in threads:
+        thread.start()
+    time.sleep(SECONDS)
+    stop.set()
+    for thread in threads:
+        thread.join()
+    print(f"{name:>8}: {len(latencies) / SECONDS:8.1f} req/s  p50 {percentile(latencies, 0.50):6.1f} ms  "
+          f"p99 {percentile(latencies, 0.99):6.1f} ms  errors {len(errors)}")
+    if durations:
+        print(f"{'':>8}  {len(durations)} backups, mean {sum(durations) / len(durations):.2f} s, "
+              f"{sizes[-1] / 1024 / 1024:.1f} MiB gzip'd")
+
+
+if __name__ == "__main__":
+    seed()
+    next_cpf = [200_000_000, threading.Lock()]
+    phase("warmup", False, next_cpf)
+    phase("baseline", False, next_cpf)
+    phase("backup", True, next_cpf)
@@ -0,0 +1,74 @@
+#!/usr/bin/env bash
+#
+# Measures time from JVM launch to the first successful GET /students,
+# comparing the plain fat jar with the fast-start build (Spring AOT + AppCDS).
+#
+# usage: scripts/startup-benchmark.sh [runs]
+
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${PORT:-18080}
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+WORK="$ROOT/target/faststart"
+JAR=admin-0.0.1-SNAPSHOT.jar
+MAIN=br.com.school.admin.AdminApplication
+
+cd "$ROOT"
+rm -rf "$WORK"
+mkdir -p "$WORK"
+
+./mvnw -B -q -DskipTests package > "$WORK/build.log"
+cp "target/$JAR" "$WORK/plain.jar"
+
+./mvnw -B -q -DskipTests -Pfaststart package >> "$WORK/build.log"
+mkdir -p "$WORK/app"
+(cd "$WORK/app" && jar -xf "$ROOT/target/$JAR")
+# CDS only archives classes loaded from jar files, so the application classes are re-jarred.
+jar -cf "$WORK/classes.jar" -C "$WORK/app/BOOT-INF/classes" .
+CLASSPATH="$WORK/classes.jar"
+for lib in "$WORK"/app/BOOT-INF/lib/*.jar; do
+    CLASSPATH="$CLASSPATH:$lib"
+done
+
+wait_for_first_request() {
+    until curl -sf -o /dev/null "http://localhost:$PORT/students"; do
+        sleep 0.01
+    done
+}
+
+# Runs the given command, prints milliseconds until GET /students answers and stops it.
+time_to_first_request() {
+    local start end pid
+    start=$(date +%s%N)
+    "$@" --server.port="$PORT" > "$WORK/last-run.log" 2>&1 &
+    pid=$!
+    wait_for_first_request
+    end=$(date +%s%N)
+    kill -TERM "$pid"
+    wait "$pid" 2>/dev/null || true
+    echo $(( (end - start) / 1000000 ))
+}
+
+# Training run: exercises startup and the first request, then dumps the class list at exit.
+time_to_first_request java -XX:ArchiveClassesAtExit="$WORK/app.jsa" -Dspring.aot.enabled=true \
+    -cp "$CLASSPATH" "$MAIN" > /dev/null
+
+report() {
+    local label=$1
+    shift
+    local total=0 ms
+    local samples=()
+    for _ in $(seq 1 "$RUNS"); do
+        ms=$(time_to_first_request "$@")
+        samples+=("$ms")
+        total=$((total + ms))
+    done
+    printf '%-22s avg %6d ms  runs: %s\n' "$label" $((total / RUNS)) "${samples[*]}"
+}
+
+report "plain jar" java -jar "$WORK/plain.jar"
+report "unpacked" java -cp "$CLASSPATH" "$MAIN"
+report "unpacked + AOT" java -Dspring.aot.enabled=true -cp "$CLASSPATH" "$MAIN"
+report "unpacked + AOT + CDS" java -XX:SharedArchiveFile="$WORK/app.jsa" -Dspring.aot.enabled=true \
+    -cp "$CLASSPATH" "$MAIN"
@@ -0,0 +1,19 @@
+package br.com.school.admin.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties("school.datasource.pool.adaptive")
+public record AdaptivePoolProperties(boolean enabled,
+                                     int minSize,
+                                     int maxSize,
+                                     Duration targetAcquireTime,
+                                     Duration interval) {
+
+    public AdaptivePoolProperties {
+        if (minSize < 1 || maxSize < minSize) {
+            throw new IllegalArgumentException("Pool bounds must satisfy 1 <= min-size <= max-size");
+        }
+    }
+}
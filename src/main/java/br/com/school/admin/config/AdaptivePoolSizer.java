@@ -0,0 +1,89 @@
+package br.com.school.admin.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resizes the Hikari pool between the configured bounds, growing when callers wait
+ * longer than the target acquire time and shrinking when connections sit idle.
+ */
+@Component
+@ConditionalOnProperty(name = "school.datasource.pool.adaptive.enabled", havingValue = "true")
+public class AdaptivePoolSizer implements SchedulingConfigurer {
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptivePoolSizer.class);
+
+    private final HikariDataSource dataSource;
+    private final MeterRegistry meterRegistry;
+    private final AdaptivePoolProperties properties;
+
+    private long lastCount;
+    private double lastTotalMillis;
+
+    public AdaptivePoolSizer(DataSource dataSource, MeterRegistry meterRegistry, AdaptivePoolProperties properties) throws SQLException {
+        this.dataSource = dataSource.unwrap(HikariDataSource.class);
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        registrar.addFixedDelayTask(this::resize, properties.interval());
+    }
+
+    void resize() {
+        var pool = dataSource.getHikariPoolMXBean();
+        if (pool == null) {
+            return;
+        }
+        var config = dataSource.getHikariConfigMXBean();
+        var current = config.getMaximumPoolSize();
+        var next = nextPoolSize(current, pool.getThreadsAwaitingConnection(), pool.getIdleConnections(), meanAcquireMillis());
+        if (next != current) {
+            log.info("Resizing pool {} from {} to {} connections", config.getPoolName(), current, next);
+            if (config.getMinimumIdle() > next) {
+                config.setMinimumIdle(next);
+            }
+            config.setMaximumPoolSize(next);
+        }
+    }
+
+    int nextPoolSize(int current, int pending, int idle, double meanAcquireMillis) {
+        var target = properties.targetAcquireTime().toMillis();
+        if (pending > 0 || meanAcquireMillis > target) {
+            var step = Math.max(1, current / 4);
+            return Math.min(properties.maxSize(), current + step);
+        }
+        if (meanAcquireMillis < target / 4.0 && idle > current / 2) {
+            return Math.max(properties.minSize(), current - 1);
+        }
+        return Math.max(properties.minSize(), Math.min(properties.maxSize(), current));
+    }
+
+    private double meanAcquireMillis() {
+        Timer timer = meterRegistry.find("hikaricp.connections.acquire")
+                .tag("pool", dataSource.getPoolName())
+                .timer();
+        if (timer == null) {
+            return 0;
+        }
+        var count = timer.count();
+        var totalMillis = timer.totalTime(TimeUnit.MILLISECONDS);
+        var deltaCount = count - lastCount;
+        var deltaMillis = totalMillis - lastTotalMillis;
+        lastCount = count;
+        lastTotalMillis = totalMillis;
+        return deltaCount > 0 ? deltaMillis / deltaCount : 0;
+    }
+}
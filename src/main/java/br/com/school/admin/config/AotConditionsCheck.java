@@ -0,0 +1,46 @@
+package br.com.school.admin.config;
+
+import br.com.school.admin.utils.sharding.ShardRoutingDataSource;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * The {@code faststart} build runs Spring AOT, which evaluates {@code @ConditionalOnProperty}
+ * and {@code @ConditionalOnExpression} while the application is built: the beans switched
+ * on by {@code school.sharding.shards}, {@code school.datasource.pool.adaptive.enabled} and
+ * {@code school.backup.restore-from} are then fixed by the build. Refuses to start when the
+ * runtime values ask for a different set of those beans, instead of quietly running with
+ * the build's. Without AOT the conditions see the runtime values and this always passes.
+ */
+@Component
+public class AotConditionsCheck implements SmartInitializingSingleton {
+
+    private final Environment environment;
+    private final ListableBeanFactory beanFactory;
+
+    public AotConditionsCheck(Environment environment, ListableBeanFactory beanFactory) {
+        this.environment = environment;
+        this.beanFactory = beanFactory;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        check("school.sharding.shards",
+                environment.getProperty("school.sharding.shards", Integer.class, 1) > 1, ShardRoutingDataSource.class);
+        check("school.datasource.pool.adaptive.enabled",
+                environment.getProperty("school.datasource.pool.adaptive.enabled", Boolean.class, false),
+                AdaptivePoolSizer.class);
+        check("school.backup.restore-from",
+                !environment.getProperty("school.backup.restore-from", "false").equalsIgnoreCase("false"),
+                BackupRestoreCallback.class);
+    }
+
+    private void check(String property, boolean wanted, Class<?> bean) {
+        if (wanted != beanFactory.getBeanNamesForType(bean).length > 0) {
+            throw new IllegalStateException(property + " does not match the value the application was built with;"
+                    + " rebuild it with the new value or set it back");
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package br.com.school.admin.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+/**
+ * {@code restoreFrom} is the backup loaded into empty databases at startup. With more than
+ * one shard it must contain {@code {shard}}, which is replaced by the shard number, so each
+ * shard is restored from its own backup.
+ */
+@ConfigurationProperties("school.backup")
+public record BackupProperties(Path dir, Path restoreFrom) {
+
+    public Path restoreFromOf(int shard, int shards) {
+        var template = restoreFrom.toString();
+        if (shards > 1 && !template.contains("{shard}")) {
+            throw new IllegalArgumentException(
+                    "school.backup.restore-from must contain {shard} when there is more than one shard");
+        }
+        return Path.of(template.replace("{shard}", String.valueOf(shard)));
+    }
+}
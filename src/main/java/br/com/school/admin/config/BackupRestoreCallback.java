@@ -0,0 +1,70 @@
+package br.com.school.admin.config;
+
+import org.flywaydb.core.api.callback.Callback;
+import org.flywaydb.core.api.callback.Context;
+import org.flywaydb.core.api.callback.Event;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Loads a backup into an empty database right before Flyway migrates it. The backup
+ * carries its own schema history, so Flyway then applies only the migrations newer than
+ * the backup. There is one per shard, each with the backup of its own shard.
+ */
+public class BackupRestoreCallback implements Callback {
+
+    private static final Logger log = LoggerFactory.getLogger(BackupRestoreCallback.class);
+
+    private final Path backup;
+
+    public BackupRestoreCallback(Path backup) {
+        this.backup = backup;
+    }
+
+    @Override
+    public boolean supports(Event event, Context context) {
+        return event == Event.BEFORE_MIGRATE;
+    }
+
+    @Override
+    public boolean canHandleInTransaction(Event event, Context context) {
+        return true;
+    }
+
+    @Override
+    public void handle(Event event, Context context) {
+        var connection = context.getConnection();
+        var historyTable = context.getConfiguration().getTable();
+        if (hasAppliedMigrations(connection, historyTable)) {
+            log.info("Database already migrated, not restoring {}", backup);
+            return;
+        }
+        log.info("Restoring backup {}", backup);
+        try (var statement = connection.createStatement()) {
+            statement.setQueryTimeout(0);
+            statement.execute("RUNSCRIPT FROM '"
+                    + backup.toAbsolutePath().toString().replace("'", "''") + "' COMPRESSION GZIP");
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not restore backup " + backup, e);
+        }
+    }
+
+    @Override
+    public String getCallbackName() {
+        return "restoreBackup";
+    }
+
+    private boolean hasAppliedMigrations(Connection connection, String historyTable) {
+        try (var statement = connection.createStatement();
+             var result = statement.executeQuery("SELECT COUNT(*) FROM \"" + historyTable
+                     + "\" WHERE \"type\" NOT IN ('TABLE', 'SCHEMA')")) {
+            return result.next() && result.getLong(1) > 0;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+}
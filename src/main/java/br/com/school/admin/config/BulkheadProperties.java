@@ -0,0 +1,31 @@
+package br.com.school.admin.config;
+
+import br.com.school.admin.filters.EndpointClass;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * {@code limits} caps the concurrent requests of each endpoint class on each resource;
+ * {@code resources} overrides those caps for single resources. {@code maxWait} is how long
+ * a request may queue for a permit before it is turned away.
+ */
+@ConfigurationProperties("school.bulkhead")
+public record BulkheadProperties(boolean enabled,
+                                 Duration maxWait,
+                                 Map<EndpointClass, Integer> limits,
+                                 Map<String, Map<EndpointClass, Integer>> resources) {
+
+    public BulkheadProperties {
+        resources = resources == null ? Map.of() : resources;
+    }
+
+    public int limitOf(String resource, EndpointClass endpointClass) {
+        var limit = resources.getOrDefault(resource, Map.of()).getOrDefault(endpointClass, limits.get(endpointClass));
+        if (limit == null || limit < 1) {
+            throw new IllegalArgumentException("Bulkhead limit of " + resource + " " + endpointClass + " must be >= 1");
+        }
+        return limit;
+    }
+}
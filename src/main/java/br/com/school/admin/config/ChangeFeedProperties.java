@@ -0,0 +1,9 @@
+package br.com.school.admin.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties("school.change-feed")
+public record ChangeFeedProperties(int capacity, Duration emitterTimeout) {
+}
@@ -0,0 +1,9 @@
+package br.com.school.admin.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+@ConfigurationProperties("school.csv-import")
+public record CsvImportProperties(int chunkSize, Path reportDir, int maxReports) {
+}
@@ -0,0 +1,9 @@
+package br.com.school.admin.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+@ConfigurationProperties("school.export")
+public record ExportProperties(Path dir, int threads, int queueCapacity, int fetchSize, int maxJobs) {
+}
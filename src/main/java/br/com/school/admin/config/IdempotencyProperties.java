@@ -0,0 +1,9 @@
+package br.com.school.admin.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties("school.idempotency")
+public record IdempotencyProperties(Duration ttl, int maxEntries, Duration inFlightWait) {
+}
@@ -0,0 +1,18 @@
+package br.com.school.admin.config;
+
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Replaces Jackson's reflective getter/setter/constructor calls with lambdas generated
+ * through {@code LambdaMetafactory}, which the JIT inlines like hand-written code.
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public BlackbirdModule blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
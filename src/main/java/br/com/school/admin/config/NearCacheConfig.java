@@ -0,0 +1,15 @@
+package br.com.school.admin.config;
+
+import br.com.school.admin.utils.concurrent.NearCaches;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class NearCacheConfig {
+
+    @Bean
+    public NearCaches nearCaches(NearCacheProperties properties, MeterRegistry meterRegistry) {
+        return new NearCaches(properties.maxEntries(), properties.ttl(), meterRegistry);
+    }
+}
@@ -0,0 +1,9 @@
+package br.com.school.admin.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties("school.near-cache")
+public record NearCacheProperties(int maxEntries, Duration ttl, Duration retention) {
+}
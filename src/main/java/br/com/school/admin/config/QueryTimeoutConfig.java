@@ -0,0 +1,56 @@
+package br.com.school.admin.config;
+
+import br.com.school.admin.utils.sharding.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Gives every JPQL, criteria and native query run through the repositories a default JDBC
+ * query timeout, so a pathological query fails with a 503 instead of holding its thread
+ * and connection. Queries that are meant to run long, like exports, set their own.
+ * <p>
+ * Statements Hibernate issues outside of queries, like entity loads and flushes, get the
+ * same timeout from the application {@link DataSource}. H2 does not apply it while a
+ * statement waits for a row lock, so every pooled connection also caps its lock timeout
+ * at the query timeout.
+ */
+@Configuration
+public class QueryTimeoutConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer queryTimeout(QueryTimeoutProperties properties) {
+        return hibernateProperties -> hibernateProperties.put(SpecHints.HINT_SPEC_QUERY_TIMEOUT,
+                String.valueOf(properties.queryTimeout().toMillis()));
+    }
+
+    @Bean
+    public static BeanPostProcessor statementTimeout(ObjectProvider<QueryTimeoutProperties> properties) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource pool) {
+                    limitLockTimeout(pool, properties.getObject().queryTimeout());
+                } else if (bean instanceof ShardRoutingDataSource router) {
+                    var timeout = properties.getObject().queryTimeout();
+                    router.shards().forEach(shard -> limitLockTimeout((HikariDataSource) shard, timeout));
+                }
+                if (bean instanceof DataSource dataSource && beanName.equals("dataSource")) {
+                    return new StatementTimeoutDataSource(dataSource, properties.getObject().queryTimeout());
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static void limitLockTimeout(HikariDataSource pool, Duration timeout) {
+        pool.setConnectionInitSql("SET LOCK_TIMEOUT LEAST(LOCK_TIMEOUT(), " + timeout.toMillis() + ")");
+    }
+}
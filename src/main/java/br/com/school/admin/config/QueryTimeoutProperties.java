@@ -0,0 +1,34 @@
+package br.com.school.admin.config;
+
+import br.com.school.admin.services.DefaultCrudService;
+import br.com.school.admin.utils.concurrent.ConflictRetry;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties("school.datasource")
+public record QueryTimeoutProperties(Duration queryTimeout) {
+
+    public QueryTimeoutProperties {
+        if (queryTimeout == null || queryTimeout.toSeconds() < 1) {
+            throw new IllegalArgumentException("Query timeout must be at least one second");
+        }
+        if (settleTime(queryTimeout).compareTo(DefaultCrudService.SYNC_SETTLE_TIME) >= 0) {
+            throw new IllegalArgumentException("Query timeout must be less than "
+                    + DefaultCrudService.SYNC_SETTLE_TIME.dividedBy(ConflictRetry.MAX_ATTEMPTS).toSeconds()
+                    + " seconds, or retried writes could commit after the sync settle time");
+        }
+    }
+
+    /**
+     * How long a write may take to commit after stamping its changes, retries included;
+     * readers of those stamps look back this far to catch late commits.
+     */
+    public Duration settleTime() {
+        return settleTime(queryTimeout);
+    }
+
+    private static Duration settleTime(Duration queryTimeout) {
+        return queryTimeout.multipliedBy(ConflictRetry.MAX_ATTEMPTS);
+    }
+}
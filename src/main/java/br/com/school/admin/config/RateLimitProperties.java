@@ -0,0 +1,19 @@
+package br.com.school.admin.config;
+
+import br.com.school.admin.filters.EndpointClass;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Map;
+
+@ConfigurationProperties("school.rate-limit")
+public record RateLimitProperties(boolean enabled, int stripes, Map<EndpointClass, Limit> limits) {
+
+    public RateLimitProperties {
+        if (Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("Rate limit stripes must be a power of two");
+        }
+    }
+
+    public record Limit(int capacity, double refillPerSecond) {
+    }
+}
@@ -0,0 +1,14 @@
+package br.com.school.admin.config;
+
+import br.com.school.admin.utils.columnar.ReadModel;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ReadModelConfig {
+
+    @Bean
+    public ReadModel readModel() {
+        return new ReadModel();
+    }
+}
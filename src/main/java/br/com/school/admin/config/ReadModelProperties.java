@@ -0,0 +1,7 @@
+package br.com.school.admin.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties("school.read-model")
+public record ReadModelProperties(boolean enabled) {
+}
@@ -0,0 +1,81 @@
+package br.com.school.admin.config;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.callback.Callback;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Brings every shard to the schema Spring Boot migrated on shard 0 and lines up the person
+ * identities so each shard hands out ids congruent to {@code shard + 1} modulo the number
+ * of shards. Spring Boot's callbacks belong to shard 0, so they are not run here; when a
+ * backup is restored at startup, each shard gets its own from {@code restoreFrom}.
+ */
+public class ShardMigrations implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardMigrations.class);
+
+    private static final Map<String, String> IDENTITIES = Map.of(
+            "tb_students", "cd_student",
+            "tb_teachers", "cd_teacher",
+            "tb_directors", "cd_director",
+            "tb_classes", "cd_class");
+
+    private final Flyway flyway;
+    private final List<DataSource> shards;
+    private final BackupProperties backup;
+
+    public ShardMigrations(Flyway flyway, List<DataSource> shards, BackupProperties backup) {
+        this.flyway = flyway;
+        this.shards = shards;
+        this.backup = backup;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws SQLException {
+        for (int shard = 0; shard < shards.size(); shard++) {
+            var dataSource = shards.get(shard);
+            if (shard > 0) {
+                Flyway.configure()
+                        .configuration(flyway.getConfiguration())
+                        .dataSource(dataSource)
+                        .callbacks(callbacksOf(shard))
+                        .load()
+                        .migrate();
+            }
+            alignIdentities(dataSource, shard);
+        }
+    }
+
+    private Callback[] callbacksOf(int shard) {
+        if (backup.restoreFrom() == null) {
+            return new Callback[0];
+        }
+        return new Callback[]{new BackupRestoreCallback(backup.restoreFromOf(shard, shards.size()))};
+    }
+
+    private void alignIdentities(DataSource dataSource, int shard) throws SQLException {
+        var count = shards.size();
+        try (var connection = dataSource.getConnection(); var statement = connection.createStatement()) {
+            for (var identity : IDENTITIES.entrySet()) {
+                long max;
+                try (var result = statement.executeQuery("select coalesce(max(" + identity.getValue() + "), 0) from " + identity.getKey())) {
+                    result.next();
+                    max = result.getLong(1);
+                }
+                var next = max + Math.floorMod(shard - max, (long) count) + 1;
+                statement.execute("alter table " + identity.getKey() + " alter column " + identity.getValue()
+                        + " restart with " + next);
+                statement.execute("alter table " + identity.getKey() + " alter column " + identity.getValue()
+                        + " set increment by " + count);
+            }
+        }
+        log.info("Shard {} of {} ready", shard, shards.size());
+    }
+}
@@ -0,0 +1,93 @@
+package br.com.school.admin.config;
+
+import br.com.school.admin.utils.sharding.ShardRouter;
+import br.com.school.admin.utils.sharding.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Objects;
+
+@Configuration
+public class ShardingConfig {
+
+    @Bean
+    public ShardRouter shardRouter(ShardingProperties properties, PlatformTransactionManager transactionManager) {
+        return new ShardRouter(properties.shards(), new TransactionTemplate(transactionManager));
+    }
+
+    /**
+     * Restores the backup of shard 0 before Spring Boot migrates it; {@link ShardMigrations}
+     * restores the other shards.
+     */
+    @Bean
+    @ConditionalOnProperty("school.backup.restore-from")
+    public BackupRestoreCallback restoreBackup(BackupProperties backup, ShardingProperties properties) {
+        return new BackupRestoreCallback(backup.restoreFromOf(0, properties.shards()));
+    }
+
+    /**
+     * With more than one shard the application DataSource routes to one Hikari pool per
+     * shard. It is wrapped lazily so that a transaction only picks its shard at the first
+     * statement, after the service has chosen one, and Hibernate gives the connection back
+     * after every transaction so the next one can go to another shard.
+     */
+    @Configuration
+    @ConditionalOnExpression("${school.sharding.shards:1} > 1")
+    static class Sharded {
+
+        @Bean
+        public ShardRoutingDataSource shardRoutingDataSource(ShardingProperties properties,
+                                                             DataSourceProperties dataSourceProperties,
+                                                             Environment environment) {
+            var binder = Binder.get(environment);
+            var shards = new ArrayList<DataSource>(properties.shards());
+            for (int shard = 0; shard < properties.shards(); shard++) {
+                var dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                        .type(HikariDataSource.class)
+                        .url(properties.urlOf(shard))
+                        .build();
+                binder.bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+                dataSource.setPoolName(Objects.requireNonNullElse(dataSource.getPoolName(), "HikariPool") + "-shard" + shard);
+                shards.add(dataSource);
+            }
+            return new ShardRoutingDataSource(shards);
+        }
+
+        @Bean
+        @Primary
+        public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+            return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+        }
+
+        @Bean
+        public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+            return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                    PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+        }
+
+        @Bean
+        @DependsOn("flywayInitializer")
+        public ShardMigrations shardMigrations(Flyway flyway, ShardRoutingDataSource shardRoutingDataSource,
+                                               BackupProperties backup) {
+            return new ShardMigrations(flyway, shardRoutingDataSource.shards(), backup);
+        }
+    }
+}
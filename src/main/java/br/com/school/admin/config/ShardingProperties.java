@@ -0,0 +1,21 @@
+package br.com.school.admin.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * {@code url} is a JDBC URL template where {@code {shard}} is replaced by the shard
+ * number; it is only used when there is more than one shard.
+ */
+@ConfigurationProperties("school.sharding")
+public record ShardingProperties(int shards, String url) {
+
+    public ShardingProperties {
+        if (shards < 1) {
+            throw new IllegalArgumentException("school.sharding.shards must be at least 1");
+        }
+    }
+
+    public String urlOf(int shard) {
+        return url.replace("{shard}", String.valueOf(shard));
+    }
+}
@@ -0,0 +1,62 @@
+package br.com.school.admin.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Gives every statement created on its connections a default query timeout, so entity
+ * loads and flushed inserts, updates and deletes are bounded like queries are. The
+ * timeout is set on each new statement rather than once per connection because H2 keeps
+ * it on the session: a statement that clears it, like an export, would otherwise leave
+ * its pooled connection without one.
+ */
+class StatementTimeoutDataSource extends DelegatingDataSource {
+
+    private final int timeoutSeconds;
+
+    StatementTimeoutDataSource(DataSource target, Duration timeout) {
+        super(target);
+        this.timeoutSeconds = Math.toIntExact(timeout.toSeconds());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return withTimeout(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return withTimeout(super.getConnection(username, password));
+    }
+
+    private Connection withTimeout(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> {
+                        var result = invoke(connection, method, args);
+                        if (result instanceof Statement statement) {
+                            statement.setQueryTimeout(timeoutSeconds);
+                        }
+                        yield result;
+                    }
+                });
+    }
+
+    private static Object invoke(Connection connection, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(connection, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
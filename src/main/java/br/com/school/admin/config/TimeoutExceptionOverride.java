@@ -0,0 +1,25 @@
+package br.com.school.admin.config;
+
+import com.zaxxer.hikari.SQLExceptionOverride;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+
+/**
+ * Keeps Hikari from evicting a connection over a timeout that says nothing about the
+ * connection itself. H2 reports both lock timeouts and cancelled statements as
+ * {@link SQLTimeoutException}, which Hikari treats as fatal by default, so every lock
+ * conflict between concurrent writers or query timeout would otherwise cost a connection
+ * and fail the rollback that follows.
+ */
+public class TimeoutExceptionOverride implements SQLExceptionOverride {
+
+    @java.lang.Override
+    public Override adjudicate(SQLException e) {
+        var sqlState = e.getSQLState();
+        if (e instanceof SQLTimeoutException && (sqlState == null || !sqlState.startsWith("08"))) {
+            return Override.DO_NOT_EVICT;
+        }
+        return Override.CONTINUE_EVICT;
+    }
+}
@@ -0,0 +1,13 @@
+package br.com.school.admin.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties("school.write-behind")
+public record WriteBehindProperties(int queueCapacity, int batchSize, int maxTrackedOperations) {
+
+    public WriteBehindProperties {
+        if (queueCapacity < 1 || batchSize < 1 || maxTrackedOperations < 1) {
+            throw new IllegalArgumentException("Write-behind sizes must be positive");
+        }
+    }
+}
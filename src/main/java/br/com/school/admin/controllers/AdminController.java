@@ -0,0 +1,53 @@
+package br.com.school.admin.controllers;
+
+import br.com.school.admin.dtos.ReadModelFootprintDto;
+import br.com.school.admin.services.BackupService;
+import br.com.school.admin.services.ReadModelService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin")
+public class AdminController {
+
+    private static final DateTimeFormatter BACKUP_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'")
+            .withZone(ZoneOffset.UTC);
+
+    private final BackupService backupService;
+    private final ReadModelService readModelService;
+
+    public AdminController(BackupService backupService, ReadModelService readModelService) {
+        this.backupService = backupService;
+        this.readModelService = readModelService;
+    }
+
+    @GetMapping("/read-model")
+    public List<ReadModelFootprintDto> readModelFootprint() {
+        return readModelService.footprint();
+    }
+
+    @GetMapping("/backup")
+    public void backup(@RequestParam(defaultValue = "0") int shard, HttpServletResponse response) throws IOException {
+        var file = backupService.backup(shard);
+        try {
+            response.setContentType("application/gzip");
+            response.setContentLengthLong(Files.size(file));
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"bancodb-shard" + shard + "-"
+                    + BACKUP_TIME.format(Instant.now()) + ".sql.gz\"");
+            Files.copy(file, response.getOutputStream());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
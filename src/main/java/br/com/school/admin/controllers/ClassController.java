@@ -0,0 +1,67 @@
+package br.com.school.admin.controllers;
+
+import br.com.school.admin.dtos.ClassDto;
+import br.com.school.admin.dtos.KeysetPageDto;
+import br.com.school.admin.models.SchoolClass;
+import br.com.school.admin.models.Student;
+import br.com.school.admin.services.ClassService;
+import br.com.school.admin.utils.validators.DefaultValidator;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/classes")
+public class ClassController {
+
+    private final ClassService classService;
+
+    public ClassController(ClassService classService) {
+        this.classService = classService;
+    }
+
+    @GetMapping("/{id}")
+    public ClassDto findById(@PathVariable Long id) {
+        return classService.findById(id);
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public ClassDto save(@RequestBody SchoolClass schoolClass) {
+        DefaultValidator.isValidSchoolClass(schoolClass);
+        return classService.save(schoolClass);
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void delete(@PathVariable Long id) {
+        classService.delete(id);
+    }
+
+    @GetMapping("/{id}/students")
+    public KeysetPageDto<Student> findStudents(@PathVariable Long id,
+                                               @RequestParam(defaultValue = "0") Long after,
+                                               @RequestParam(defaultValue = "20") int size) {
+        return classService.findStudents(id, after, size);
+    }
+
+    @PutMapping("/{id}/students/{studentId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void enroll(@PathVariable Long id, @PathVariable Long studentId) {
+        classService.enroll(id, studentId);
+    }
+
+    @DeleteMapping("/{id}/students/{studentId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void unenroll(@PathVariable Long id, @PathVariable Long studentId) {
+        classService.unenroll(id, studentId);
+    }
+}
@@ -1,29 +1,73 @@
 package br.com.school.admin.controllers;
 
+import br.com.school.admin.dtos.BulkDeleteDto;
+import br.com.school.admin.dtos.BulkResultDto;
+import br.com.school.admin.dtos.CountDto;
+import br.com.school.admin.dtos.ExportDto;
+import br.com.school.admin.dtos.ImportDto;
+import br.com.school.admin.dtos.OperationDto;
+import br.com.school.admin.dtos.SyncDto;
 import br.com.school.admin.models.Director;
+import br.com.school.admin.services.CountService;
+import br.com.school.admin.services.CsvImportService;
 import br.com.school.admin.services.DirectorServiceImpl;
+import br.com.school.admin.services.ExportService;
+import br.com.school.admin.services.ProjectionService;
+import br.com.school.admin.services.WriteBehindService;
+import br.com.school.admin.utils.json.MergePatch;
+import br.com.school.admin.utils.json.SparseFields;
+import br.com.school.admin.utils.sharding.ShardRouter;
 import br.com.school.admin.utils.validators.DefaultValidator;
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.net.URI;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/directors")
 public class DirectorController {
 
+    private static final String RESPOND_ASYNC = "Prefer=respond-async";
+    private static final List<String> FILTERS = List.of("cpf", "since");
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("name", "cpf");
+
     private final DirectorServiceImpl directorServiceImpl;
+    private final WriteBehindService writeBehindService;
+    private final CsvImportService csvImportService;
+    private final ExportService exportService;
+    private final CountService countService;
+    private final ProjectionService projectionService;
+    private final ShardRouter shardRouter;
 
-    public DirectorController(DirectorServiceImpl directorServiceImpl) {
+    public DirectorController(DirectorServiceImpl directorServiceImpl, WriteBehindService writeBehindService,
+                              CsvImportService csvImportService, ExportService exportService, CountService countService,
+                              ProjectionService projectionService, ShardRouter shardRouter) {
         this.directorServiceImpl = directorServiceImpl;
+        this.writeBehindService = writeBehindService;
+        this.csvImportService = csvImportService;
+        this.exportService = exportService;
+        this.countService = countService;
+        this.projectionService = projectionService;
+        this.shardRouter = shardRouter;
     }
 
     @GetMapping
@@ -31,11 +75,51 @@ public class DirectorController {
         return directorServiceImpl.findAll();
     }
 
+    @GetMapping(params = {"page", "size", "!fields"})
+    public List<Director> findPage(@RequestParam int page, @RequestParam int size) {
+        return directorServiceImpl.findPage(page, size);
+    }
+
+    @GetMapping(params = "fields")
+    public List<Map<String, Object>> findAllFields(@RequestParam String fields,
+                                                   @RequestParam Map<String, String> params) {
+        SparseFields.checkNotFiltered(params, FILTERS);
+        return projectionService.findAll("directors", fields);
+    }
+
+    @GetMapping(params = {"page", "size", "fields"})
+    public List<Map<String, Object>> findPageFields(@RequestParam int page, @RequestParam int size,
+                                                    @RequestParam String fields,
+                                                    @RequestParam Map<String, String> params) {
+        SparseFields.checkNotFiltered(params, FILTERS);
+        return projectionService.findPage("directors", fields, page, size);
+    }
+
+    @GetMapping("/count")
+    public CountDto count() {
+        return new CountDto("directors", countService.count("directors"));
+    }
+
+    @GetMapping(params = {"cpf", "!fields"})
+    public Director findByCpf(@RequestParam String cpf) {
+        return directorServiceImpl.findByCpf(cpf);
+    }
+
+    @GetMapping(params = {"since", "!fields"})
+    public SyncDto<Director> findChangedSince(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant since) {
+        return directorServiceImpl.findChangedSince(since);
+    }
+
     @GetMapping("/{id}")
     public Director findById(@PathVariable Long id) {
         return directorServiceImpl.findById(id);
     }
 
+    @GetMapping(value = "/{id}", params = "fields")
+    public Map<String, Object> findByIdFields(@PathVariable Long id, @RequestParam String fields) {
+        return projectionService.findById("directors", id, fields);
+    }
+
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
     public Director save(@RequestBody Director director) {
@@ -49,9 +133,52 @@ public class DirectorController {
         return directorServiceImpl.update(id, director);
     }
 
+    @PatchMapping(value = "/{id}", consumes = MergePatch.MEDIA_TYPE)
+    public Director patch(@PathVariable Long id, @RequestBody JsonNode patch) {
+        return directorServiceImpl.patch(id, MergePatch.fields(patch, PATCHABLE_FIELDS));
+    }
+
+    @PostMapping(headers = RESPOND_ASYNC)
+    public ResponseEntity<OperationDto> saveAsync(@RequestBody Director director) {
+        DefaultValidator.isValidDirector(director);
+        return accepted(writeBehindService.submit("directors", shardRouter.shardOfCpf(director.getCpf()),
+                () -> directorServiceImpl.save(director).getId()));
+    }
+
+    @PutMapping(value = "/{id}", headers = RESPOND_ASYNC)
+    public ResponseEntity<OperationDto> updateAsync(@PathVariable Long id, @RequestBody Director director) {
+        DefaultValidator.isValidDirector(director);
+        return accepted(writeBehindService.submit("directors", shardRouter.shardOfId(id),
+                () -> directorServiceImpl.update(id, director).getId()));
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ImportDto importCsv(HttpServletRequest request) throws IOException {
+        return csvImportService.importCsv("directors", request.getInputStream());
+    }
+
+    @PostMapping("/export")
+    public ResponseEntity<ExportDto> export(@RequestParam(defaultValue = "csv") String format) {
+        var export = exportService.submit("directors", ExportDto.Format.of(format));
+        return ResponseEntity.accepted()
+                .location(URI.create("/exports/" + export.id()))
+                .body(export);
+    }
+
+    @DeleteMapping
+    public BulkResultDto deleteAll(@RequestBody BulkDeleteDto filter) {
+        return new BulkResultDto("directors", directorServiceImpl.deleteAll(filter));
+    }
+
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void delete(@PathVariable Long id) {
         directorServiceImpl.delete(id);
     }
+
+    private ResponseEntity<OperationDto> accepted(OperationDto operation) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/operations/" + operation.id()))
+                .body(operation);
+    }
 }
@@ -0,0 +1,38 @@
+package br.com.school.admin.controllers;
+
+import br.com.school.admin.dtos.ExportDto;
+import br.com.school.admin.services.ExportService;
+import br.com.school.admin.utils.http.RangedFileSender;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/exports")
+public class ExportController {
+
+    private final ExportService exportService;
+
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    @GetMapping("/{id}")
+    public ExportDto findById(@PathVariable String id) {
+        return exportService.findById(id);
+    }
+
+    @GetMapping("/{id}/download")
+    public void download(@PathVariable String id, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        var file = exportService.findFile(id);
+        response.setContentType("application/gzip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getFileName() + "\"");
+        RangedFileSender.send(file, "\"" + id + "\"", request, response);
+    }
+}
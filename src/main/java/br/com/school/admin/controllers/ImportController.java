@@ -0,0 +1,29 @@
+package br.com.school.admin.controllers;
+
+import br.com.school.admin.services.CsvImportService;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/imports")
+public class ImportController {
+
+    private final CsvImportService csvImportService;
+
+    public ImportController(CsvImportService csvImportService) {
+        this.csvImportService = csvImportService;
+    }
+
+    @GetMapping(value = "/{id}/errors", produces = "text/csv")
+    public ResponseEntity<Resource> findErrors(@PathVariable String id) {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + id + "-errors.csv\"")
+                .body(new FileSystemResource(csvImportService.findReport(id)));
+    }
+}
@@ -0,0 +1,24 @@
+package br.com.school.admin.controllers;
+
+import br.com.school.admin.dtos.OperationDto;
+import br.com.school.admin.services.WriteBehindService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/operations")
+public class OperationController {
+
+    private final WriteBehindService writeBehindService;
+
+    public OperationController(WriteBehindService writeBehindService) {
+        this.writeBehindService = writeBehindService;
+    }
+
+    @GetMapping("/{id}")
+    public OperationDto findById(@PathVariable String id) {
+        return writeBehindService.findById(id);
+    }
+}
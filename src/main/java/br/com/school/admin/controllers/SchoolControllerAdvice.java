@@ -3,7 +3,12 @@ package br.com.school.admin.controllers;
 import br.com.school.admin.exceptions.BusinessRuleException;
 import br.com.school.admin.exceptions.ErrorDto;
 import br.com.school.admin.exceptions.ResourceNotFoundException;
+import br.com.school.admin.exceptions.ServiceUnavailableException;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -22,4 +27,33 @@ public class SchoolControllerAdvice {
     public ErrorDto handleException(Exception e) {
         return new ErrorDto(e.getMessage(), "400");
     }
+
+    /**
+     * A write that kept losing to concurrent writers of the same person after every retry.
+     */
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorDto handleConflict(ConcurrencyFailureException e) {
+        return new ErrorDto("Person was changed concurrently, try again", "409");
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ErrorDto> handleException(ServiceUnavailableException e) {
+        return serviceUnavailable(e.getMessage());
+    }
+
+    /**
+     * Statement timeouts surface translated by the repositories or raw from direct
+     * EntityManager queries.
+     */
+    @ExceptionHandler({QueryTimeoutException.class, jakarta.persistence.QueryTimeoutException.class})
+    public ResponseEntity<ErrorDto> handleQueryTimeout(Exception e) {
+        return serviceUnavailable("Query timed out");
+    }
+
+    private ResponseEntity<ErrorDto> serviceUnavailable(String message) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ErrorDto(message, "503"));
+    }
 }
@@ -0,0 +1,23 @@
+package br.com.school.admin.controllers;
+
+import br.com.school.admin.dtos.StatsDto;
+import br.com.school.admin.services.CountService;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/stats")
+public class StatsController {
+
+    private final CountService countService;
+
+    public StatsController(CountService countService) {
+        this.countService = countService;
+    }
+
+    @GetMapping
+    public StatsDto stats() {
+        return countService.stats();
+    }
+}
@@ -1,30 +1,80 @@
 package br.com.school.admin.controllers;
 
+import br.com.school.admin.dtos.BulkDeleteDto;
+import br.com.school.admin.dtos.BulkResultDto;
+import br.com.school.admin.dtos.CountDto;
+import br.com.school.admin.dtos.ClassDto;
+import br.com.school.admin.dtos.ExportDto;
+import br.com.school.admin.dtos.ImportDto;
+import br.com.school.admin.dtos.KeysetPageDto;
+import br.com.school.admin.dtos.OperationDto;
+import br.com.school.admin.dtos.SyncDto;
+import br.com.school.admin.dtos.TeacherBulkUpdateDto;
 import br.com.school.admin.models.Teacher;
-import br.com.school.admin.services.DefaultCrudService;
+import br.com.school.admin.services.ClassService;
+import br.com.school.admin.services.CountService;
+import br.com.school.admin.services.CsvImportService;
+import br.com.school.admin.services.ExportService;
+import br.com.school.admin.services.ProjectionService;
+import br.com.school.admin.services.TeacherServiceImpl;
+import br.com.school.admin.services.WriteBehindService;
+import br.com.school.admin.utils.json.MergePatch;
+import br.com.school.admin.utils.json.SparseFields;
+import br.com.school.admin.utils.sharding.ShardRouter;
 import br.com.school.admin.utils.validators.DefaultValidator;
-import jakarta.validation.Valid;
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.net.URI;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/teachers")
 public class TeacherController {
 
-    private final DefaultCrudService<Teacher> service;
+    private static final String RESPOND_ASYNC = "Prefer=respond-async";
+    private static final List<String> FILTERS = List.of("cpf", "specialty", "since");
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("name", "cpf", "specialty");
 
-    public TeacherController(DefaultCrudService<Teacher> service) {
+    private final TeacherServiceImpl service;
+    private final WriteBehindService writeBehindService;
+    private final CsvImportService csvImportService;
+    private final ExportService exportService;
+    private final CountService countService;
+    private final ProjectionService projectionService;
+    private final ShardRouter shardRouter;
+    private final ClassService classService;
+
+    public TeacherController(TeacherServiceImpl service, WriteBehindService writeBehindService,
+                              CsvImportService csvImportService, ExportService exportService,
+                              ClassService classService, CountService countService,
+                              ProjectionService projectionService, ShardRouter shardRouter) {
         this.service = service;
+        this.writeBehindService = writeBehindService;
+        this.csvImportService = csvImportService;
+        this.exportService = exportService;
+        this.countService = countService;
+        this.projectionService = projectionService;
+        this.shardRouter = shardRouter;
+        this.classService = classService;
     }
 
     @GetMapping
@@ -32,27 +82,127 @@ public class TeacherController {
         return service.findAll();
     }
 
+    @GetMapping(params = {"page", "size", "!fields"})
+    public List<Teacher> findPage(@RequestParam int page, @RequestParam int size) {
+        return service.findPage(page, size);
+    }
+
+    @GetMapping(params = "fields")
+    public List<Map<String, Object>> findAllFields(@RequestParam String fields,
+                                                   @RequestParam Map<String, String> params) {
+        SparseFields.checkNotFiltered(params, FILTERS);
+        return projectionService.findAll("teachers", fields);
+    }
+
+    @GetMapping(params = {"page", "size", "fields"})
+    public List<Map<String, Object>> findPageFields(@RequestParam int page, @RequestParam int size,
+                                                    @RequestParam String fields,
+                                                    @RequestParam Map<String, String> params) {
+        SparseFields.checkNotFiltered(params, FILTERS);
+        return projectionService.findPage("teachers", fields, page, size);
+    }
+
+    @GetMapping("/count")
+    public CountDto count() {
+        return new CountDto("teachers", countService.count("teachers"));
+    }
+
+    @GetMapping(params = {"cpf", "!fields"})
+    public Teacher findByCpf(@RequestParam String cpf) {
+        return service.findByCpf(cpf);
+    }
+
+    @GetMapping(params = {"specialty", "!fields"})
+    public List<Teacher> findBySpecialty(@RequestParam String specialty) {
+        return service.findBySpecialty(specialty);
+    }
+
+    @GetMapping(params = {"since", "!fields"})
+    public SyncDto<Teacher> findChangedSince(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant since) {
+        return service.findChangedSince(since);
+    }
+
     @GetMapping("/{id}")
     public Teacher findById(@PathVariable Long id) {
         return service.findById(id);
     }
 
+    @GetMapping(value = "/{id}", params = "fields")
+    public Map<String, Object> findByIdFields(@PathVariable Long id, @RequestParam String fields) {
+        return projectionService.findById("teachers", id, fields);
+    }
+
+    @GetMapping("/{id}/classes")
+    public KeysetPageDto<ClassDto> findClasses(@PathVariable Long id,
+                                               @RequestParam(defaultValue = "0") Long after,
+                                               @RequestParam(defaultValue = "20") int size) {
+        return classService.findByTeacher(id, after, size);
+    }
+
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public Teacher save(@RequestBody @Valid Teacher teacher) {
+    public Teacher save(@RequestBody Teacher teacher) {
         DefaultValidator.isValidTeacher(teacher);
         return service.save(teacher);
     }
 
     @PutMapping("/{id}")
-    public Teacher update(@PathVariable Long id, @RequestBody @Valid Teacher teacher) {
+    public Teacher update(@PathVariable Long id, @RequestBody Teacher teacher) {
         DefaultValidator.isValidTeacher(teacher);
         return service.update(id, teacher);
     }
 
+    @PatchMapping(value = "/{id}", consumes = MergePatch.MEDIA_TYPE)
+    public Teacher patch(@PathVariable Long id, @RequestBody JsonNode patch) {
+        return service.patch(id, MergePatch.fields(patch, PATCHABLE_FIELDS));
+    }
+
+    @PostMapping(headers = RESPOND_ASYNC)
+    public ResponseEntity<OperationDto> saveAsync(@RequestBody Teacher teacher) {
+        DefaultValidator.isValidTeacher(teacher);
+        return accepted(writeBehindService.submit("teachers", shardRouter.shardOfCpf(teacher.getCpf()),
+                () -> service.save(teacher).getId()));
+    }
+
+    @PutMapping(value = "/{id}", headers = RESPOND_ASYNC)
+    public ResponseEntity<OperationDto> updateAsync(@PathVariable Long id, @RequestBody Teacher teacher) {
+        DefaultValidator.isValidTeacher(teacher);
+        return accepted(writeBehindService.submit("teachers", shardRouter.shardOfId(id),
+                () -> service.update(id, teacher).getId()));
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ImportDto importCsv(HttpServletRequest request) throws IOException {
+        return csvImportService.importCsv("teachers", request.getInputStream());
+    }
+
+    @PostMapping("/export")
+    public ResponseEntity<ExportDto> export(@RequestParam(defaultValue = "csv") String format) {
+        var export = exportService.submit("teachers", ExportDto.Format.of(format));
+        return ResponseEntity.accepted()
+                .location(URI.create("/exports/" + export.id()))
+                .body(export);
+    }
+
+    @PatchMapping
+    public BulkResultDto updateAll(@RequestBody TeacherBulkUpdateDto update) {
+        return new BulkResultDto("teachers", service.updateAll(update));
+    }
+
+    @DeleteMapping
+    public BulkResultDto deleteAll(@RequestBody BulkDeleteDto filter) {
+        return new BulkResultDto("teachers", service.deleteAll(filter));
+    }
+
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void delete(@PathVariable Long id) {
         service.delete(id);
     }
+
+    private ResponseEntity<OperationDto> accepted(OperationDto operation) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/operations/" + operation.id()))
+                .body(operation);
+    }
 }
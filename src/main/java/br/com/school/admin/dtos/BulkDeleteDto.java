@@ -0,0 +1,7 @@
+package br.com.school.admin.dtos;
+
+import java.time.Instant;
+import java.util.List;
+
+public record BulkDeleteDto(List<Long> ids, Instant updatedBefore) {
+}
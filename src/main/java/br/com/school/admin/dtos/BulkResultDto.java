@@ -0,0 +1,4 @@
+package br.com.school.admin.dtos;
+
+public record BulkResultDto(String resource, int affected) {
+}
@@ -0,0 +1,11 @@
+package br.com.school.admin.dtos;
+
+import br.com.school.admin.models.SchoolClass;
+import br.com.school.admin.models.Teacher;
+
+public record ClassDto(Long id, String name, Teacher teacher, long students) {
+
+    public static ClassDto of(SchoolClass schoolClass, long students) {
+        return new ClassDto(schoolClass.getId(), schoolClass.getName(), schoolClass.getTeacher(), students);
+    }
+}
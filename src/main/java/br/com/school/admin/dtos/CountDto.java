@@ -0,0 +1,4 @@
+package br.com.school.admin.dtos;
+
+public record CountDto(String resource, long count) {
+}
@@ -0,0 +1,47 @@
+package br.com.school.admin.dtos;
+
+import java.util.Locale;
+
+public record ExportDto(String id, String resource, Format format, Status status, long rows, Long size,
+                        String download, String message) {
+
+    public enum Status {
+        PENDING, RUNNING, DONE, FAILED
+    }
+
+    public enum Format {
+        CSV, JSON;
+
+        public static Format of(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Format must be csv or json");
+            }
+        }
+
+        public String extension() {
+            return name().toLowerCase(Locale.ROOT) + ".gz";
+        }
+    }
+
+    public static ExportDto pending(String id, String resource, Format format) {
+        return new ExportDto(id, resource, format, Status.PENDING, 0, null, null, null);
+    }
+
+    public ExportDto running() {
+        return new ExportDto(id, resource, format, Status.RUNNING, 0, null, null, null);
+    }
+
+    public ExportDto done(long rows, long size) {
+        return new ExportDto(id, resource, format, Status.DONE, rows, size, "/exports/" + id + "/download", null);
+    }
+
+    public ExportDto failed(String message) {
+        return new ExportDto(id, resource, format, Status.FAILED, 0, null, null, message);
+    }
+
+    public boolean finished() {
+        return status == Status.DONE || status == Status.FAILED;
+    }
+}
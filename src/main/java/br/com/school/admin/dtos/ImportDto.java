@@ -0,0 +1,4 @@
+package br.com.school.admin.dtos;
+
+public record ImportDto(String id, String resource, long total, long imported, long failed, String errorReport) {
+}
@@ -0,0 +1,15 @@
+package br.com.school.admin.dtos;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a list ordered by id. {@code next} is the id to pass as {@code after} for
+ * the following page, or {@code null} on the last one.
+ */
+public record KeysetPageDto<T>(List<T> items, Long next) {
+
+    public static <T> KeysetPageDto<T> of(List<T> items, int size, Function<T, Long> id) {
+        return new KeysetPageDto<>(items, items.size() < size ? null : id.apply(items.get(items.size() - 1)));
+    }
+}
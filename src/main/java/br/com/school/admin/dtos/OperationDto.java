@@ -0,0 +1,20 @@
+package br.com.school.admin.dtos;
+
+public record OperationDto(String id, String resource, Status status, Long resourceId, String message) {
+
+    public enum Status {
+        PENDING, DONE, FAILED
+    }
+
+    public static OperationDto pending(String id, String resource) {
+        return new OperationDto(id, resource, Status.PENDING, null, null);
+    }
+
+    public OperationDto done(Long resourceId) {
+        return new OperationDto(id, resource, Status.DONE, resourceId, null);
+    }
+
+    public OperationDto failed(String message) {
+        return new OperationDto(id, resource, Status.FAILED, null, message);
+    }
+}
@@ -0,0 +1,16 @@
+package br.com.school.admin.dtos;
+
+/**
+ * Heap held by one columnar table next to the estimate for the same rows as entities,
+ * both also scaled to a million rows.
+ */
+public record ReadModelFootprintDto(String resource, int rows, long columnarBytes, long entityBytes,
+                                    long columnarBytesPerMillion, long entityBytesPerMillion) {
+
+    private static final long MILLION = 1_000_000;
+
+    public static ReadModelFootprintDto of(String resource, int rows, long columnarBytes, long entityBytes) {
+        return new ReadModelFootprintDto(resource, rows, columnarBytes, entityBytes,
+                rows == 0 ? 0 : columnarBytes * MILLION / rows, rows == 0 ? 0 : entityBytes * MILLION / rows);
+    }
+}
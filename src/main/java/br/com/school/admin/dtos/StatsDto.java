@@ -0,0 +1,11 @@
+package br.com.school.admin.dtos;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Row count of each person resource, as last reconciled with the database at
+ * {@code reconciledAt} and moved by every write since.
+ */
+public record StatsDto(Map<String, Long> counts, Instant reconciledAt) {
+}
@@ -0,0 +1,11 @@
+package br.com.school.admin.dtos;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Delta between a client's watermark and now: rows created or updated since then, ids
+ * deleted since then, and the watermark to send on the next sync.
+ */
+public record SyncDto<T>(List<T> changed, List<Long> deleted, Instant watermark) {
+}
@@ -0,0 +1,12 @@
+package br.com.school.admin.dtos;
+
+import java.util.List;
+
+public record TeacherBulkUpdateDto(Filter filter, Changes changes) {
+
+    public record Filter(List<Long> ids, String specialty) {
+    }
+
+    public record Changes(String name, String cpf, String specialty) {
+    }
+}
@@ -0,0 +1,5 @@
+package br.com.school.admin.events;
+
+public enum ChangeType {
+    CREATED, UPDATED, DELETED
+}
@@ -0,0 +1,8 @@
+package br.com.school.admin.events;
+
+/**
+ * Published by the person services after every write. {@code entity} is the saved
+ * entity, or the removed one for {@link ChangeType#DELETED}.
+ */
+public record PersonChangedEvent(String resource, ChangeType type, Long id, Object entity) {
+}
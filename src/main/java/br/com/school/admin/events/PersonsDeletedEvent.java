@@ -0,0 +1,12 @@
+package br.com.school.admin.events;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Published once per shard by a bulk delete in place of one {@link PersonChangedEvent}
+ * per row. {@code deletedAt} is the stamp of the tombstones the delete wrote, so
+ * listeners that write to the database can select the rows from them.
+ */
+public record PersonsDeletedEvent(String resource, List<Long> ids, Instant deletedAt) {
+}
@@ -0,0 +1,13 @@
+package br.com.school.admin.events;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Published once per shard by a bulk teacher update in place of one
+ * {@link PersonChangedEvent} per row. {@code name} and {@code specialty} are the values
+ * applied, {@code null} when left unchanged, and {@code updatedAt} is the stamp the update
+ * wrote, so listeners that write to the database can select the rows by it.
+ */
+public record TeachersUpdatedEvent(List<Long> ids, String name, String specialty, Instant updatedAt) {
+}
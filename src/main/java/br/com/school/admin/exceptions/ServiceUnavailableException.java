@@ -0,0 +1,7 @@
+package br.com.school.admin.exceptions;
+
+public class ServiceUnavailableException extends RuntimeException {
+    public ServiceUnavailableException(String message) {
+        super(message, null, false, false);
+    }
+}
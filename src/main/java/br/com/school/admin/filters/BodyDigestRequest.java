@@ -0,0 +1,123 @@
+package br.com.school.admin.filters;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Hashes the request body as the application reads it, so large bodies are never held
+ * in memory. {@link #digest()} reads whatever the application left unread and returns
+ * the SHA-256 of the whole body.
+ */
+class BodyDigestRequest extends HttpServletRequestWrapper {
+
+    private final MessageDigest digest;
+    private DigestingInputStream stream;
+    private BufferedReader reader;
+
+    BodyDigestRequest(HttpServletRequest request) {
+        super(request);
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+        if (stream == null) {
+            stream = new DigestingInputStream(super.getInputStream());
+        }
+        return stream;
+    }
+
+    @Override
+    public BufferedReader getReader() throws IOException {
+        if (reader == null) {
+            var encoding = getCharacterEncoding();
+            var charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.ISO_8859_1;
+            reader = new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+        return reader;
+    }
+
+    String digest() throws IOException {
+        var body = (DigestingInputStream) getInputStream();
+        var buffer = new byte[8192];
+        while (body.read(buffer, 0, buffer.length) != -1) {
+            // drained into the digest
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private class DigestingInputStream extends ServletInputStream {
+
+        private final ServletInputStream delegate;
+        private boolean finished;
+
+        DigestingInputStream(ServletInputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (finished) {
+                return -1;
+            }
+            var value = delegate.read();
+            if (value == -1) {
+                finished = true;
+            } else {
+                digest.update((byte) value);
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (finished) {
+                return -1;
+            }
+            var count = delegate.read(buffer, offset, length);
+            if (count == -1) {
+                finished = true;
+            } else {
+                digest.update(buffer, offset, count);
+            }
+            return count;
+        }
+
+        /**
+         * Left open so the unread rest can still be hashed after a converter closes it.
+         */
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener listener) {
+            delegate.setReadListener(listener);
+        }
+    }
+}
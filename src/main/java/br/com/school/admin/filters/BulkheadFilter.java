@@ -0,0 +1,74 @@
+package br.com.school.admin.filters;
+
+import br.com.school.admin.config.BulkheadProperties;
+import br.com.school.admin.exceptions.ErrorDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Runs each request to the person resources inside the bulkhead of its resource and
+ * endpoint class, answering 503 when the bulkhead stays full for longer than
+ * {@code max-wait}.
+ */
+@Component
+@Order(FilterOrder.BULKHEAD)
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    private final Bulkheads bulkheads;
+    private final BulkheadProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+
+    public BulkheadFilter(Bulkheads bulkheads, BulkheadProperties properties, MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+        this.bulkheads = bulkheads;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.enabled() || EndpointClass.of(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        var endpointClass = EndpointClass.of(request);
+        var resource = EndpointClass.resourceOf(request);
+        boolean acquired;
+        try {
+            acquired = bulkheads.tryAcquire(resource, endpointClass);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (acquired) {
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                bulkheads.release(resource, endpointClass);
+            }
+            return;
+        }
+        meterRegistry.counter("school.bulkhead.rejected",
+                "endpoint_class", endpointClass.name().toLowerCase(),
+                "resource", resource).increment();
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorDto("Too many concurrent requests", "503"));
+    }
+}
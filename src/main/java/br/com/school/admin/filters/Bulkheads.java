@@ -0,0 +1,47 @@
+package br.com.school.admin.filters;
+
+import br.com.school.admin.config.BulkheadProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One fair semaphore per resource and endpoint class, so slow listings of one resource
+ * cannot take the threads and connections that its writes or other resources need.
+ */
+@Component
+public class Bulkheads {
+
+    private final Map<String, Map<EndpointClass, Semaphore>> semaphores = new HashMap<>();
+    private final long maxWaitNanos;
+
+    public Bulkheads(BulkheadProperties properties) {
+        for (var resource : EndpointClass.RESOURCES) {
+            var byClass = new EnumMap<EndpointClass, Semaphore>(EndpointClass.class);
+            for (var endpointClass : EndpointClass.values()) {
+                byClass.put(endpointClass, new Semaphore(properties.limitOf(resource, endpointClass), true));
+            }
+            semaphores.put(resource, byClass);
+        }
+        this.maxWaitNanos = properties.maxWait().toNanos();
+    }
+
+    /**
+     * Waits up to {@code max-wait} for a permit; callers that get one must {@link #release}.
+     */
+    public boolean tryAcquire(String resource, EndpointClass endpointClass) throws InterruptedException {
+        return semaphores.get(resource).get(endpointClass).tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void release(String resource, EndpointClass endpointClass) {
+        semaphores.get(resource).get(endpointClass).release();
+    }
+
+    public int available(String resource, EndpointClass endpointClass) {
+        return semaphores.get(resource).get(endpointClass).availablePermits();
+    }
+}
@@ -0,0 +1,30 @@
+package br.com.school.admin.filters;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.Set;
+
+public enum EndpointClass {
+    LIST, DETAIL, WRITE;
+
+    public static final Set<String> RESOURCES = Set.of("students", "teachers", "directors");
+
+    /**
+     * Classifies requests to the person resources; returns {@code null} for anything else.
+     */
+    public static EndpointClass of(HttpServletRequest request) {
+        var segments = request.getRequestURI().substring(request.getContextPath().length()).split("/");
+        if (segments.length < 2 || !RESOURCES.contains(segments[1])) {
+            return null;
+        }
+        var method = request.getMethod();
+        if (!method.equals("GET") && !method.equals("HEAD")) {
+            return WRITE;
+        }
+        return segments.length == 2 ? LIST : DETAIL;
+    }
+
+    public static String resourceOf(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length()).split("/")[1];
+    }
+}
@@ -0,0 +1,17 @@
+package br.com.school.admin.filters;
+
+import org.springframework.core.Ordered;
+
+/**
+ * Idempotency runs ahead of the bulkhead, so a replayed write, or one waiting for the
+ * original request with its key, never holds a permit.
+ */
+public final class FilterOrder {
+
+    public static final int RATE_LIMIT = Ordered.HIGHEST_PRECEDENCE + 50;
+    public static final int IDEMPOTENCY = Ordered.HIGHEST_PRECEDENCE + 75;
+    public static final int BULKHEAD = Ordered.HIGHEST_PRECEDENCE + 100;
+
+    private FilterOrder() {
+    }
+}
@@ -0,0 +1,141 @@
+package br.com.school.admin.filters;
+
+import br.com.school.admin.config.IdempotencyProperties;
+import br.com.school.admin.exceptions.ErrorDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Serves repeated writes carrying the same {@code Idempotency-Key} from the stored first
+ * response, so a retried request never reaches the services again. Keys are scoped by
+ * client, the same one the rate limiter uses, and by method and path, so two clients
+ * picking the same key never see each other's responses. The first request's body hash
+ * is stored with its response: a key reused with a different body is refused with 422
+ * instead of replaying. Server errors are not stored, letting the client retry for real.
+ */
+@Component
+@Order(FilterOrder.IDEMPOTENCY)
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
+    private static final Set<String> WRITE_METHODS = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+    private final IdempotencyStore store;
+    private final IdempotencyProperties properties;
+    private final ObjectMapper objectMapper;
+
+    public IdempotencyFilter(IdempotencyStore store, IdempotencyProperties properties, ObjectMapper objectMapper) {
+        this.store = store;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !WRITE_METHODS.contains(request.getMethod()) || request.getHeader(IDEMPOTENCY_KEY) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        var key = RateLimitFilter.clientOf(request) + " " + request.getMethod() + " " + request.getRequestURI()
+                + " " + request.getHeader(IDEMPOTENCY_KEY);
+        while (true) {
+            var claim = store.claim(key);
+            if (claim.owner()) {
+                execute(claim, request, response, chain);
+                return;
+            }
+            var stored = await(claim);
+            if (stored != null && stored.bodyHash() != null
+                    && !stored.bodyHash().equals(new BodyDigestRequest(request).digest())) {
+                writeError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                        "Idempotency-Key was already used with a different request body");
+                return;
+            }
+            if (stored != null) {
+                replay(stored, response);
+                return;
+            }
+        }
+    }
+
+    private void execute(IdempotencyStore.Claim claim, HttpServletRequest request, HttpServletResponse response,
+                         FilterChain chain) throws ServletException, IOException {
+        var body = new BodyDigestRequest(request);
+        var wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(body, wrapper);
+        } catch (ServletException | IOException | RuntimeException e) {
+            store.abandon(claim);
+            throw e;
+        }
+        if (wrapper.getStatus() >= 500) {
+            store.abandon(claim);
+        } else {
+            var headers = new HashMap<String, String>();
+            if (wrapper.getHeader(HttpHeaders.LOCATION) != null) {
+                headers.put(HttpHeaders.LOCATION, wrapper.getHeader(HttpHeaders.LOCATION));
+            }
+            if (wrapper.getContentType() != null) {
+                headers.put(HttpHeaders.CONTENT_TYPE, wrapper.getContentType());
+            }
+            store.complete(claim, new IdempotencyStore.StoredResponse(wrapper.getStatus(), headers,
+                    wrapper.getContentAsByteArray(), body.digest()));
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    private IdempotencyStore.StoredResponse await(IdempotencyStore.Claim claim) throws IOException {
+        try {
+            return claim.response().get(properties.inFlightWait().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return conflict("A request with this Idempotency-Key is still in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return conflict("Interrupted while waiting for the original request");
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    private IdempotencyStore.StoredResponse conflict(String message) throws IOException {
+        var body = objectMapper.writeValueAsBytes(new ErrorDto(message, "409"));
+        return new IdempotencyStore.StoredResponse(HttpStatus.CONFLICT.value(),
+                Map.of(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE), body, null);
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorDto(message, String.valueOf(status.value())));
+    }
+
+    private void replay(IdempotencyStore.StoredResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.status());
+        stored.headers().forEach(response::setHeader);
+        response.setHeader(IDEMPOTENT_REPLAYED, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+}
@@ -0,0 +1,102 @@
+package br.com.school.admin.filters;
+
+import br.com.school.admin.config.IdempotencyProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Bounded, TTL-evicting map from idempotency key to the first response produced for it.
+ * The first caller of {@link #claim} owns the key; everyone else gets the owner's future,
+ * which completes with the stored response or with {@code null} if the owner gave up.
+ */
+@Component
+public class IdempotencyStore {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<String> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final IdempotencyProperties properties;
+
+    public IdempotencyStore(IdempotencyProperties properties) {
+        this.properties = properties;
+    }
+
+    public Claim claim(String key) {
+        var now = System.currentTimeMillis();
+        var owner = new Entry(new CompletableFuture<>(), now);
+        var entry = entries.compute(key, (k, current) -> current != null && !isExpired(current, now) ? current : owner);
+        if (entry == owner) {
+            insertionOrder.add(key);
+            evictOverflow();
+        }
+        return new Claim(key, entry, entry == owner);
+    }
+
+    public void complete(Claim claim, StoredResponse response) {
+        claim.entry().response().complete(response);
+    }
+
+    public void abandon(Claim claim) {
+        entries.remove(claim.key(), claim.entry());
+        claim.entry().response().complete(null);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    @Scheduled(fixedDelayString = "${school.idempotency.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        var now = System.currentTimeMillis();
+        entries.entrySet().removeIf(e -> isExpired(e.getValue(), now));
+        insertionOrder.removeIf(key -> !entries.containsKey(key));
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return now - entry.createdAt() > properties.ttl().toMillis();
+    }
+
+    /**
+     * Evicts the oldest completed keys. Keys still in flight are moved to the back
+     * instead: dropping one would let a concurrent retry own it and run the write twice.
+     */
+    private void evictOverflow() {
+        for (int attempts = entries.size(); entries.size() > properties.maxEntries() && attempts > 0; attempts--) {
+            var oldest = insertionOrder.poll();
+            if (oldest == null) {
+                return;
+            }
+            var entry = entries.get(oldest);
+            if (entry == null) {
+                continue;
+            }
+            if (!entry.response().isDone()) {
+                insertionOrder.add(oldest);
+            } else {
+                entries.remove(oldest, entry);
+            }
+        }
+    }
+
+    public record Claim(String key, Entry entry, boolean owner) {
+
+        public CompletableFuture<StoredResponse> response() {
+            return entry.response();
+        }
+    }
+
+    public record Entry(CompletableFuture<StoredResponse> response, long createdAt) {
+    }
+
+    /**
+     * A response and the hash of the request body that produced it, {@code null} when
+     * the response was not produced by a request.
+     */
+    public record StoredResponse(int status, Map<String, String> headers, byte[] body, String bodyHash) {
+    }
+}
@@ -0,0 +1,72 @@
+package br.com.school.admin.filters;
+
+import br.com.school.admin.config.RateLimitProperties;
+import br.com.school.admin.exceptions.ErrorDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Applies the per-client token buckets to the person resources. Clients are identified by
+ * {@code X-API-Key} when present, otherwise by remote address.
+ */
+@Component
+@Order(FilterOrder.RATE_LIMIT)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    public static final String API_KEY = "X-API-Key";
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final TokenBuckets buckets;
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(TokenBuckets buckets, RateLimitProperties properties, MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+        this.buckets = buckets;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
+    }
+
+    public static String clientOf(HttpServletRequest request) {
+        var apiKey = request.getHeader(API_KEY);
+        return apiKey != null ? apiKey : request.getRemoteAddr();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.enabled() || EndpointClass.of(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        var endpointClass = EndpointClass.of(request);
+        var waitNanos = buckets.tryAcquire(endpointClass, clientOf(request));
+        if (waitNanos == 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+        meterRegistry.counter("school.ratelimit.rejected",
+                "endpoint_class", endpointClass.name().toLowerCase(),
+                "resource", EndpointClass.resourceOf(request)).increment();
+        var retryAfterSeconds = Math.max(1, (waitNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), new ErrorDto("Too many requests", "429"));
+    }
+}
@@ -0,0 +1,93 @@
+package br.com.school.admin.filters;
+
+import br.com.school.admin.config.RateLimitProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-client token buckets kept, for each endpoint class, in power-of-two stripes of
+ * concurrent maps keyed by the client itself. Each bucket is a single {@link AtomicLong}
+ * holding the theoretical arrival time of the next request (GCRA). Taking a token from a
+ * known client's bucket is a map lookup and a CAS, without locking or allocating; only a
+ * client's first request allocates its bucket.
+ */
+@Component
+public class TokenBuckets {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final ConcurrentHashMap<String, AtomicLong>[][] stripes;
+    private final RateLimitProperties properties;
+
+    @SuppressWarnings("unchecked")
+    public TokenBuckets(RateLimitProperties properties) {
+        this.properties = properties;
+        this.stripes = new ConcurrentHashMap[EndpointClass.values().length][properties.stripes()];
+        for (var classStripes : stripes) {
+            for (int i = 0; i < classStripes.length; i++) {
+                classStripes[i] = new ConcurrentHashMap<>();
+            }
+        }
+    }
+
+    /**
+     * Takes one token for the client, returning {@code 0} when allowed or the nanoseconds
+     * to wait before a token becomes available.
+     */
+    public long tryAcquire(EndpointClass endpointClass, String client) {
+        return tryAcquire(endpointClass, client, System.nanoTime());
+    }
+
+    long tryAcquire(EndpointClass endpointClass, String client, long now) {
+        var limit = properties.limits().get(endpointClass);
+        var interval = (long) (NANOS_PER_SECOND / limit.refillPerSecond());
+        var burst = interval * limit.capacity();
+        var stripe = stripeFor(endpointClass, client);
+        var bucket = stripe.get(client);
+        if (bucket == null) {
+            var created = new AtomicLong(now);
+            bucket = Objects.requireNonNullElse(stripe.putIfAbsent(client, created), created);
+        }
+        while (true) {
+            var tat = bucket.get();
+            var start = Math.max(tat, now);
+            var wait = start - now - (burst - interval);
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(tat, start + interval)) {
+                return 0;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${school.rate-limit.purge-interval-ms:60000}")
+    public void purgeIdle() {
+        var now = System.nanoTime();
+        for (var classStripes : stripes) {
+            for (var stripe : classStripes) {
+                stripe.values().removeIf(bucket -> bucket.get() < now);
+            }
+        }
+    }
+
+    int size() {
+        var size = 0;
+        for (var classStripes : stripes) {
+            for (var stripe : classStripes) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    private ConcurrentHashMap<String, AtomicLong> stripeFor(EndpointClass endpointClass, String client) {
+        var classStripes = stripes[endpointClass.ordinal()];
+        var h = client.hashCode();
+        return classStripes[(h ^ (h >>> 16)) & (classStripes.length - 1)];
+    }
+}
@@ -0,0 +1,62 @@
+package br.com.school.admin.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "tb_change_log")
+public class ChangeLog {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "cd_change")
+    private Long id;
+
+    @Column(name = "ds_resource")
+    private String resource;
+
+    @Column(name = "cd_person")
+    private Long personId;
+
+    @Column(name = "ds_origin")
+    private String origin;
+
+    @Column(name = "dt_changed")
+    private Instant changedAt;
+
+    public ChangeLog(String resource, Long personId, String origin, Instant changedAt) {
+        this.resource = resource;
+        this.personId = personId;
+        this.origin = origin;
+        this.changedAt = changedAt;
+    }
+
+    public ChangeLog() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getResource() {
+        return resource;
+    }
+
+    public Long getPersonId() {
+        return personId;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public Instant getChangedAt() {
+        return changedAt;
+    }
+}
@@ -0,0 +1,38 @@
+package br.com.school.admin.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * One row per CPF in use by any student, teacher or director on the shard. Its primary
+ * key is what keeps a CPF unique across the three person tables.
+ */
+@Entity
+@Table(name = "tb_cpfs")
+public class CpfRegistration {
+
+    @Id
+    @Column(name = "nr_cpf")
+    private String cpf;
+
+    @Column(name = "ds_resource")
+    private String resource;
+
+    public CpfRegistration(String cpf, String resource) {
+        this.cpf = cpf;
+        this.resource = resource;
+    }
+
+    public CpfRegistration() {
+    }
+
+    public String getCpf() {
+        return cpf;
+    }
+
+    public String getResource() {
+        return resource;
+    }
+}
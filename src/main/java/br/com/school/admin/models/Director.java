@@ -1,16 +1,24 @@
 package br.com.school.admin.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
-import org.springframework.validation.annotation.Validated;
+import jakarta.persistence.Version;
+import br.com.school.admin.utils.validators.constraints.Cpf;
+import br.com.school.admin.utils.validators.constraints.Required;
+import org.hibernate.annotations.DynamicUpdate;
+
+import java.time.Instant;
 
 @Entity
+@DynamicUpdate
 @Table(name = "tb_directors")
-@Validated
 public class Director {
 
     @Id
@@ -18,12 +26,24 @@ public class Director {
     @Column(name = "cd_director")
     private Long id;
 
+    @Required(message = "Name is required")
     @Column(name = "nm_director")
     private String name;
 
+    @Required(message = "CPF is required")
+    @Cpf(message = "CPF is invalid")
     @Column(name = "nr_cpf")
     private String cpf;
 
+    @JsonIgnore
+    @Column(name = "dt_updated")
+    private Instant updatedAt;
+
+    @Version
+    @JsonIgnore
+    @Column(name = "nr_version")
+    private long version;
+
     public Director(String name, String cpf) {
         this.name = name;
         this.cpf = cpf;
@@ -32,6 +52,14 @@ public class Director {
     public Director() {
     }
 
+    public Director(Director other) {
+        this.id = other.id;
+        this.name = other.name;
+        this.cpf = other.cpf;
+        this.updatedAt = other.updatedAt;
+        this.version = other.version;
+    }
+
     public Long getId() {
         return id;
     }
@@ -55,4 +83,18 @@ public class Director {
     public void setCpf(String cpf) {
         this.cpf = cpf;
     }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = Instant.now();
+    }
 }
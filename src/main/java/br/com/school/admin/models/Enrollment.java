@@ -0,0 +1,73 @@
+package br.com.school.admin.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+@Entity
+@IdClass(Enrollment.Key.class)
+@Table(name = "tb_enrollments")
+public class Enrollment {
+
+    @Id
+    @Column(name = "cd_class")
+    private Long classId;
+
+    @Id
+    @Column(name = "cd_student")
+    private Long studentId;
+
+    @Column(name = "dt_enrolled")
+    private Instant enrolledAt;
+
+    public Enrollment(Long classId, Long studentId, Instant enrolledAt) {
+        this.classId = classId;
+        this.studentId = studentId;
+        this.enrolledAt = enrolledAt;
+    }
+
+    public Enrollment() {
+    }
+
+    public Long getClassId() {
+        return classId;
+    }
+
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    public Instant getEnrolledAt() {
+        return enrolledAt;
+    }
+
+    public static class Key implements Serializable {
+
+        private Long classId;
+        private Long studentId;
+
+        public Key(Long classId, Long studentId) {
+            this.classId = classId;
+            this.studentId = studentId;
+        }
+
+        public Key() {
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && Objects.equals(classId, key.classId) && Objects.equals(studentId, key.studentId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(classId, studentId);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package br.com.school.admin.models;
+
+import br.com.school.admin.utils.validators.constraints.Required;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+
+/**
+ * A class taught by one teacher. It is stored on its teacher's shard; its students may
+ * live on any shard, so enrollments hold plain student ids.
+ */
+@Entity
+@Table(name = "tb_classes")
+public class SchoolClass {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "cd_class")
+    private Long id;
+
+    @Required(message = "Name is required")
+    @Column(name = "nm_class")
+    private String name;
+
+    @Column(name = "cd_teacher", insertable = false, updatable = false)
+    private Long teacherId;
+
+    @JsonIgnore
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "cd_teacher")
+    private Teacher teacher;
+
+    public SchoolClass(String name, Long teacherId) {
+        this.name = name;
+        this.teacherId = teacherId;
+    }
+
+    public SchoolClass() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Long getTeacherId() {
+        return teacherId;
+    }
+
+    public void setTeacherId(Long teacherId) {
+        this.teacherId = teacherId;
+    }
+
+    public Teacher getTeacher() {
+        return teacher;
+    }
+
+    public void setTeacher(Teacher teacher) {
+        this.teacher = teacher;
+        this.teacherId = teacher.getId();
+    }
+}
@@ -1,29 +1,49 @@
 package br.com.school.admin.models;
 
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
-import org.springframework.validation.annotation.Validated;
+import jakarta.persistence.Version;
+import br.com.school.admin.utils.validators.constraints.Cpf;
+import br.com.school.admin.utils.validators.constraints.Required;
+import org.hibernate.annotations.DynamicUpdate;
+
+import java.time.Instant;
 
 @Entity
+@DynamicUpdate
 @Table(name = "tb_students")
-@Validated
 public class Student {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "cd_student")
     private Long id;
 
+    @Required(message = "Name is required")
     @Column(name = "nm_student")
     private String name;
 
+    @Required(message = "CPF is required")
+    @Cpf(message = "CPF is invalid")
     @Column(name = "nr_cpf")
     private String cpf;
 
+    @JsonIgnore
+    @Column(name = "dt_updated")
+    private Instant updatedAt;
+
+    @Version
+    @JsonIgnore
+    @Column(name = "nr_version")
+    private long version;
+
     public Student(String name, String cpf) {
         this.name = name;
         this.cpf = cpf;
@@ -32,6 +52,14 @@ public class Student {
     public Student() {
     }
 
+    public Student(Student other) {
+        this.id = other.id;
+        this.name = other.name;
+        this.cpf = other.cpf;
+        this.updatedAt = other.updatedAt;
+        this.version = other.version;
+    }
+
     public Long getId() {
         return id;
     }
@@ -55,4 +83,18 @@ public class Student {
     public void setCpf(String cpf) {
         this.cpf = cpf;
     }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = Instant.now();
+    }
 }
@@ -1,31 +1,52 @@
 package br.com.school.admin.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
-import org.springframework.validation.annotation.Validated;
+import jakarta.persistence.Version;
+import br.com.school.admin.utils.validators.constraints.Cpf;
+import br.com.school.admin.utils.validators.constraints.Required;
+import org.hibernate.annotations.DynamicUpdate;
+
+import java.time.Instant;
 
 @Entity
+@DynamicUpdate
 @Table(name = "tb_teachers")
-@Validated
 public class Teacher {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "cd_teacher")
     private Long id;
 
+    @Required(message = "Name is required")
     @Column(name = "nm_teacher")
     private String name;
 
+    @Required(message = "CPF is required")
+    @Cpf(message = "CPF is invalid")
     @Column(name = "nr_cpf")
     private String cpf;
 
+    @Required(message = "Specialty is required")
     @Column(name = "ds_specialty")
     private String specialty;
 
+    @JsonIgnore
+    @Column(name = "dt_updated")
+    private Instant updatedAt;
+
+    @Version
+    @JsonIgnore
+    @Column(name = "nr_version")
+    private long version;
+
     public Teacher(String name, String cpf, String specialty) {
         this.name = name;
         this.cpf = cpf;
@@ -35,6 +56,15 @@ public class Teacher {
     public Teacher() {
     }
 
+    public Teacher(Teacher other) {
+        this.id = other.id;
+        this.name = other.name;
+        this.cpf = other.cpf;
+        this.specialty = other.specialty;
+        this.updatedAt = other.updatedAt;
+        this.version = other.version;
+    }
+
     public Long getId() {
         return id;
     }
@@ -66,4 +96,18 @@ public class Teacher {
     public void setSpecialty(String specialty) {
         this.specialty = specialty;
     }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        updatedAt = Instant.now();
+    }
 }
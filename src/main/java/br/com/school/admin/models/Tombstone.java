@@ -0,0 +1,54 @@
+package br.com.school.admin.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "tb_tombstones")
+public class Tombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "cd_tombstone")
+    private Long id;
+
+    @Column(name = "ds_resource")
+    private String resource;
+
+    @Column(name = "cd_person")
+    private Long personId;
+
+    @Column(name = "dt_deleted")
+    private Instant deletedAt;
+
+    public Tombstone(String resource, Long personId, Instant deletedAt) {
+        this.resource = resource;
+        this.personId = personId;
+        this.deletedAt = deletedAt;
+    }
+
+    public Tombstone() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getResource() {
+        return resource;
+    }
+
+    public Long getPersonId() {
+        return personId;
+    }
+
+    public Instant getDeletedAt() {
+        return deletedAt;
+    }
+}
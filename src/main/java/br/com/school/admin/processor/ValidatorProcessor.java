@@ -0,0 +1,162 @@
+package br.com.school.admin.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates a {@code <Type>Validator} with plain static checks for every class whose fields
+ * carry the constraint annotations, so validation runs without reflection. Each field gets
+ * its own {@code validate<Field>} method, and {@code validate(<Type>)} calls them in
+ * declaration order. On a field, {@code Required} is checked before {@code Cpf}.
+ */
+@SupportedAnnotationTypes({ValidatorProcessor.REQUIRED, ValidatorProcessor.CPF})
+public class ValidatorProcessor extends AbstractProcessor {
+
+    static final String REQUIRED = "br.com.school.admin.utils.validators.constraints.Required";
+    static final String CPF = "br.com.school.admin.utils.validators.constraints.Cpf";
+    private static final String CPF_DIGITS = "br.com.school.admin.utils.validators.CpfDigits";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        var types = new LinkedHashSet<TypeElement>();
+        for (var annotation : annotations) {
+            for (var element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                types.add((TypeElement) element.getEnclosingElement());
+            }
+        }
+        for (var type : types) {
+            var fields = new ArrayList<Field>();
+            for (var field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+                var constraints = constraintsOf(field);
+                if (!constraints.isEmpty() && checkField(type, field)) {
+                    fields.add(new Field(field.getSimpleName().toString(), constraints));
+                }
+            }
+            write(type, fields);
+        }
+        return true;
+    }
+
+    private Map<String, String> constraintsOf(VariableElement field) {
+        var messages = new LinkedHashMap<String, String>();
+        for (var name : List.of(REQUIRED, CPF)) {
+            for (var mirror : field.getAnnotationMirrors()) {
+                if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(name)) {
+                    messages.put(name, message(mirror));
+                }
+            }
+        }
+        return messages;
+    }
+
+    private String message(AnnotationMirror mirror) {
+        return processingEnv.getElementUtils().getElementValuesWithDefaults(mirror).entrySet().stream()
+                .filter(entry -> entry.getKey().getSimpleName().contentEquals("message"))
+                .map(entry -> (String) entry.getValue().getValue())
+                .findFirst().orElseThrow();
+    }
+
+    private boolean checkField(TypeElement type, VariableElement field) {
+        if (!field.asType().toString().equals(String.class.getName())) {
+            error(field, "Constraint annotations are only supported on String fields");
+            return false;
+        }
+        var getter = getterOf(field);
+        var hasGetter = ElementFilter.methodsIn(type.getEnclosedElements()).stream()
+                .anyMatch(method -> method.getSimpleName().contentEquals(getter)
+                        && method.getParameters().isEmpty()
+                        && method.getModifiers().contains(Modifier.PUBLIC));
+        if (!hasGetter) {
+            error(field, "Constrained field needs a public " + getter + "()");
+        }
+        return hasGetter;
+    }
+
+    private void write(TypeElement type, List<Field> fields) {
+        var packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        var typeName = type.getSimpleName().toString();
+        var validatorName = typeName + "Validator";
+        var variable = Character.toLowerCase(typeName.charAt(0)) + typeName.substring(1);
+        try (var out = new PrintWriter(processingEnv.getFiler()
+                .createSourceFile(packageName + "." + validatorName, type).openWriter())) {
+            out.println("package " + packageName + ";");
+            out.println();
+            out.println("@javax.annotation.processing.Generated(\"" + getClass().getName() + "\")");
+            out.println("public final class " + validatorName + " {");
+            out.println();
+            out.println("    private " + validatorName + "() {");
+            out.println("    }");
+            out.println();
+            out.println("    public static void validate(" + typeName + " " + variable + ") {");
+            for (var field : fields) {
+                out.println("        validate" + capitalize(field.name()) + "(" + variable + "." + getterOf(field.name()) + "());");
+            }
+            out.println("    }");
+            for (var field : fields) {
+                out.println();
+                out.println("    public static void validate" + capitalize(field.name()) + "(String " + field.name() + ") {");
+                var required = field.constraints().get(REQUIRED);
+                if (required != null) {
+                    out.println("        if (" + field.name() + " == null || " + field.name() + ".isBlank()) {");
+                    out.println("            throw new IllegalArgumentException(" + literal(required) + ");");
+                    out.println("        }");
+                }
+                var cpf = field.constraints().get(CPF);
+                if (cpf != null) {
+                    out.println("        if (" + field.name() + " != null && !" + CPF_DIGITS + ".isValid(" + field.name() + ")) {");
+                    out.println("            throw new IllegalArgumentException(" + literal(cpf) + ");");
+                    out.println("        }");
+                }
+                out.println("    }");
+            }
+            out.println("}");
+        } catch (IOException e) {
+            error(type, "Could not write " + validatorName + ": " + e.getMessage());
+        }
+    }
+
+    private String literal(String value) {
+        return processingEnv.getElementUtils().getConstantExpression(value);
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private static String getterOf(VariableElement field) {
+        return getterOf(field.getSimpleName().toString());
+    }
+
+    private static String getterOf(String field) {
+        return "get" + capitalize(field);
+    }
+
+    private static String capitalize(String value) {
+        return Character.toUpperCase(value.charAt(0)) + value.substring(1);
+    }
+
+    private record Field(String name, Map<String, String> constraints) {
+    }
+}
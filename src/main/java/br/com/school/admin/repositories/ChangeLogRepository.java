@@ -0,0 +1,32 @@
+package br.com.school.admin.repositories;
+
+import br.com.school.admin.models.ChangeLog;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface ChangeLogRepository extends JpaRepository<ChangeLog, Long> {
+
+    @Query("select c from ChangeLog c where c.changedAt > :since and c.origin <> :origin")
+    List<ChangeLog> findChangesSince(Instant since, String origin);
+
+    @Modifying
+    @Query("insert into ChangeLog (resource, personId, origin, changedAt) "
+            + "select t.resource, t.personId, :origin, :changedAt from Tombstone t "
+            + "where t.resource = :resource and t.deletedAt = :deletedAt")
+    int insertTombstoned(String resource, Instant deletedAt, String origin, Instant changedAt);
+
+    @Modifying
+    @Query("insert into ChangeLog (resource, personId, origin, changedAt) "
+            + "select :resource, t.id, :origin, :changedAt from Teacher t where t.updatedAt = :updatedAt")
+    int insertTeachersUpdatedAt(String resource, Instant updatedAt, String origin, Instant changedAt);
+
+    @Transactional
+    @Modifying
+    @Query("delete from ChangeLog c where c.changedAt < :before")
+    int deleteChangedBefore(Instant before);
+}
@@ -0,0 +1,24 @@
+package br.com.school.admin.repositories;
+
+import br.com.school.admin.models.CpfRegistration;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface CpfRegistryRepository extends JpaRepository<CpfRegistration, String> {
+
+    /**
+     * Inserts straight away rather than on flush, so a CPF taken by another role fails
+     * here with a key violation.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "insert into tb_cpfs (nr_cpf, ds_resource) values (:cpf, :resource)", nativeQuery = true)
+    void register(String cpf, String resource);
+
+    @Transactional
+    @Modifying
+    @Query("delete from CpfRegistration c where c.cpf = :cpf")
+    int release(String cpf);
+}
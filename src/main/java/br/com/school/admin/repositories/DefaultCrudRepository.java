@@ -1,9 +1,54 @@
 package br.com.school.admin.repositories;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.NoRepositoryBean;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @NoRepositoryBean
 public interface DefaultCrudRepository<T> extends JpaRepository<T, Long> {
     boolean existsByCpf(String cpf);
+
+    Optional<T> findByCpf(String cpf);
+
+    List<T> findByUpdatedAtAfterOrderByUpdatedAt(Instant since);
+
+    List<T> findAllBy(Pageable pageable);
+
+    @Query("select e.cpf from #{#entityName} e where e.cpf in :cpfs")
+    List<String> findCpfsIn(Collection<String> cpfs);
+
+    @Modifying
+    @Query("insert into Tombstone (resource, personId, deletedAt) "
+            + "select :resource, e.id, :deletedAt from #{#entityName} e where e.id in :ids")
+    int insertTombstones(String resource, Collection<Long> ids, Instant deletedAt);
+
+    @Modifying
+    @Query("insert into Tombstone (resource, personId, deletedAt) "
+            + "select :resource, e.id, :deletedAt from #{#entityName} e where e.updatedAt < :before")
+    int insertTombstonesUpdatedBefore(String resource, Instant before, Instant deletedAt);
+
+    /**
+     * Ids of the rows still present that have a tombstone stamped {@code deletedAt}, that
+     * is the rows a bulk delete is about to remove.
+     */
+    @Query("select e.id from #{#entityName} e where e.id in "
+            + "(select t.personId from Tombstone t where t.resource = :resource and t.deletedAt = :deletedAt) order by e.id")
+    List<Long> findTombstonedIds(String resource, Instant deletedAt);
+
+    @Modifying
+    @Query("delete from CpfRegistration c where c.cpf in (select e.cpf from #{#entityName} e where e.id in "
+            + "(select t.personId from Tombstone t where t.resource = :resource and t.deletedAt = :deletedAt))")
+    int releaseTombstonedCpfs(String resource, Instant deletedAt);
+
+    @Modifying(clearAutomatically = true)
+    @Query("delete from #{#entityName} e where e.id in "
+            + "(select t.personId from Tombstone t where t.resource = :resource and t.deletedAt = :deletedAt)")
+    int deleteTombstoned(String resource, Instant deletedAt);
 }
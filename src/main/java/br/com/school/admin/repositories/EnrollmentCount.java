@@ -0,0 +1,4 @@
+package br.com.school.admin.repositories;
+
+public record EnrollmentCount(Long classId, long students) {
+}
@@ -0,0 +1,31 @@
+package br.com.school.admin.repositories;
+
+import br.com.school.admin.models.Enrollment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface EnrollmentRepository extends JpaRepository<Enrollment, Enrollment.Key> {
+
+    @Query("select e.studentId from Enrollment e where e.classId = :classId and e.studentId > :after order by e.studentId")
+    List<Long> findStudentIds(Long classId, Long after, Pageable pageable);
+
+    @Query("select new br.com.school.admin.repositories.EnrollmentCount(e.classId, count(e)) "
+            + "from Enrollment e where e.classId in :classIds group by e.classId")
+    List<EnrollmentCount> countByClassIds(Collection<Long> classIds);
+
+    /**
+     * Runs in a transaction of its own, as it is called after the student delete has
+     * committed, when joining that transaction would never commit.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query("delete from Enrollment e where e.studentId in :studentIds")
+    int deleteByStudentIds(Collection<Long> studentIds);
+}
@@ -0,0 +1,18 @@
+package br.com.school.admin.repositories;
+
+import br.com.school.admin.models.SchoolClass;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface SchoolClassRepository extends JpaRepository<SchoolClass, Long> {
+
+    @EntityGraph(attributePaths = "teacher")
+    Optional<SchoolClass> findWithTeacherById(Long id);
+
+    @EntityGraph(attributePaths = "teacher")
+    List<SchoolClass> findByTeacherIdAndIdGreaterThanOrderById(Long teacherId, Long after, Pageable pageable);
+}
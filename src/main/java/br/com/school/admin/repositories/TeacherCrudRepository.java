@@ -1,6 +1,28 @@
 package br.com.school.admin.repositories;
 
 import br.com.school.admin.models.Teacher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 
 public interface TeacherCrudRepository extends DefaultCrudRepository<Teacher> {
+
+    List<Teacher> findBySpecialty(String specialty, Sort sort);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Teacher t set t.name = coalesce(:name, t.name), t.specialty = coalesce(:specialty, t.specialty), "
+            + "t.updatedAt = :updatedAt, t.version = t.version + 1 where t.id in :ids")
+    int updateAllByIds(Collection<Long> ids, String name, String specialty, Instant updatedAt);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update Teacher t set t.name = coalesce(:name, t.name), t.specialty = coalesce(:specialty, t.specialty), "
+            + "t.updatedAt = :updatedAt, t.version = t.version + 1 where t.specialty = :filterSpecialty")
+    int updateAllBySpecialty(String filterSpecialty, String name, String specialty, Instant updatedAt);
+
+    @Query("select t.id from Teacher t where t.updatedAt = :updatedAt order by t.id")
+    List<Long> findIdsUpdatedAt(Instant updatedAt);
 }
@@ -0,0 +1,14 @@
+package br.com.school.admin.repositories;
+
+import br.com.school.admin.models.Tombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface TombstoneRepository extends JpaRepository<Tombstone, Long> {
+
+    @Query("select t.personId from Tombstone t where t.resource = :resource and t.deletedAt > :since order by t.deletedAt")
+    List<Long> findDeletedIdsSince(String resource, Instant since);
+}
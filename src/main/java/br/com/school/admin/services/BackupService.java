@@ -0,0 +1,78 @@
+package br.com.school.admin.services;
+
+import br.com.school.admin.config.BackupProperties;
+import br.com.school.admin.exceptions.ServiceUnavailableException;
+import br.com.school.admin.utils.sharding.ShardRouter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Takes online backups of the H2 database with {@code SCRIPT}. The script runs in one
+ * repeatable-read transaction, so every table is dumped from the same snapshot while
+ * readers and writers carry on against newer row versions. The dump is gzip'd straight to
+ * a local file, which keeps the snapshot as short as the dump itself instead of as long
+ * as the client takes to download it. Each shard is backed up on its own; one backup runs
+ * at a time.
+ */
+@Service
+public class BackupService {
+
+    private final DataSource dataSource;
+    private final BackupProperties properties;
+    private final Semaphore running = new Semaphore(1);
+    private final ShardRouter shardRouter;
+    private final Timer timer;
+
+    public BackupService(DataSource dataSource, BackupProperties properties, ShardRouter shardRouter,
+                         MeterRegistry meterRegistry) {
+        this.dataSource = dataSource;
+        this.properties = properties;
+        this.shardRouter = shardRouter;
+        this.timer = Timer.builder("school.backup").register(meterRegistry);
+    }
+
+    public Path backup(int shard) {
+        if (shard < 0 || shard >= shardRouter.shards()) {
+            throw new IllegalArgumentException("Unknown shard " + shard);
+        }
+        if (!running.tryAcquire()) {
+            throw new ServiceUnavailableException("A backup is already running");
+        }
+        try {
+            Files.createDirectories(properties.dir());
+            var file = Files.createTempFile(properties.dir(), "backup-", ".sql.gz");
+            timer.record(() -> shardRouter.run(shard, () -> script(file)));
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            running.release();
+        }
+    }
+
+    private void script(Path file) {
+        try (var connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            try (var statement = connection.createStatement()) {
+                statement.setQueryTimeout(0);
+                statement.execute("SCRIPT NOPASSWORDS NOSETTINGS DROP TO '"
+                        + file.toAbsolutePath().toString().replace("'", "''") + "' COMPRESSION GZIP");
+            } finally {
+                connection.rollback();
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Backup failed", e);
+        }
+    }
+}
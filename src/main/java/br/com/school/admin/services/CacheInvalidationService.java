@@ -0,0 +1,99 @@
+package br.com.school.admin.services;
+
+import br.com.school.admin.config.NearCacheProperties;
+import br.com.school.admin.config.QueryTimeoutProperties;
+import br.com.school.admin.events.ChangeType;
+import br.com.school.admin.events.PersonChangedEvent;
+import br.com.school.admin.events.PersonsDeletedEvent;
+import br.com.school.admin.events.TeachersUpdatedEvent;
+import br.com.school.admin.models.ChangeLog;
+import br.com.school.admin.repositories.ChangeLogRepository;
+import br.com.school.admin.utils.concurrent.NearCaches;
+import br.com.school.admin.utils.sharding.ShardRouter;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Keeps the near-caches of every instance sharing the database coherent. Updates and
+ * deletes are evicted locally once committed and written to the change log as part of the
+ * same write; each instance polls the log of every shard and evicts what the others
+ * changed. Each poll looks back again as far as a write may take to commit after stamping
+ * its change, so late commits are not skipped. Other nodes see a change within one poll
+ * interval; the cache TTL bounds anything a poll misses.
+ */
+@Service
+public class CacheInvalidationService {
+
+    private final String origin = UUID.randomUUID().toString();
+    private final NearCaches nearCaches;
+    private final ChangeLogRepository changeLogRepository;
+    private final ShardRouter shardRouter;
+    private final NearCacheProperties properties;
+    private final Duration settleTime;
+    private volatile Instant polledAt = Instant.now();
+    private volatile Instant prunedAt = Instant.now();
+
+    public CacheInvalidationService(NearCaches nearCaches, ChangeLogRepository changeLogRepository,
+                                    ShardRouter shardRouter, NearCacheProperties properties,
+                                    QueryTimeoutProperties queryTimeoutProperties) {
+        this.nearCaches = nearCaches;
+        this.changeLogRepository = changeLogRepository;
+        this.shardRouter = shardRouter;
+        this.properties = properties;
+        this.settleTime = queryTimeoutProperties.settleTime();
+    }
+
+    @EventListener
+    public void recordChange(PersonChangedEvent event) {
+        if (event.type() != ChangeType.CREATED) {
+            changeLogRepository.save(new ChangeLog(event.resource(), event.id(), origin, Instant.now()));
+        }
+    }
+
+    @EventListener
+    public void recordDeletions(PersonsDeletedEvent event) {
+        changeLogRepository.insertTombstoned(event.resource(), event.deletedAt(), origin, Instant.now());
+    }
+
+    @EventListener
+    public void recordTeacherUpdates(TeachersUpdatedEvent event) {
+        changeLogRepository.insertTeachersUpdatedAt(TeacherServiceImpl.RESOURCE, event.updatedAt(), origin, Instant.now());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void evictChange(PersonChangedEvent event) {
+        if (event.type() != ChangeType.CREATED) {
+            nearCaches.invalidate(event.resource(), event.id());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void evictDeletions(PersonsDeletedEvent event) {
+        event.ids().forEach(id -> nearCaches.invalidate(event.resource(), id));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void evictTeacherUpdates(TeachersUpdatedEvent event) {
+        event.ids().forEach(id -> nearCaches.invalidate(TeacherServiceImpl.RESOURCE, id));
+    }
+
+    @Scheduled(fixedDelayString = "${school.near-cache.poll-interval-ms:500}")
+    public void poll() {
+        var now = Instant.now();
+        var since = polledAt.minus(settleTime);
+        for (var changes : shardRouter.gather(shard -> changeLogRepository.findChangesSince(since, origin))) {
+            changes.forEach(change -> nearCaches.invalidate(change.getResource(), change.getPersonId()));
+        }
+        polledAt = now;
+        if (prunedAt.plus(properties.retention()).isBefore(now)) {
+            shardRouter.gather(shard -> changeLogRepository.deleteChangedBefore(now.minus(properties.retention())));
+            prunedAt = now;
+        }
+    }
+}
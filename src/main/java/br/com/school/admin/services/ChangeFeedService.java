@@ -0,0 +1,216 @@
+package br.com.school.admin.services;
+
+import br.com.school.admin.config.ChangeFeedProperties;
+import br.com.school.admin.events.ChangeType;
+import br.com.school.admin.events.PersonChangedEvent;
+import br.com.school.admin.events.PersonsDeletedEvent;
+import br.com.school.admin.events.TeachersUpdatedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps the latest {@code capacity} person changes in a ring buffer and pushes new ones to
+ * every open SSE stream. Each change is serialized once when appended. Subscriptions and
+ * broadcasts run on one thread and are queued in sequence order, so a subscriber receives
+ * its backlog and the live events in order, and slow clients never block the writing
+ * request. Each subscriber remembers the last sequence it was sent, so a change that is
+ * both in its backlog and still queued for broadcast reaches it once.
+ */
+@Service
+public class ChangeFeedService {
+
+    public static final String RESYNC = "resync";
+
+    private final ChangeRecord[] ring;
+    private final ObjectMapper objectMapper;
+    private final ChangeFeedProperties properties;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(r -> {
+        var thread = new Thread(r, "change-feed");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private long lastSeq;
+
+    public ChangeFeedService(ChangeFeedProperties properties, ObjectMapper objectMapper) {
+        this.ring = new ChangeRecord[properties.capacity()];
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPersonChanged(PersonChangedEvent event) throws JsonProcessingException {
+        var data = new LinkedHashMap<String, Object>();
+        data.put("resource", event.resource());
+        data.put("id", event.id());
+        if (event.type() != ChangeType.DELETED) {
+            data.put("entity", event.entity());
+        }
+        append(event.type(), List.of(objectMapper.writeValueAsString(data)));
+    }
+
+    /**
+     * A bulk delete shows up on the feed as one deleted change per row, appended together.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPersonsDeleted(PersonsDeletedEvent event) throws JsonProcessingException {
+        var changes = new ArrayList<String>(event.ids().size());
+        for (var id : event.ids()) {
+            var data = new LinkedHashMap<String, Object>();
+            data.put("resource", event.resource());
+            data.put("id", id);
+            changes.add(objectMapper.writeValueAsString(data));
+        }
+        append(ChangeType.DELETED, changes);
+    }
+
+    /**
+     * A bulk teacher update shows up on the feed as one updated change per row, appended
+     * together. The rows are not reloaded, so each change carries the fields the update
+     * set under {@code changes} instead of the whole entity.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTeachersUpdated(TeachersUpdatedEvent event) throws JsonProcessingException {
+        var fields = new LinkedHashMap<String, Object>();
+        if (event.name() != null) {
+            fields.put("name", event.name());
+        }
+        if (event.specialty() != null) {
+            fields.put("specialty", event.specialty());
+        }
+        var changes = new ArrayList<String>(event.ids().size());
+        for (var id : event.ids()) {
+            var data = new LinkedHashMap<String, Object>();
+            data.put("resource", TeacherServiceImpl.RESOURCE);
+            data.put("id", id);
+            data.put("changes", fields);
+            changes.add(objectMapper.writeValueAsString(data));
+        }
+        append(ChangeType.UPDATED, changes);
+    }
+
+    /**
+     * Returns changes after {@code seq} in order, or {@code null} when some of them were
+     * already overwritten and the caller has to resynchronize.
+     */
+    public synchronized List<ChangeRecord> since(long seq) {
+        var oldest = Math.max(1, lastSeq - ring.length + 1);
+        if (seq + 1 < oldest || seq > lastSeq) {
+            return null;
+        }
+        var changes = new ArrayList<ChangeRecord>((int) (lastSeq - seq));
+        for (var next = seq + 1; next <= lastSeq; next++) {
+            changes.add(ring[(int) (next % ring.length)]);
+        }
+        return changes;
+    }
+
+    public synchronized long lastSeq() {
+        return lastSeq;
+    }
+
+    public SseEmitter subscribe(Long lastEventId) {
+        var emitter = new SseEmitter(properties.emitterTimeout().toMillis());
+        subscribe(emitter, lastEventId);
+        return emitter;
+    }
+
+    void subscribe(SseEmitter emitter, Long lastEventId) {
+        var subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        dispatcher.execute(() -> {
+            if (lastEventId != null) {
+                var backlog = since(lastEventId);
+                if (backlog == null) {
+                    sendResync(subscriber);
+                } else {
+                    subscriber.lastSent = lastEventId;
+                    backlog.forEach(change -> send(subscriber, change));
+                }
+            }
+            subscribers.add(subscriber);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${school.change-feed.heartbeat-ms:15000}")
+    public void heartbeat() {
+        dispatcher.execute(() -> subscribers.forEach(subscriber -> {
+            try {
+                subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(subscriber);
+            }
+        }));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        dispatcher.shutdown();
+    }
+
+    private synchronized void append(ChangeType type, List<String> changes) {
+        for (var json : changes) {
+            var change = new ChangeRecord(++lastSeq, type, json);
+            ring[(int) (change.seq() % ring.length)] = change;
+            dispatcher.execute(() -> subscribers.forEach(subscriber -> send(subscriber, change)));
+        }
+    }
+
+    private void sendResync(Subscriber subscriber) {
+        var seq = lastSeq();
+        subscriber.lastSent = seq;
+        try {
+            subscriber.emitter.send(SseEmitter.event().id(String.valueOf(seq)).name(RESYNC).data("{}", MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            subscribers.remove(subscriber);
+        }
+    }
+
+    private void send(Subscriber subscriber, ChangeRecord change) {
+        if (change.seq() <= subscriber.lastSent) {
+            return;
+        }
+        subscriber.lastSent = change.seq();
+        try {
+            subscriber.emitter.send(SseEmitter.event()
+                    .id(String.valueOf(change.seq()))
+                    .name(change.type().name().toLowerCase())
+                    .data(change.json(), MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            subscribers.remove(subscriber);
+        }
+    }
+
+    public record ChangeRecord(long seq, ChangeType type, String json) {
+    }
+
+    /**
+     * An open stream and the last sequence sent on it, only touched on the dispatcher thread.
+     */
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private long lastSent;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package br.com.school.admin.services;
+
+import br.com.school.admin.dtos.ClassDto;
+import br.com.school.admin.dtos.KeysetPageDto;
+import br.com.school.admin.events.ChangeType;
+import br.com.school.admin.events.PersonChangedEvent;
+import br.com.school.admin.events.PersonsDeletedEvent;
+import br.com.school.admin.exceptions.ResourceNotFoundException;
+import br.com.school.admin.models.Enrollment;
+import br.com.school.admin.models.SchoolClass;
+import br.com.school.admin.models.Student;
+import br.com.school.admin.repositories.EnrollmentCount;
+import br.com.school.admin.repositories.EnrollmentRepository;
+import br.com.school.admin.repositories.SchoolClassRepository;
+import br.com.school.admin.repositories.StudentCrudRepository;
+import br.com.school.admin.repositories.TeacherCrudRepository;
+import br.com.school.admin.utils.sharding.ShardRouter;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Classes and their rosters. A class lives on its teacher's shard together with its
+ * enrollments, so a roster page costs one query for the enrolled ids plus one per shard
+ * holding those students, however large the class is. Pages are keyset-paginated by id.
+ */
+@Service
+public class ClassService {
+
+    private final SchoolClassRepository classRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final TeacherCrudRepository teacherRepository;
+    private final StudentCrudRepository studentRepository;
+    private final ShardRouter shardRouter;
+
+    public ClassService(SchoolClassRepository classRepository, EnrollmentRepository enrollmentRepository,
+                        TeacherCrudRepository teacherRepository, StudentCrudRepository studentRepository,
+                        ShardRouter shardRouter) {
+        this.classRepository = classRepository;
+        this.enrollmentRepository = enrollmentRepository;
+        this.teacherRepository = teacherRepository;
+        this.studentRepository = studentRepository;
+        this.shardRouter = shardRouter;
+    }
+
+    public ClassDto findById(Long id) {
+        return shardRouter.on(shardRouter.shardOfId(id), () -> {
+            var schoolClass = classRepository.findWithTeacherById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Class not found"));
+            return ClassDto.of(schoolClass, countStudents(List.of(id)).getOrDefault(id, 0L));
+        });
+    }
+
+    public ClassDto save(SchoolClass schoolClass) {
+        if (schoolClass.getTeacherId() == null) {
+            throw new IllegalArgumentException("Teacher is required");
+        }
+        return shardRouter.on(shardRouter.shardOfId(schoolClass.getTeacherId()), () -> {
+            var teacher = teacherRepository.findById(schoolClass.getTeacherId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Teacher not found"));
+            schoolClass.setTeacher(teacher);
+            return ClassDto.of(classRepository.save(schoolClass), 0);
+        });
+    }
+
+    public void delete(Long id) {
+        shardRouter.run(shardRouter.shardOfId(id), () -> classRepository.delete(findExisting(id)));
+    }
+
+    public void enroll(Long id, Long studentId) {
+        var studentExists = shardRouter.on(shardRouter.shardOfId(studentId), () -> studentRepository.existsById(studentId));
+        shardRouter.run(shardRouter.shardOfId(id), () -> {
+            findExisting(id);
+            if (!studentExists) {
+                throw new ResourceNotFoundException("Student not found");
+            }
+            if (!enrollmentRepository.existsById(new Enrollment.Key(id, studentId))) {
+                enrollmentRepository.save(new Enrollment(id, studentId, Instant.now()));
+            }
+        });
+    }
+
+    public void unenroll(Long id, Long studentId) {
+        shardRouter.run(shardRouter.shardOfId(id), () -> {
+            findExisting(id);
+            enrollmentRepository.findById(new Enrollment.Key(id, studentId)).ifPresent(enrollmentRepository::delete);
+        });
+    }
+
+    public KeysetPageDto<Student> findStudents(Long id, Long after, int size) {
+        checkPage(size);
+        var studentIds = shardRouter.on(shardRouter.shardOfId(id), () -> {
+            var ids = enrollmentRepository.findStudentIds(id, after, PageRequest.of(0, size));
+            if (ids.isEmpty()) {
+                findExisting(id);
+            }
+            return ids;
+        });
+        var students = new ArrayList<Student>(studentIds.size());
+        shardRouter.partition(studentIds, shardRouter::shardOfId)
+                .forEach((shard, ids) -> students.addAll(shardRouter.on(shard, () -> studentRepository.findAllById(ids))));
+        students.sort(Comparator.comparing(Student::getId));
+        // paged by enrollment, so a student missing from the load does not end the roster
+        var next = studentIds.size() < size ? null : studentIds.get(studentIds.size() - 1);
+        return new KeysetPageDto<>(students, next);
+    }
+
+    public KeysetPageDto<ClassDto> findByTeacher(Long teacherId, Long after, int size) {
+        checkPage(size);
+        return shardRouter.on(shardRouter.shardOfId(teacherId), () -> {
+            var classes = classRepository.findByTeacherIdAndIdGreaterThanOrderById(teacherId, after, PageRequest.of(0, size));
+            if (classes.isEmpty() && !teacherRepository.existsById(teacherId)) {
+                throw new ResourceNotFoundException("Teacher not found");
+            }
+            var counts = countStudents(classes.stream().map(SchoolClass::getId).toList());
+            var page = classes.stream().map(c -> ClassDto.of(c, counts.getOrDefault(c.getId(), 0L))).toList();
+            return KeysetPageDto.of(page, size, ClassDto::id);
+        });
+    }
+
+    /**
+     * Students may live on any shard, so their enrollments are dropped on every shard,
+     * only once the delete has committed and with one statement per shard however many
+     * students went. Enrollments left behind by a failure here are skipped by rosters.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPersonChanged(PersonChangedEvent event) {
+        if (event.type() == ChangeType.DELETED && StudentServiceImpl.RESOURCE.equals(event.resource())) {
+            dropEnrollments(List.of(event.id()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPersonsDeleted(PersonsDeletedEvent event) {
+        if (StudentServiceImpl.RESOURCE.equals(event.resource()) && !event.ids().isEmpty()) {
+            dropEnrollments(event.ids());
+        }
+    }
+
+    private Map<Long, Long> countStudents(List<Long> classIds) {
+        if (classIds.isEmpty()) {
+            return Map.of();
+        }
+        return enrollmentRepository.countByClassIds(classIds).stream()
+                .collect(Collectors.toMap(EnrollmentCount::classId, EnrollmentCount::students));
+    }
+
+    private void dropEnrollments(List<Long> studentIds) {
+        shardRouter.gather(shard -> enrollmentRepository.deleteByStudentIds(studentIds));
+    }
+
+    private SchoolClass findExisting(Long id) {
+        return classRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Class not found"));
+    }
+
+    private void checkPage(int size) {
+        if (size < 1 || size > ShardRouter.MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + ShardRouter.MAX_PAGE_SIZE);
+        }
+    }
+}
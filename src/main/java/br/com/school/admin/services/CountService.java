@@ -0,0 +1,107 @@
+package br.com.school.admin.services;
+
+import br.com.school.admin.dtos.StatsDto;
+import br.com.school.admin.events.ChangeType;
+import br.com.school.admin.events.PersonChangedEvent;
+import br.com.school.admin.events.PersonsDeletedEvent;
+import br.com.school.admin.repositories.DefaultCrudRepository;
+import br.com.school.admin.repositories.DirectorCrudRepository;
+import br.com.school.admin.repositories.StudentCrudRepository;
+import br.com.school.admin.repositories.TeacherCrudRepository;
+import br.com.school.admin.utils.sharding.ShardRouter;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Row counts of the person tables kept in memory, so counting never scans a table. Each
+ * counter is seeded with one COUNT per shard, moved by the services' committed creates
+ * and deletes, and periodically reconciled with the database to absorb whatever this
+ * instance did not see: writes made by other instances or straight through SQL.
+ */
+@Service
+public class CountService {
+
+    private final Map<String, DefaultCrudRepository<?>> repositories;
+    private final Map<String, LongAdder> counters = new LinkedHashMap<>();
+    private final ShardRouter shardRouter;
+    private volatile Instant reconciledAt;
+
+    public CountService(StudentCrudRepository studentRepository, TeacherCrudRepository teacherRepository,
+                        DirectorCrudRepository directorRepository, ShardRouter shardRouter) {
+        this.repositories = Map.of(
+                StudentServiceImpl.RESOURCE, studentRepository,
+                TeacherServiceImpl.RESOURCE, teacherRepository,
+                DirectorServiceImpl.RESOURCE, directorRepository);
+        this.shardRouter = shardRouter;
+        for (var resource : List.of(StudentServiceImpl.RESOURCE, TeacherServiceImpl.RESOURCE, DirectorServiceImpl.RESOURCE)) {
+            counters.put(resource, new LongAdder());
+        }
+    }
+
+    public long count(String resource) {
+        seedIfNeeded();
+        return counters.get(resource).sum();
+    }
+
+    public StatsDto stats() {
+        seedIfNeeded();
+        var counts = new LinkedHashMap<String, Long>();
+        counters.forEach((resource, counter) -> counts.put(resource, counter.sum()));
+        return new StatsDto(counts, reconciledAt);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPersonChanged(PersonChangedEvent event) {
+        var counter = counters.get(event.resource());
+        if (counter == null) {
+            return;
+        }
+        if (event.type() == ChangeType.CREATED) {
+            counter.increment();
+        } else if (event.type() == ChangeType.DELETED) {
+            counter.decrement();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPersonsDeleted(PersonsDeletedEvent event) {
+        var counter = counters.get(event.resource());
+        if (counter != null) {
+            counter.add(-event.ids().size());
+        }
+    }
+
+    /**
+     * Moves each counter by its difference from the database rather than resetting it, so
+     * changes counted while the COUNTs run are not lost. A write committed in that window
+     * may be counted twice until the next run.
+     */
+    @Scheduled(fixedDelayString = "${school.counters.reconcile-interval-ms:60000}")
+    public synchronized void reconcile() {
+        counters.forEach((resource, counter) -> {
+            var before = counter.sum();
+            var actual = shardRouter.gather(shard -> repositories.get(resource).count()).stream()
+                    .mapToLong(Long::longValue)
+                    .sum();
+            counter.add(actual - before);
+        });
+        reconciledAt = Instant.now();
+    }
+
+    private void seedIfNeeded() {
+        if (reconciledAt == null) {
+            synchronized (this) {
+                if (reconciledAt == null) {
+                    reconcile();
+                }
+            }
+        }
+    }
+}
@@ -1,31 +1,96 @@
 package br.com.school.admin.services;
 
 import br.com.school.admin.exceptions.BusinessRuleException;
+import br.com.school.admin.repositories.CpfRegistryRepository;
 import br.com.school.admin.repositories.DirectorCrudRepository;
 import br.com.school.admin.repositories.StudentCrudRepository;
 import br.com.school.admin.repositories.TeacherCrudRepository;
+import br.com.school.admin.utils.sharding.ShardRouter;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Keeps CPFs unique across students, teachers and directors. Every person with a given CPF
+ * lives on the shard picked by that CPF, so each check reads a single shard. The checks
+ * give early, friendly errors; the CPF registry on each shard is what holds under
+ * concurrent writers, since two of them can both pass a check before either commits.
+ * <p>
+ * A person's id encodes its shard, so a CPF can only be changed to another one kept on
+ * the same shard: moving the person would change its id under its clients and classes.
+ */
 @Service
 public class CpfService {
 
     private final StudentCrudRepository studentRepository;
     private final TeacherCrudRepository teacherRepository;
     private final DirectorCrudRepository directorRepository;
+    private final CpfRegistryRepository registryRepository;
+    private final ShardRouter shardRouter;
 
-    public CpfService(StudentCrudRepository studentRepository, TeacherCrudRepository teacherRepository, DirectorCrudRepository directorRepository) {
+    public CpfService(StudentCrudRepository studentRepository, TeacherCrudRepository teacherRepository,
+                      DirectorCrudRepository directorRepository, CpfRegistryRepository registryRepository,
+                      ShardRouter shardRouter) {
         this.studentRepository = studentRepository;
         this.teacherRepository = teacherRepository;
         this.directorRepository = directorRepository;
+        this.registryRepository = registryRepository;
+        this.shardRouter = shardRouter;
     }
 
     public void checkIfExistsWithCpf(String cpf, String currentCpf) {
-        var studentExists = studentRepository.existsByCpf(cpf);
-        var teacherExists = teacherRepository.existsByCpf(cpf);
-        var directorExists = directorRepository.existsByCpf(cpf);
+        var shard = shardRouter.shardOfCpf(cpf);
+        if (currentCpf != null && shard != shardRouter.shardOfCpf(currentCpf)) {
+            throw new BusinessRuleException("CPF cannot be changed to one kept on another shard");
+        }
+        var exists = shardRouter.on(shard, () -> {
+            var studentExists = studentRepository.existsByCpf(cpf);
+            var teacherExists = teacherRepository.existsByCpf(cpf);
+            var directorExists = directorRepository.existsByCpf(cpf);
+            return studentExists || teacherExists || directorExists;
+        });
 
-        if ((studentExists || teacherExists || directorExists) && !cpf.equals(currentCpf)) {
+        if (exists && !cpf.equals(currentCpf)) {
             throw new BusinessRuleException("CPF already exists");
         }
     }
+
+    public Set<String> findExistingCpfs(Collection<String> cpfs) {
+        var existing = new HashSet<String>();
+        if (cpfs.isEmpty()) {
+            return existing;
+        }
+        shardRouter.partition(cpfs, shardRouter::shardOfCpf).forEach((shard, shardCpfs) -> shardRouter.run(shard, () -> {
+            existing.addAll(studentRepository.findCpfsIn(shardCpfs));
+            existing.addAll(teacherRepository.findCpfsIn(shardCpfs));
+            existing.addAll(directorRepository.findCpfsIn(shardCpfs));
+        }));
+        return existing;
+    }
+
+    /**
+     * Registers {@code cpf} for {@code resource} and releases {@code previousCpf}, if any.
+     * Must run in the transaction that writes the person, on the CPF's shard, so the
+     * registry and the person tables commit or roll back together.
+     */
+    public void register(String cpf, String previousCpf, String resource) {
+        if (cpf.equals(previousCpf)) {
+            return;
+        }
+        try {
+            registryRepository.register(cpf, resource);
+        } catch (DataIntegrityViolationException e) {
+            throw new BusinessRuleException("CPF already exists");
+        }
+        if (previousCpf != null) {
+            registryRepository.release(previousCpf);
+        }
+    }
+
+    public void release(String cpf) {
+        registryRepository.release(cpf);
+    }
 }
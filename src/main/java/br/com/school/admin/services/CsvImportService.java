@@ -0,0 +1,284 @@
+package br.com.school.admin.services;
+
+import br.com.school.admin.config.CsvImportProperties;
+import br.com.school.admin.dtos.ImportDto;
+import br.com.school.admin.events.ChangeType;
+import br.com.school.admin.events.PersonChangedEvent;
+import br.com.school.admin.exceptions.ResourceNotFoundException;
+import br.com.school.admin.models.Director;
+import br.com.school.admin.models.Student;
+import br.com.school.admin.models.Teacher;
+import br.com.school.admin.repositories.DefaultCrudRepository;
+import br.com.school.admin.repositories.DirectorCrudRepository;
+import br.com.school.admin.repositories.StudentCrudRepository;
+import br.com.school.admin.repositories.TeacherCrudRepository;
+import br.com.school.admin.utils.csv.CsvParser;
+import br.com.school.admin.utils.sharding.ShardRouter;
+import br.com.school.admin.utils.validators.DefaultValidator;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Imports people from a CSV stream without holding the file in memory. Lines are read in
+ * chunks; each chunk is validated in parallel with the {@link DefaultValidator} rules,
+ * checked for CPFs repeated in the file and for CPFs already stored (one query per table
+ * per chunk) and inserted in one transaction per shard. Rejected rows go to a per-import
+ * error report that can be downloaded afterwards.
+ */
+@Service
+public class CsvImportService {
+
+    private final Map<String, Mapping<?>> mappings;
+    private final CpfService cpfService;
+    private final ShardRouter shardRouter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CsvImportProperties properties;
+    private final Map<String, Path> reports = new ConcurrentHashMap<>();
+    private final Queue<String> reportOrder = new ConcurrentLinkedQueue<>();
+
+    public CsvImportService(StudentCrudRepository studentRepository, TeacherCrudRepository teacherRepository,
+                            DirectorCrudRepository directorRepository, CpfService cpfService,
+                            ShardRouter shardRouter, ApplicationEventPublisher eventPublisher,
+                            CsvImportProperties properties) {
+        this.mappings = Stream.of(
+                new Mapping<>(StudentServiceImpl.RESOURCE, studentRepository, List.of("name", "cpf"),
+                        f -> new Student(f.get(0), f.get(1)), DefaultValidator::isValidStudent,
+                        Student::getCpf, Student::getId),
+                new Mapping<>(TeacherServiceImpl.RESOURCE, teacherRepository, List.of("name", "cpf", "specialty"),
+                        f -> new Teacher(f.get(0), f.get(1), f.get(2)), DefaultValidator::isValidTeacher,
+                        Teacher::getCpf, Teacher::getId),
+                new Mapping<>(DirectorServiceImpl.RESOURCE, directorRepository, List.of("name", "cpf"),
+                        f -> new Director(f.get(0), f.get(1)), DefaultValidator::isValidDirector,
+                        Director::getCpf, Director::getId))
+                .collect(Collectors.toMap(Mapping::resource, Function.identity()));
+        this.cpfService = cpfService;
+        this.shardRouter = shardRouter;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+    }
+
+    public ImportDto importCsv(String resource, InputStream input) throws IOException {
+        var id = UUID.randomUUID().toString();
+        Files.createDirectories(properties.reportDir());
+        var reportFile = properties.reportDir().resolve(id + ".csv");
+        var job = new ImportJob<>(mappings.get(resource));
+        try (var reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+             var report = Files.newBufferedWriter(reportFile, StandardCharsets.UTF_8)) {
+            report.write("row,cpf,error\n");
+            job.run(reader, report);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(reportFile);
+            throw e;
+        }
+        if (job.failed == 0) {
+            Files.deleteIfExists(reportFile);
+            return new ImportDto(id, resource, job.total, job.imported, 0, null);
+        }
+        keepReport(id, reportFile);
+        return new ImportDto(id, resource, job.total, job.imported, job.failed, "/imports/" + id + "/errors");
+    }
+
+    public Path findReport(String id) {
+        var report = reports.get(id);
+        if (report == null || !Files.exists(report)) {
+            throw new ResourceNotFoundException("Import report not found");
+        }
+        return report;
+    }
+
+    private void keepReport(String id, Path reportFile) throws IOException {
+        reports.put(id, reportFile);
+        reportOrder.add(id);
+        while (reports.size() > properties.maxReports()) {
+            var oldest = reportOrder.poll();
+            if (oldest == null) {
+                break;
+            }
+            var evicted = reports.remove(oldest);
+            if (evicted != null) {
+                Files.deleteIfExists(evicted);
+            }
+        }
+    }
+
+    private record Mapping<T>(String resource, DefaultCrudRepository<T> repository, List<String> columns,
+                              Function<List<String>, T> factory, Consumer<T> validator,
+                              Function<T, String> cpf, Function<T, Long> id) {
+    }
+
+    private record Line(long number, String text) {
+    }
+
+    private record Row<T>(long number, List<String> fields, T entity, String error) {
+    }
+
+    private record Rejection(long number, String cpf, String error) {
+    }
+
+    private class ImportJob<T> {
+
+        private final Mapping<T> mapping;
+        private final Set<String> seenCpfs = new HashSet<>();
+        private final List<Rejection> rejections = new ArrayList<>();
+        private int[] columnIndexes;
+        private Writer report;
+        private long total;
+        private long imported;
+        private long failed;
+
+        ImportJob(Mapping<T> mapping) {
+            this.mapping = mapping;
+        }
+
+        void run(BufferedReader reader, Writer report) throws IOException {
+            this.report = report;
+            var header = reader.readLine();
+            if (header == null) {
+                throw new IllegalArgumentException("CSV is empty");
+            }
+            resolveColumns(CsvParser.parseLine(header));
+            var chunk = new ArrayList<Line>(properties.chunkSize());
+            long number = 1;
+            String text;
+            while ((text = reader.readLine()) != null) {
+                number++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                chunk.add(new Line(number, text));
+                if (chunk.size() == properties.chunkSize()) {
+                    process(chunk);
+                    chunk = new ArrayList<>(properties.chunkSize());
+                }
+            }
+            process(chunk);
+        }
+
+        private void resolveColumns(List<String> header) {
+            var normalized = header.stream().map(h -> h.toLowerCase(Locale.ROOT)).toList();
+            columnIndexes = new int[mapping.columns().size()];
+            for (int i = 0; i < columnIndexes.length; i++) {
+                columnIndexes[i] = normalized.indexOf(mapping.columns().get(i));
+                if (columnIndexes[i] < 0) {
+                    throw new IllegalArgumentException("CSV header must contain " + String.join(", ", mapping.columns()));
+                }
+            }
+        }
+
+        private void process(List<Line> chunk) throws IOException {
+            total += chunk.size();
+            var candidates = new ArrayList<Row<T>>(chunk.size());
+            for (var row : chunk.parallelStream().map(this::validate).toList()) {
+                if (row.error() != null) {
+                    reject(row, row.error());
+                } else if (!seenCpfs.add(mapping.cpf().apply(row.entity()))) {
+                    reject(row, "CPF repeated in file");
+                } else {
+                    candidates.add(row);
+                }
+            }
+            var existing = cpfService.findExistingCpfs(candidates.stream().map(r -> mapping.cpf().apply(r.entity())).toList());
+            var rows = new ArrayList<Row<T>>(candidates.size());
+            for (var row : candidates) {
+                if (existing.contains(mapping.cpf().apply(row.entity()))) {
+                    reject(row, "CPF already exists");
+                } else {
+                    rows.add(row);
+                }
+            }
+            insert(rows);
+            rejections.sort(Comparator.comparingLong(Rejection::number));
+            for (var rejection : rejections) {
+                report.write(rejection.number() + "," + CsvParser.escape(rejection.cpf()) + ","
+                        + CsvParser.escape(rejection.error()) + "\n");
+            }
+            failed += rejections.size();
+            rejections.clear();
+        }
+
+        private Row<T> validate(Line line) {
+            var fields = CsvParser.parseLine(line.text());
+            var values = new ArrayList<String>(columnIndexes.length);
+            for (var index : columnIndexes) {
+                values.add(index < fields.size() ? fields.get(index) : null);
+            }
+            var entity = mapping.factory().apply(values);
+            try {
+                mapping.validator().accept(entity);
+                return new Row<>(line.number(), values, entity, null);
+            } catch (IllegalArgumentException e) {
+                return new Row<>(line.number(), values, entity, e.getMessage());
+            }
+        }
+
+        private void insert(List<Row<T>> rows) {
+            shardRouter.partition(rows, row -> shardRouter.shardOfCpf(mapping.cpf().apply(row.entity())))
+                    .forEach(this::insert);
+        }
+
+        private void insert(int shard, List<Row<T>> rows) {
+            List<T> saved;
+            try {
+                saved = shardRouter.inTransaction(shard, () -> {
+                    rows.forEach(row -> cpfService.register(mapping.cpf().apply(row.entity()), null, mapping.resource()));
+                    return mapping.repository().saveAll(rows.stream().map(Row::entity).toList());
+                });
+            } catch (RuntimeException e) {
+                insertOneByOne(shard, rows);
+                return;
+            }
+            imported += saved.size();
+            saved.forEach(this::publish);
+        }
+
+        private void insertOneByOne(int shard, List<Row<T>> rows) {
+            for (var row : rows) {
+                var entity = mapping.factory().apply(row.fields());
+                try {
+                    publish(shardRouter.inTransaction(shard, () -> {
+                        cpfService.register(mapping.cpf().apply(entity), null, mapping.resource());
+                        return mapping.repository().save(entity);
+                    }));
+                    imported++;
+                } catch (DataIntegrityViolationException e) {
+                    reject(row, "CPF already exists");
+                } catch (RuntimeException e) {
+                    reject(row, e.getMessage());
+                }
+            }
+        }
+
+        private void publish(T entity) {
+            eventPublisher.publishEvent(new PersonChangedEvent(mapping.resource(), ChangeType.CREATED, mapping.id().apply(entity), entity));
+        }
+
+        private void reject(Row<T> row, String error) {
+            rejections.add(new Rejection(row.number(), row.fields().get(1), error));
+        }
+    }
+}
@@ -1,16 +1,52 @@
 package br.com.school.admin.services;
 
+import br.com.school.admin.dtos.BulkDeleteDto;
+import br.com.school.admin.dtos.SyncDto;
+
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 
 public interface DefaultCrudService<T> {
 
+    /**
+     * Watermarks trail the clock by this much so rows stamped by transactions that were
+     * still committing while a sync ran are returned again on the next one. Rows are
+     * stamped at flush, so this has to cover the longest write: every attempt of a retried
+     * write running up to the query timeout, which {@code QueryTimeoutProperties} checks.
+     */
+    Duration SYNC_SETTLE_TIME = Duration.ofMinutes(1);
+
     List<T> findAll();
 
+    /**
+     * One page ordered by id, gathered from every shard.
+     */
+    List<T> findPage(int page, int size);
+
     T findById(Long id);
 
+    T findByCpf(String cpf);
+
+    SyncDto<T> findChangedSince(Instant since);
+
     T save(T t);
 
     T update(Long id, T t);
 
+    /**
+     * Applies only the given fields, validating just those; the CPF is checked for
+     * uniqueness only when it actually changes.
+     */
+    T patch(Long id, Map<String, String> changes);
+
     void delete(Long id);
+
+    /**
+     * Deletes every row matching the filter with set-based statements, in one transaction
+     * per shard, and returns how many were deleted. Each shard publishes a single
+     * {@code PersonsDeletedEvent} for the rows it removed.
+     */
+    int deleteAll(BulkDeleteDto filter);
 }
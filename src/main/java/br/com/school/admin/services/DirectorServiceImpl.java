@@ -1,47 +1,220 @@
 package br.com.school.admin.services;
 
+import br.com.school.admin.dtos.BulkDeleteDto;
+import br.com.school.admin.dtos.SyncDto;
+import br.com.school.admin.events.ChangeType;
+import br.com.school.admin.events.PersonChangedEvent;
+import br.com.school.admin.events.PersonsDeletedEvent;
 import br.com.school.admin.exceptions.ResourceNotFoundException;
 import br.com.school.admin.models.Director;
+import br.com.school.admin.models.DirectorValidator;
+import br.com.school.admin.models.Tombstone;
 import br.com.school.admin.repositories.DirectorCrudRepository;
+import br.com.school.admin.repositories.TombstoneRepository;
+import br.com.school.admin.utils.columnar.PersonRow;
+import br.com.school.admin.utils.columnar.PersonTable;
+import br.com.school.admin.utils.columnar.ReadModel;
+import br.com.school.admin.utils.concurrent.ConflictRetry;
+import br.com.school.admin.utils.concurrent.NearCache;
+import br.com.school.admin.utils.concurrent.NearCaches;
+import br.com.school.admin.utils.concurrent.SingleFlight;
+import br.com.school.admin.utils.sharding.ShardRouter;
+import br.com.school.admin.utils.sharding.SortedMerge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 
 @Service
-public class DirectorServiceImpl {
+public class DirectorServiceImpl implements DefaultCrudService<Director> {
+
+    public static final String RESOURCE = "directors";
+
+    private static final Sort BY_ID = Sort.by("id");
+    private static final Comparator<Director> ID_ORDER = Comparator.comparing(Director::getId);
+    private static final Comparator<Director> UPDATED_ORDER = Comparator.comparing(Director::getUpdatedAt);
 
     private final DirectorCrudRepository repository;
     private final CpfService cpfService;
+    private final TombstoneRepository tombstoneRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ShardRouter shardRouter;
+    private final NearCache<Long, Director> cache;
+    private final PersonTable table;
+    private final SingleFlight<String, List<Director>> findAllCalls;
+    private final ConflictRetry conflictRetry;
 
-    public DirectorServiceImpl(DirectorCrudRepository repository, CpfService cpfService) {
+    public DirectorServiceImpl(DirectorCrudRepository repository, CpfService cpfService,
+                             TombstoneRepository tombstoneRepository, ApplicationEventPublisher eventPublisher,
+                             ShardRouter shardRouter, NearCaches nearCaches, ReadModel readModel,
+                             MeterRegistry meterRegistry) {
         this.repository = repository;
         this.cpfService = cpfService;
+        this.tombstoneRepository = tombstoneRepository;
+        this.eventPublisher = eventPublisher;
+        this.shardRouter = shardRouter;
+        this.cache = nearCaches.create(RESOURCE);
+        this.table = readModel.create(RESOURCE, false);
+        this.findAllCalls = new SingleFlight<>(RESOURCE + ".findAll", meterRegistry);
+        this.conflictRetry = new ConflictRetry(RESOURCE, meterRegistry);
     }
 
+    @Override
     public List<Director> findAll() {
-        return repository.findAll();
+        if (table.isReady()) {
+            return table.findAll().stream().map(DirectorServiceImpl::toDirector).toList();
+        }
+        return findAllCalls.execute("all", () -> SortedMerge.merge(
+                shardRouter.gather(shard -> repository.findAll(BY_ID)), ID_ORDER));
+    }
+
+    @Override
+    public List<Director> findPage(int page, int size) {
+        if (table.isReady()) {
+            ShardRouter.checkPage(page, size);
+            return table.page((long) page * size, size).stream().map(DirectorServiceImpl::toDirector).toList();
+        }
+        return shardRouter.gatherPage(page, size, BY_ID, ID_ORDER, repository::findAllBy);
     }
 
+    @Override
     public Director findById(Long id) {
-        return repository.findById(id)
+        if (table.isReady()) {
+            return Optional.ofNullable(table.get(id)).map(DirectorServiceImpl::toDirector)
+                    .orElseThrow(() -> new ResourceNotFoundException("Director not found"));
+        }
+        return new Director(cache.get(id, () -> shardRouter.on(shardRouter.shardOfId(id), () -> findExisting(id))));
+    }
+
+    @Override
+    public Director findByCpf(String cpf) {
+        if (table.isReady()) {
+            return Optional.ofNullable(table.findByCpf(cpf)).map(DirectorServiceImpl::toDirector)
+                    .orElseThrow(() -> new ResourceNotFoundException("Director not found"));
+        }
+        return shardRouter.on(shardRouter.shardOfCpf(cpf), () -> repository.findByCpf(cpf))
                 .orElseThrow(() -> new ResourceNotFoundException("Director not found"));
     }
 
+    @Override
+    public SyncDto<Director> findChangedSince(Instant since) {
+        var watermark = Instant.now().minus(SYNC_SETTLE_TIME);
+        var changed = shardRouter.gather(shard -> repository.findByUpdatedAtAfterOrderByUpdatedAt(since));
+        var deleted = shardRouter.gather(shard -> tombstoneRepository.findDeletedIdsSince(RESOURCE, since));
+        return new SyncDto<>(SortedMerge.merge(changed, UPDATED_ORDER),
+                deleted.stream().flatMap(List::stream).toList(), watermark);
+    }
+
+    @Override
     public Director save(Director director) {
-        cpfService.checkIfExistsWithCpf(director.getCpf(), null);
-        return repository.save(director);
+        return shardRouter.inTransaction(shardRouter.shardOfCpf(director.getCpf()), () -> {
+            cpfService.checkIfExistsWithCpf(director.getCpf(), null);
+            cpfService.register(director.getCpf(), null, RESOURCE);
+            var saved = repository.save(director);
+            publish(ChangeType.CREATED, saved);
+            return saved;
+        });
     }
 
+    /**
+     * Reads and writes in one transaction together with the CPF registration. A commit
+     * over a concurrent write fails the version check and the whole read-modify-write is
+     * retried, so no update is lost.
+     */
+    @Override
     public Director update(Long id, Director director) {
-        var directorToUpdate = findById(id);
-        cpfService.checkIfExistsWithCpf(director.getCpf(), directorToUpdate.getCpf());
-        directorToUpdate.setName(director.getName());
-        directorToUpdate.setCpf(director.getCpf());
-        return repository.save(directorToUpdate);
+        return conflictRetry.call(() -> shardRouter.inTransaction(shardRouter.shardOfId(id), () -> {
+            var directorToUpdate = findExisting(id);
+            cpfService.checkIfExistsWithCpf(director.getCpf(), directorToUpdate.getCpf());
+            cpfService.register(director.getCpf(), directorToUpdate.getCpf(), RESOURCE);
+            directorToUpdate.setName(director.getName());
+            directorToUpdate.setCpf(director.getCpf());
+            var updated = repository.save(directorToUpdate);
+            publish(ChangeType.UPDATED, updated);
+            return updated;
+        }));
+    }
+
+    @Override
+    public Director patch(Long id, Map<String, String> changes) {
+        return conflictRetry.call(() -> shardRouter.inTransaction(shardRouter.shardOfId(id), () -> {
+            var director = findExisting(id);
+            // The CPF goes first: registering it flushes the session, which would write a
+            // person already changed here twice.
+            if (changes.containsKey("cpf") && !Objects.equals(changes.get("cpf"), director.getCpf())) {
+                DirectorValidator.validateCpf(changes.get("cpf"));
+                cpfService.checkIfExistsWithCpf(changes.get("cpf"), director.getCpf());
+                cpfService.register(changes.get("cpf"), director.getCpf(), RESOURCE);
+                director.setCpf(changes.get("cpf"));
+            }
+            if (changes.containsKey("name")) {
+                DirectorValidator.validateName(changes.get("name"));
+                director.setName(changes.get("name"));
+            }
+            var patched = repository.save(director);
+            publish(ChangeType.UPDATED, patched);
+            return patched;
+        }));
     }
 
+    @Override
     public void delete(Long id) {
-        var directorExists = findById(id);
-        repository.delete(directorExists);
+        conflictRetry.call(() -> shardRouter.inTransaction(shardRouter.shardOfId(id), () -> {
+            var directorExists = findExisting(id);
+            cpfService.release(directorExists.getCpf());
+            repository.delete(directorExists);
+            tombstoneRepository.save(new Tombstone(RESOURCE, id, Instant.now()));
+            publish(ChangeType.DELETED, directorExists);
+            return null;
+        }));
+    }
+
+    @Override
+    public int deleteAll(BulkDeleteDto filter) {
+        var byIds = filter.ids() != null && !filter.ids().isEmpty();
+        if (byIds == (filter.updatedBefore() != null)) {
+            throw new IllegalArgumentException("Provide either ids or updatedBefore");
+        }
+        // the precision of dt_deleted, so the tombstones written below can be found by it
+        var deletedAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        var deleted = 0;
+        for (int shard = 0; shard < shardRouter.shards(); shard++) {
+            deleted += shardRouter.inTransaction(shard, () -> {
+                var tombstoned = byIds ? repository.insertTombstones(RESOURCE, filter.ids(), deletedAt)
+                        : repository.insertTombstonesUpdatedBefore(RESOURCE, filter.updatedBefore(), deletedAt);
+                if (tombstoned == 0) {
+                    return 0;
+                }
+                var ids = repository.findTombstonedIds(RESOURCE, deletedAt);
+                repository.releaseTombstonedCpfs(RESOURCE, deletedAt);
+                var count = repository.deleteTombstoned(RESOURCE, deletedAt);
+                eventPublisher.publishEvent(new PersonsDeletedEvent(RESOURCE, ids, deletedAt));
+                return count;
+            });
+        }
+        return deleted;
+    }
+
+    private Director findExisting(Long id) {
+        return repository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Director not found"));
+    }
+
+    private void publish(ChangeType type, Director director) {
+        eventPublisher.publishEvent(new PersonChangedEvent(RESOURCE, type, director.getId(), director));
+    }
+
+    private static Director toDirector(PersonRow row) {
+        var director = new Director(row.name(), row.cpf());
+        director.setId(row.id());
+        return director;
     }
 }
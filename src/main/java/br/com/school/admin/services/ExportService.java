@@ -0,0 +1,260 @@
+package br.com.school.admin.services;
+
+import br.com.school.admin.config.ExportProperties;
+import br.com.school.admin.dtos.ExportDto;
+import br.com.school.admin.exceptions.BusinessRuleException;
+import br.com.school.admin.exceptions.ResourceNotFoundException;
+import br.com.school.admin.exceptions.ServiceUnavailableException;
+import br.com.school.admin.models.Director;
+import br.com.school.admin.models.Student;
+import br.com.school.admin.models.Teacher;
+import br.com.school.admin.utils.csv.CsvParser;
+import br.com.school.admin.utils.sharding.ShardRouter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.hibernate.jpa.HibernateHints;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes whole tables to gzip'd CSV or JSON files on a small background pool, so a large
+ * export holds neither a request thread nor a pooled connection for the client's benefit.
+ * Rows are streamed from a read-only cursor on each shard in turn and detached as soon as
+ * they are written; the file is written under a temporary name and moved into place only
+ * once complete.
+ */
+@Service
+public class ExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportService.class);
+
+    private final Map<String, Mapping<?>> mappings;
+    private final Map<String, ExportDto> jobs = new ConcurrentHashMap<>();
+    private final Queue<String> jobOrder = new ConcurrentLinkedQueue<>();
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ExportProperties properties;
+    private final ShardRouter shardRouter;
+    private final ThreadPoolExecutor executor;
+
+    public ExportService(EntityManager entityManager, PlatformTransactionManager transactionManager,
+                         ObjectMapper objectMapper, ExportProperties properties, ShardRouter shardRouter) {
+        this.mappings = Stream.of(
+                new Mapping<>(StudentServiceImpl.RESOURCE, Student.class, List.of("id", "name", "cpf"),
+                        s -> List.of(String.valueOf(s.getId()), s.getName(), s.getCpf())),
+                new Mapping<>(TeacherServiceImpl.RESOURCE, Teacher.class, List.of("id", "name", "cpf", "specialty"),
+                        t -> List.of(String.valueOf(t.getId()), t.getName(), t.getCpf(), t.getSpecialty())),
+                new Mapping<>(DirectorServiceImpl.RESOURCE, Director.class, List.of("id", "name", "cpf"),
+                        d -> List.of(String.valueOf(d.getId()), d.getName(), d.getCpf())))
+                .collect(Collectors.toMap(Mapping::resource, Function.identity()));
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.shardRouter = shardRouter;
+        var threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(properties.threads(), properties.threads(), 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.queueCapacity()), runnable -> {
+                    var thread = new Thread(runnable, "export-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public ExportDto submit(String resource, ExportDto.Format format) {
+        var job = ExportDto.pending(UUID.randomUUID().toString(), resource, format);
+        track(job);
+        try {
+            executor.execute(() -> run(mappings.get(resource), job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id());
+            throw new ServiceUnavailableException("Export queue is full, retry later");
+        }
+        return job;
+    }
+
+    public ExportDto findById(String id) {
+        var job = jobs.get(id);
+        if (job == null) {
+            throw new ResourceNotFoundException("Export not found");
+        }
+        return job;
+    }
+
+    public Path findFile(String id) {
+        var job = findById(id);
+        if (job.status() != ExportDto.Status.DONE) {
+            throw new BusinessRuleException("Export is not finished");
+        }
+        return fileOf(job);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private <T> void run(Mapping<T> mapping, ExportDto job) {
+        jobs.replace(job.id(), job.running());
+        var file = fileOf(job);
+        var partial = file.resolveSibling(file.getFileName() + ".part");
+        try {
+            Files.createDirectories(properties.dir());
+            long rows;
+            try (var out = new GZIPOutputStream(Files.newOutputStream(partial), 64 * 1024)) {
+                rows = write(mapping, job.format(), out);
+            }
+            Files.move(partial, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            jobs.replace(job.id(), job.done(rows, Files.size(file)));
+        } catch (IOException | RuntimeException e) {
+            log.error("Export {} of {} failed", job.id(), job.resource(), e);
+            deleteQuietly(partial);
+            jobs.replace(job.id(), job.failed(e.getMessage()));
+        }
+    }
+
+    private <T> long write(Mapping<T> mapping, ExportDto.Format format, OutputStream out) throws IOException {
+        try (RowWriter<T> writer = format == ExportDto.Format.CSV ? new CsvRowWriter<>(mapping, out) : new JsonRowWriter<>(out)) {
+            long count = 0;
+            for (int shard = 0; shard < shardRouter.shards(); shard++) {
+                count += shardRouter.on(shard, () -> transactionTemplate.execute(status -> stream(mapping, writer)));
+            }
+            return count;
+        }
+    }
+
+    private <T> long stream(Mapping<T> mapping, RowWriter<T> writer) {
+        try (var rows = entityManager
+                .createQuery("select e from " + mapping.type().getSimpleName() + " e order by e.id", mapping.type())
+                .setHint(HibernateHints.HINT_FETCH_SIZE, properties.fetchSize())
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_TIMEOUT, 0)
+                .getResultStream()) {
+            long count = 0;
+            for (var iterator = rows.iterator(); iterator.hasNext(); count++) {
+                var row = iterator.next();
+                writer.write(row);
+                entityManager.detach(row);
+            }
+            return count;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path fileOf(ExportDto job) {
+        return properties.dir().resolve(job.resource() + "-" + job.id() + "." + job.format().extension());
+    }
+
+    private void track(ExportDto job) {
+        jobs.put(job.id(), job);
+        jobOrder.add(job.id());
+        while (jobs.size() > properties.maxJobs()) {
+            var oldest = jobOrder.peek();
+            var evicted = oldest == null ? null : jobs.get(oldest);
+            if (evicted != null && !evicted.finished()) {
+                break;
+            }
+            jobOrder.poll();
+            if (evicted != null) {
+                jobs.remove(oldest);
+                deleteQuietly(fileOf(evicted));
+            }
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete {}", file, e);
+        }
+    }
+
+    private record Mapping<T>(String resource, Class<T> type, List<String> columns, Function<T, List<String>> values) {
+    }
+
+    private interface RowWriter<T> extends Closeable {
+        void write(T row) throws IOException;
+    }
+
+    private static class CsvRowWriter<T> implements RowWriter<T> {
+
+        private final Mapping<T> mapping;
+        private final BufferedWriter writer;
+
+        CsvRowWriter(Mapping<T> mapping, OutputStream out) throws IOException {
+            this.mapping = mapping;
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writer.write(String.join(",", mapping.columns()));
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(T row) throws IOException {
+            writer.write(mapping.values().apply(row).stream().map(CsvParser::escape).collect(Collectors.joining(",")));
+            writer.write('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private class JsonRowWriter<T> implements RowWriter<T> {
+
+        private final JsonGenerator generator;
+
+        JsonRowWriter(OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+        }
+
+        @Override
+        public void write(T row) throws IOException {
+            generator.writeObject(row);
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.writeEndArray();
+            generator.close();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package br.com.school.admin.services;
+
+import br.com.school.admin.exceptions.ResourceNotFoundException;
+import br.com.school.admin.models.Director;
+import br.com.school.admin.models.Student;
+import br.com.school.admin.models.Teacher;
+import br.com.school.admin.utils.columnar.PersonRow;
+import br.com.school.admin.utils.columnar.ReadModel;
+import br.com.school.admin.utils.json.SparseFields;
+import br.com.school.admin.utils.sharding.ShardRouter;
+import br.com.school.admin.utils.sharding.SortedMerge;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Answers {@code ?fields=} requests. Only the requested columns, plus the id used for
+ * ordering, are selected, and each row comes back as an ordered map so Jackson writes it
+ * without introspecting an entity. With the read model loaded the rows come from it
+ * instead of the database.
+ */
+@Service
+public class ProjectionService {
+
+    private static final Sort BY_ID = Sort.by("id");
+    private static final Comparator<Tuple> ID_ORDER = Comparator.comparing(tuple -> tuple.get(0, Long.class));
+
+    private final Map<String, Projection> projections = Map.of(
+            StudentServiceImpl.RESOURCE, new Projection(Student.class, List.of("id", "name", "cpf"), "Student not found"),
+            TeacherServiceImpl.RESOURCE, new Projection(Teacher.class, List.of("id", "name", "cpf", "specialty"), "Teacher not found"),
+            DirectorServiceImpl.RESOURCE, new Projection(Director.class, List.of("id", "name", "cpf"), "Director not found"));
+    private final EntityManager entityManager;
+    private final ShardRouter shardRouter;
+    private final ReadModel readModel;
+
+    public ProjectionService(EntityManager entityManager, ShardRouter shardRouter, ReadModel readModel) {
+        this.entityManager = entityManager;
+        this.shardRouter = shardRouter;
+        this.readModel = readModel;
+    }
+
+    public List<Map<String, Object>> findAll(String resource, String fields) {
+        var projection = projections.get(resource);
+        var selected = SparseFields.parse(fields, projection.selectable());
+        var table = readModel.table(resource);
+        if (table != null && table.isReady()) {
+            return table.findAll().stream().map(row -> toMap(row, selected)).toList();
+        }
+        var tuples = SortedMerge.merge(shardRouter.gather(shard -> query(projection, selected, null, Pageable.unpaged())), ID_ORDER);
+        return tuples.stream().map(tuple -> toMap(tuple, selected)).toList();
+    }
+
+    public List<Map<String, Object>> findPage(String resource, String fields, int page, int size) {
+        var projection = projections.get(resource);
+        var selected = SparseFields.parse(fields, projection.selectable());
+        var table = readModel.table(resource);
+        if (table != null && table.isReady()) {
+            ShardRouter.checkPage(page, size);
+            return table.page((long) page * size, size).stream().map(row -> toMap(row, selected)).toList();
+        }
+        var tuples = shardRouter.gatherPage(page, size, BY_ID, ID_ORDER, pageable -> query(projection, selected, null, pageable));
+        return tuples.stream().map(tuple -> toMap(tuple, selected)).toList();
+    }
+
+    public Map<String, Object> findById(String resource, Long id, String fields) {
+        var projection = projections.get(resource);
+        var selected = SparseFields.parse(fields, projection.selectable());
+        var table = readModel.table(resource);
+        if (table != null && table.isReady()) {
+            var row = table.get(id);
+            if (row == null) {
+                throw new ResourceNotFoundException(projection.notFound());
+            }
+            return toMap(row, selected);
+        }
+        var tuples = shardRouter.on(shardRouter.shardOfId(id), () -> query(projection, selected, id, Pageable.unpaged()));
+        if (tuples.isEmpty()) {
+            throw new ResourceNotFoundException(projection.notFound());
+        }
+        return toMap(tuples.get(0), selected);
+    }
+
+    /**
+     * Selects the id followed by the requested fields, in id order.
+     */
+    private List<Tuple> query(Projection projection, List<String> selected, Long id, Pageable pageable) {
+        var builder = entityManager.getCriteriaBuilder();
+        var query = builder.createTupleQuery();
+        var root = query.from(projection.type());
+        var selections = new ArrayList<Selection<?>>();
+        selections.add(root.get("id"));
+        selected.forEach(field -> selections.add(root.get(field)));
+        query.multiselect(selections).orderBy(builder.asc(root.get("id")));
+        if (id != null) {
+            query.where(builder.equal(root.get("id"), id));
+        }
+        var typed = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typed.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+        }
+        return typed.getResultList();
+    }
+
+    private static Map<String, Object> toMap(Tuple tuple, List<String> selected) {
+        var map = new LinkedHashMap<String, Object>(selected.size() * 2);
+        for (int i = 0; i < selected.size(); i++) {
+            map.put(selected.get(i), tuple.get(i + 1));
+        }
+        return map;
+    }
+
+    private static Map<String, Object> toMap(PersonRow row, List<String> selected) {
+        var map = new LinkedHashMap<String, Object>(selected.size() * 2);
+        for (var field : selected) {
+            map.put(field, switch (field) {
+                case "id" -> row.id();
+                case "name" -> row.name();
+                case "cpf" -> row.cpf();
+                case "specialty" -> row.specialty();
+                default -> throw new IllegalArgumentException("Field " + field + " cannot be selected");
+            });
+        }
+        return map;
+    }
+
+    private record Projection(Class<?> type, List<String> selectable, String notFound) {
+    }
+}
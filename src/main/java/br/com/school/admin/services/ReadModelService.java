@@ -0,0 +1,185 @@
+package br.com.school.admin.services;
+
+import br.com.school.admin.config.ReadModelProperties;
+import br.com.school.admin.dtos.ReadModelFootprintDto;
+import br.com.school.admin.events.ChangeType;
+import br.com.school.admin.events.PersonChangedEvent;
+import br.com.school.admin.events.PersonsDeletedEvent;
+import br.com.school.admin.events.TeachersUpdatedEvent;
+import br.com.school.admin.models.Director;
+import br.com.school.admin.models.Student;
+import br.com.school.admin.models.Teacher;
+import br.com.school.admin.repositories.DefaultCrudRepository;
+import br.com.school.admin.repositories.DirectorCrudRepository;
+import br.com.school.admin.repositories.StudentCrudRepository;
+import br.com.school.admin.repositories.TeacherCrudRepository;
+import br.com.school.admin.utils.columnar.PersonRow;
+import br.com.school.admin.utils.columnar.PersonTable;
+import br.com.school.admin.utils.columnar.ReadModel;
+import br.com.school.admin.utils.sharding.ShardRouter;
+import br.com.school.admin.utils.sharding.SortedMerge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Fills the columnar read model when {@code school.read-model.enabled} is set. Tables are
+ * loaded from every shard at startup and rebuilt on a schedule, and every committed write
+ * of this instance is applied as it happens; writes made while a table is being rebuilt
+ * are replayed onto the new one before it replaces the old. A table that fails to rebuild
+ * keeps serving its old content and does not hold up the others. Writes made by other
+ * instances show up on the next rebuild, so enable it where one instance owns the writes.
+ */
+@Service
+public class ReadModelService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadModelService.class);
+    private static final Sort BY_ID = Sort.by("id");
+
+    private final Map<String, Source<?>> sources;
+    private final Map<String, List<Consumer<PersonTable>>> pending = new HashMap<>();
+    private final ReadModel readModel;
+    private final ReadModelProperties properties;
+    private final ShardRouter shardRouter;
+
+    public ReadModelService(StudentCrudRepository studentRepository, TeacherCrudRepository teacherRepository,
+                            DirectorCrudRepository directorRepository, ReadModel readModel,
+                            ReadModelProperties properties, ShardRouter shardRouter) {
+        this.sources = Map.of(
+                StudentServiceImpl.RESOURCE, new Source<>(Student.class, studentRepository, Student::getId,
+                        s -> new PersonRow(s.getId(), s.getName(), s.getCpf(), null, s.getVersion())),
+                TeacherServiceImpl.RESOURCE, new Source<>(Teacher.class, teacherRepository, Teacher::getId,
+                        t -> new PersonRow(t.getId(), t.getName(), t.getCpf(), t.getSpecialty(), t.getVersion())),
+                DirectorServiceImpl.RESOURCE, new Source<>(Director.class, directorRepository, Director::getId,
+                        d -> new PersonRow(d.getId(), d.getName(), d.getCpf(), null, d.getVersion())));
+        this.readModel = readModel;
+        this.properties = properties;
+        this.shardRouter = shardRouter;
+    }
+
+    @Scheduled(fixedDelayString = "${school.read-model.refresh-interval-ms:300000}")
+    public synchronized void refresh() {
+        if (!properties.enabled()) {
+            return;
+        }
+        sources.forEach((resource, source) -> {
+            try {
+                rebuild(resource, source);
+            } catch (RuntimeException e) {
+                log.error("Could not rebuild the read model of {}", resource, e);
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPersonChanged(PersonChangedEvent event) {
+        applyAll(event.resource(), List.of(table -> apply(table, event)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPersonsDeleted(PersonsDeletedEvent event) {
+        applyAll(event.resource(), event.ids().stream()
+                .<Consumer<PersonTable>>map(id -> table -> table.remove(id))
+                .toList());
+    }
+
+    /**
+     * Applies a bulk teacher update to the rows already in the table, with the version
+     * the UPDATE gave them, rather than reloading them.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTeachersUpdated(TeachersUpdatedEvent event) {
+        applyAll(TeacherServiceImpl.RESOURCE, event.ids().stream()
+                .<Consumer<PersonTable>>map(id -> table -> {
+                    var row = table.get(id);
+                    if (row != null) {
+                        table.upsert(new PersonRow(id, Objects.requireNonNullElse(event.name(), row.name()), row.cpf(),
+                                Objects.requireNonNullElse(event.specialty(), row.specialty()), row.version() + 1));
+                    }
+                })
+                .toList());
+    }
+
+    public List<ReadModelFootprintDto> footprint() {
+        return readModel.tables().stream()
+                .sorted(Comparator.comparing(PersonTable::resource))
+                .map(table -> {
+                    var footprint = table.footprint();
+                    return ReadModelFootprintDto.of(table.resource(), footprint.rows(),
+                            footprint.columnarBytes(), footprint.entityBytes());
+                })
+                .toList();
+    }
+
+    private <T> void rebuild(String resource, Source<T> source) {
+        var table = readModel.table(resource);
+        if (table == null) {
+            return;
+        }
+        synchronized (pending) {
+            pending.put(resource, new ArrayList<>());
+        }
+        PersonTable fresh;
+        try {
+            var rows = SortedMerge.merge(shardRouter.gather(shard -> source.repository().findAll(BY_ID)),
+                            Comparator.comparing(source.id()))
+                    .stream()
+                    .map(source.toRow())
+                    .toList();
+            fresh = new PersonTable(resource, table.hasSpecialty());
+            fresh.load(rows);
+        } catch (RuntimeException e) {
+            synchronized (pending) {
+                pending.remove(resource);
+            }
+            throw e;
+        }
+        synchronized (pending) {
+            pending.remove(resource).forEach(change -> change.accept(fresh));
+            table.replaceWith(fresh);
+            table.markReady();
+        }
+    }
+
+    private void applyAll(String resource, List<Consumer<PersonTable>> changes) {
+        var table = readModel.table(resource);
+        if (!properties.enabled() || table == null || !sources.containsKey(resource)) {
+            return;
+        }
+        synchronized (pending) {
+            changes.forEach(change -> change.accept(table));
+            var replay = pending.get(resource);
+            if (replay != null) {
+                replay.addAll(changes);
+            }
+        }
+    }
+
+    private void apply(PersonTable table, PersonChangedEvent event) {
+        if (event.type() == ChangeType.DELETED) {
+            table.remove(event.id());
+        } else if (event.entity() != null) {
+            table.upsert(sources.get(event.resource()).row(event.entity()));
+        }
+    }
+
+    private record Source<T>(Class<T> type, DefaultCrudRepository<T> repository, Function<T, Long> id,
+                             Function<T, PersonRow> toRow) {
+
+        PersonRow row(Object entity) {
+            return toRow.apply(type.cast(entity));
+        }
+    }
+}
@@ -1,52 +1,220 @@
 package br.com.school.admin.services;
 
+import br.com.school.admin.dtos.BulkDeleteDto;
+import br.com.school.admin.dtos.SyncDto;
+import br.com.school.admin.events.ChangeType;
+import br.com.school.admin.events.PersonChangedEvent;
+import br.com.school.admin.events.PersonsDeletedEvent;
 import br.com.school.admin.exceptions.ResourceNotFoundException;
 import br.com.school.admin.models.Student;
+import br.com.school.admin.models.StudentValidator;
+import br.com.school.admin.models.Tombstone;
 import br.com.school.admin.repositories.StudentCrudRepository;
+import br.com.school.admin.repositories.TombstoneRepository;
+import br.com.school.admin.utils.columnar.PersonRow;
+import br.com.school.admin.utils.columnar.PersonTable;
+import br.com.school.admin.utils.columnar.ReadModel;
+import br.com.school.admin.utils.concurrent.ConflictRetry;
+import br.com.school.admin.utils.concurrent.NearCache;
+import br.com.school.admin.utils.concurrent.NearCaches;
+import br.com.school.admin.utils.concurrent.SingleFlight;
+import br.com.school.admin.utils.sharding.ShardRouter;
+import br.com.school.admin.utils.sharding.SortedMerge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 
 @Service
 public class StudentServiceImpl implements DefaultCrudService<Student> {
 
+    public static final String RESOURCE = "students";
+
+    private static final Sort BY_ID = Sort.by("id");
+    private static final Comparator<Student> ID_ORDER = Comparator.comparing(Student::getId);
+    private static final Comparator<Student> UPDATED_ORDER = Comparator.comparing(Student::getUpdatedAt);
+
     private final StudentCrudRepository repository;
     private final CpfService cpfService;
+    private final TombstoneRepository tombstoneRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ShardRouter shardRouter;
+    private final NearCache<Long, Student> cache;
+    private final PersonTable table;
+    private final SingleFlight<String, List<Student>> findAllCalls;
+    private final ConflictRetry conflictRetry;
 
-    public StudentServiceImpl(StudentCrudRepository repository, CpfService cpfService) {
+    public StudentServiceImpl(StudentCrudRepository repository, CpfService cpfService,
+                             TombstoneRepository tombstoneRepository, ApplicationEventPublisher eventPublisher,
+                             ShardRouter shardRouter, NearCaches nearCaches, ReadModel readModel,
+                             MeterRegistry meterRegistry) {
         this.repository = repository;
         this.cpfService = cpfService;
+        this.tombstoneRepository = tombstoneRepository;
+        this.eventPublisher = eventPublisher;
+        this.shardRouter = shardRouter;
+        this.cache = nearCaches.create(RESOURCE);
+        this.table = readModel.create(RESOURCE, false);
+        this.findAllCalls = new SingleFlight<>(RESOURCE + ".findAll", meterRegistry);
+        this.conflictRetry = new ConflictRetry(RESOURCE, meterRegistry);
     }
 
     @Override
     public List<Student> findAll() {
-        return repository.findAll();
+        if (table.isReady()) {
+            return table.findAll().stream().map(StudentServiceImpl::toStudent).toList();
+        }
+        return findAllCalls.execute("all", () -> SortedMerge.merge(
+                shardRouter.gather(shard -> repository.findAll(BY_ID)), ID_ORDER));
+    }
+
+    @Override
+    public List<Student> findPage(int page, int size) {
+        if (table.isReady()) {
+            ShardRouter.checkPage(page, size);
+            return table.page((long) page * size, size).stream().map(StudentServiceImpl::toStudent).toList();
+        }
+        return shardRouter.gatherPage(page, size, BY_ID, ID_ORDER, repository::findAllBy);
     }
 
     @Override
     public Student findById(Long id) {
-        return repository.findById(id)
+        if (table.isReady()) {
+            return Optional.ofNullable(table.get(id)).map(StudentServiceImpl::toStudent)
+                    .orElseThrow(() -> new ResourceNotFoundException("Student not found"));
+        }
+        return new Student(cache.get(id, () -> shardRouter.on(shardRouter.shardOfId(id), () -> findExisting(id))));
+    }
+
+    @Override
+    public Student findByCpf(String cpf) {
+        if (table.isReady()) {
+            return Optional.ofNullable(table.findByCpf(cpf)).map(StudentServiceImpl::toStudent)
+                    .orElseThrow(() -> new ResourceNotFoundException("Student not found"));
+        }
+        return shardRouter.on(shardRouter.shardOfCpf(cpf), () -> repository.findByCpf(cpf))
                 .orElseThrow(() -> new ResourceNotFoundException("Student not found"));
     }
 
+    @Override
+    public SyncDto<Student> findChangedSince(Instant since) {
+        var watermark = Instant.now().minus(SYNC_SETTLE_TIME);
+        var changed = shardRouter.gather(shard -> repository.findByUpdatedAtAfterOrderByUpdatedAt(since));
+        var deleted = shardRouter.gather(shard -> tombstoneRepository.findDeletedIdsSince(RESOURCE, since));
+        return new SyncDto<>(SortedMerge.merge(changed, UPDATED_ORDER),
+                deleted.stream().flatMap(List::stream).toList(), watermark);
+    }
+
     @Override
     public Student save(Student student) {
-        cpfService.checkIfExistsWithCpf(student.getCpf(), null);
-        return repository.save(student);
+        return shardRouter.inTransaction(shardRouter.shardOfCpf(student.getCpf()), () -> {
+            cpfService.checkIfExistsWithCpf(student.getCpf(), null);
+            cpfService.register(student.getCpf(), null, RESOURCE);
+            var saved = repository.save(student);
+            publish(ChangeType.CREATED, saved);
+            return saved;
+        });
     }
 
+    /**
+     * Reads and writes in one transaction together with the CPF registration. A commit
+     * over a concurrent write fails the version check and the whole read-modify-write is
+     * retried, so no update is lost.
+     */
     @Override
     public Student update(Long id, Student student) {
-        var studentToUpdate = findById(id);
-        cpfService.checkIfExistsWithCpf(student.getCpf(), studentToUpdate.getCpf());
-        studentToUpdate.setName(student.getName());
-        studentToUpdate.setCpf(student.getCpf());
-        return repository.save(studentToUpdate);
+        return conflictRetry.call(() -> shardRouter.inTransaction(shardRouter.shardOfId(id), () -> {
+            var studentToUpdate = findExisting(id);
+            cpfService.checkIfExistsWithCpf(student.getCpf(), studentToUpdate.getCpf());
+            cpfService.register(student.getCpf(), studentToUpdate.getCpf(), RESOURCE);
+            studentToUpdate.setName(student.getName());
+            studentToUpdate.setCpf(student.getCpf());
+            var updated = repository.save(studentToUpdate);
+            publish(ChangeType.UPDATED, updated);
+            return updated;
+        }));
+    }
+
+    @Override
+    public Student patch(Long id, Map<String, String> changes) {
+        return conflictRetry.call(() -> shardRouter.inTransaction(shardRouter.shardOfId(id), () -> {
+            var student = findExisting(id);
+            // The CPF goes first: registering it flushes the session, which would write a
+            // person already changed here twice.
+            if (changes.containsKey("cpf") && !Objects.equals(changes.get("cpf"), student.getCpf())) {
+                StudentValidator.validateCpf(changes.get("cpf"));
+                cpfService.checkIfExistsWithCpf(changes.get("cpf"), student.getCpf());
+                cpfService.register(changes.get("cpf"), student.getCpf(), RESOURCE);
+                student.setCpf(changes.get("cpf"));
+            }
+            if (changes.containsKey("name")) {
+                StudentValidator.validateName(changes.get("name"));
+                student.setName(changes.get("name"));
+            }
+            var patched = repository.save(student);
+            publish(ChangeType.UPDATED, patched);
+            return patched;
+        }));
     }
 
     @Override
     public void delete(Long id) {
-        var studentExists = findById(id);
-        repository.delete(studentExists);
+        conflictRetry.call(() -> shardRouter.inTransaction(shardRouter.shardOfId(id), () -> {
+            var studentExists = findExisting(id);
+            cpfService.release(studentExists.getCpf());
+            repository.delete(studentExists);
+            tombstoneRepository.save(new Tombstone(RESOURCE, id, Instant.now()));
+            publish(ChangeType.DELETED, studentExists);
+            return null;
+        }));
+    }
+
+    @Override
+    public int deleteAll(BulkDeleteDto filter) {
+        var byIds = filter.ids() != null && !filter.ids().isEmpty();
+        if (byIds == (filter.updatedBefore() != null)) {
+            throw new IllegalArgumentException("Provide either ids or updatedBefore");
+        }
+        // the precision of dt_deleted, so the tombstones written below can be found by it
+        var deletedAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        var deleted = 0;
+        for (int shard = 0; shard < shardRouter.shards(); shard++) {
+            deleted += shardRouter.inTransaction(shard, () -> {
+                var tombstoned = byIds ? repository.insertTombstones(RESOURCE, filter.ids(), deletedAt)
+                        : repository.insertTombstonesUpdatedBefore(RESOURCE, filter.updatedBefore(), deletedAt);
+                if (tombstoned == 0) {
+                    return 0;
+                }
+                var ids = repository.findTombstonedIds(RESOURCE, deletedAt);
+                repository.releaseTombstonedCpfs(RESOURCE, deletedAt);
+                var count = repository.deleteTombstoned(RESOURCE, deletedAt);
+                eventPublisher.publishEvent(new PersonsDeletedEvent(RESOURCE, ids, deletedAt));
+                return count;
+            });
+        }
+        return deleted;
+    }
+
+    private Student findExisting(Long id) {
+        return repository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Student not found"));
+    }
+
+    private void publish(ChangeType type, Student student) {
+        eventPublisher.publishEvent(new PersonChangedEvent(RESOURCE, type, student.getId(), student));
+    }
+
+    private static Student toStudent(PersonRow row) {
+        var student = new Student(row.name(), row.cpf());
+        student.setId(row.id());
+        return student;
     }
 }
@@ -1,53 +1,284 @@
 package br.com.school.admin.services;
 
+import br.com.school.admin.dtos.BulkDeleteDto;
+import br.com.school.admin.dtos.SyncDto;
+import br.com.school.admin.dtos.TeacherBulkUpdateDto;
+import br.com.school.admin.events.ChangeType;
+import br.com.school.admin.events.PersonChangedEvent;
+import br.com.school.admin.events.PersonsDeletedEvent;
+import br.com.school.admin.events.TeachersUpdatedEvent;
+import br.com.school.admin.exceptions.BusinessRuleException;
 import br.com.school.admin.exceptions.ResourceNotFoundException;
 import br.com.school.admin.models.Teacher;
+import br.com.school.admin.models.TeacherValidator;
+import br.com.school.admin.models.Tombstone;
 import br.com.school.admin.repositories.TeacherCrudRepository;
+import br.com.school.admin.repositories.TombstoneRepository;
+import br.com.school.admin.utils.columnar.PersonRow;
+import br.com.school.admin.utils.columnar.PersonTable;
+import br.com.school.admin.utils.columnar.ReadModel;
+import br.com.school.admin.utils.concurrent.ConflictRetry;
+import br.com.school.admin.utils.concurrent.NearCache;
+import br.com.school.admin.utils.concurrent.NearCaches;
+import br.com.school.admin.utils.concurrent.SingleFlight;
+import br.com.school.admin.utils.sharding.ShardRouter;
+import br.com.school.admin.utils.sharding.SortedMerge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 
 @Service
 public class TeacherServiceImpl implements DefaultCrudService<Teacher> {
 
+    public static final String RESOURCE = "teachers";
+
+    private static final Sort BY_ID = Sort.by("id");
+    private static final Comparator<Teacher> ID_ORDER = Comparator.comparing(Teacher::getId);
+    private static final Comparator<Teacher> UPDATED_ORDER = Comparator.comparing(Teacher::getUpdatedAt);
+
     private final TeacherCrudRepository repository;
     private final CpfService cpfService;
+    private final TombstoneRepository tombstoneRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ShardRouter shardRouter;
+    private final NearCache<Long, Teacher> cache;
+    private final PersonTable table;
+    private final SingleFlight<String, List<Teacher>> findAllCalls;
+    private final ConflictRetry conflictRetry;
 
-    public TeacherServiceImpl(TeacherCrudRepository repository, CpfService cpfService) {
+    public TeacherServiceImpl(TeacherCrudRepository repository, CpfService cpfService,
+                             TombstoneRepository tombstoneRepository, ApplicationEventPublisher eventPublisher,
+                             ShardRouter shardRouter, NearCaches nearCaches, ReadModel readModel,
+                             MeterRegistry meterRegistry) {
         this.repository = repository;
         this.cpfService = cpfService;
+        this.tombstoneRepository = tombstoneRepository;
+        this.eventPublisher = eventPublisher;
+        this.shardRouter = shardRouter;
+        this.cache = nearCaches.create(RESOURCE);
+        this.table = readModel.create(RESOURCE, true);
+        this.findAllCalls = new SingleFlight<>(RESOURCE + ".findAll", meterRegistry);
+        this.conflictRetry = new ConflictRetry(RESOURCE, meterRegistry);
     }
 
     @Override
     public List<Teacher> findAll() {
-        return repository.findAll();
+        if (table.isReady()) {
+            return table.findAll().stream().map(TeacherServiceImpl::toTeacher).toList();
+        }
+        return findAllCalls.execute("all", () -> SortedMerge.merge(
+                shardRouter.gather(shard -> repository.findAll(BY_ID)), ID_ORDER));
+    }
+
+    @Override
+    public List<Teacher> findPage(int page, int size) {
+        if (table.isReady()) {
+            ShardRouter.checkPage(page, size);
+            return table.page((long) page * size, size).stream().map(TeacherServiceImpl::toTeacher).toList();
+        }
+        return shardRouter.gatherPage(page, size, BY_ID, ID_ORDER, repository::findAllBy);
     }
 
     @Override
     public Teacher findById(Long id) {
-        return repository.findById(id)
+        if (table.isReady()) {
+            return Optional.ofNullable(table.get(id)).map(TeacherServiceImpl::toTeacher)
+                    .orElseThrow(() -> new ResourceNotFoundException("Teacher not found"));
+        }
+        return new Teacher(cache.get(id, () -> shardRouter.on(shardRouter.shardOfId(id), () -> findExisting(id))));
+    }
+
+    @Override
+    public Teacher findByCpf(String cpf) {
+        if (table.isReady()) {
+            return Optional.ofNullable(table.findByCpf(cpf)).map(TeacherServiceImpl::toTeacher)
+                    .orElseThrow(() -> new ResourceNotFoundException("Teacher not found"));
+        }
+        return shardRouter.on(shardRouter.shardOfCpf(cpf), () -> repository.findByCpf(cpf))
                 .orElseThrow(() -> new ResourceNotFoundException("Teacher not found"));
     }
 
+    public List<Teacher> findBySpecialty(String specialty) {
+        if (table.isReady()) {
+            return table.findBySpecialty(specialty).stream().map(TeacherServiceImpl::toTeacher).toList();
+        }
+        return SortedMerge.merge(shardRouter.gather(shard -> repository.findBySpecialty(specialty, BY_ID)), ID_ORDER);
+    }
+
+    @Override
+    public SyncDto<Teacher> findChangedSince(Instant since) {
+        var watermark = Instant.now().minus(SYNC_SETTLE_TIME);
+        var changed = shardRouter.gather(shard -> repository.findByUpdatedAtAfterOrderByUpdatedAt(since));
+        var deleted = shardRouter.gather(shard -> tombstoneRepository.findDeletedIdsSince(RESOURCE, since));
+        return new SyncDto<>(SortedMerge.merge(changed, UPDATED_ORDER),
+                deleted.stream().flatMap(List::stream).toList(), watermark);
+    }
+
     @Override
     public Teacher save(Teacher teacher) {
-        cpfService.checkIfExistsWithCpf(teacher.getCpf(), null);
-        return repository.save(teacher);
+        return shardRouter.inTransaction(shardRouter.shardOfCpf(teacher.getCpf()), () -> {
+            cpfService.checkIfExistsWithCpf(teacher.getCpf(), null);
+            cpfService.register(teacher.getCpf(), null, RESOURCE);
+            var saved = repository.save(teacher);
+            publish(ChangeType.CREATED, saved);
+            return saved;
+        });
     }
 
+    /**
+     * Reads and writes in one transaction together with the CPF registration. A commit
+     * over a concurrent write fails the version check and the whole read-modify-write is
+     * retried, so no update is lost.
+     */
     @Override
     public Teacher update(Long id, Teacher teacher) {
-        var teacherToUpdate = findById(id);
-        cpfService.checkIfExistsWithCpf(teacher.getCpf(), teacherToUpdate.getCpf());
-        teacherToUpdate.setName(teacher.getName());
-        teacherToUpdate.setCpf(teacher.getCpf());
-        teacherToUpdate.setSpecialty(teacher.getSpecialty());
-        return repository.save(teacherToUpdate);
+        return conflictRetry.call(() -> shardRouter.inTransaction(shardRouter.shardOfId(id), () -> {
+            var teacherToUpdate = findExisting(id);
+            cpfService.checkIfExistsWithCpf(teacher.getCpf(), teacherToUpdate.getCpf());
+            cpfService.register(teacher.getCpf(), teacherToUpdate.getCpf(), RESOURCE);
+            teacherToUpdate.setName(teacher.getName());
+            teacherToUpdate.setCpf(teacher.getCpf());
+            teacherToUpdate.setSpecialty(teacher.getSpecialty());
+            var updated = repository.save(teacherToUpdate);
+            publish(ChangeType.UPDATED, updated);
+            return updated;
+        }));
+    }
+
+    @Override
+    public Teacher patch(Long id, Map<String, String> changes) {
+        return conflictRetry.call(() -> shardRouter.inTransaction(shardRouter.shardOfId(id), () -> {
+            var teacher = findExisting(id);
+            // The CPF goes first: registering it flushes the session, which would write a
+            // person already changed here twice.
+            if (changes.containsKey("cpf") && !Objects.equals(changes.get("cpf"), teacher.getCpf())) {
+                TeacherValidator.validateCpf(changes.get("cpf"));
+                cpfService.checkIfExistsWithCpf(changes.get("cpf"), teacher.getCpf());
+                cpfService.register(changes.get("cpf"), teacher.getCpf(), RESOURCE);
+                teacher.setCpf(changes.get("cpf"));
+            }
+            if (changes.containsKey("name")) {
+                TeacherValidator.validateName(changes.get("name"));
+                teacher.setName(changes.get("name"));
+            }
+            if (changes.containsKey("specialty")) {
+                TeacherValidator.validateSpecialty(changes.get("specialty"));
+                teacher.setSpecialty(changes.get("specialty"));
+            }
+            var patched = repository.save(teacher);
+            publish(ChangeType.UPDATED, patched);
+            return patched;
+        }));
     }
 
     @Override
     public void delete(Long id) {
-        var teacherExists = findById(id);
-        repository.delete(teacherExists);
+        conflictRetry.call(() -> shardRouter.inTransaction(shardRouter.shardOfId(id), () -> {
+            var teacherExists = findExisting(id);
+            cpfService.release(teacherExists.getCpf());
+            repository.delete(teacherExists);
+            tombstoneRepository.save(new Tombstone(RESOURCE, id, Instant.now()));
+            publish(ChangeType.DELETED, teacherExists);
+            return null;
+        }));
+    }
+
+    @Override
+    public int deleteAll(BulkDeleteDto filter) {
+        var byIds = filter.ids() != null && !filter.ids().isEmpty();
+        if (byIds == (filter.updatedBefore() != null)) {
+            throw new IllegalArgumentException("Provide either ids or updatedBefore");
+        }
+        // the precision of dt_deleted, so the tombstones written below can be found by it
+        var deletedAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        var deleted = 0;
+        for (int shard = 0; shard < shardRouter.shards(); shard++) {
+            deleted += shardRouter.inTransaction(shard, () -> {
+                var tombstoned = byIds ? repository.insertTombstones(RESOURCE, filter.ids(), deletedAt)
+                        : repository.insertTombstonesUpdatedBefore(RESOURCE, filter.updatedBefore(), deletedAt);
+                if (tombstoned == 0) {
+                    return 0;
+                }
+                var ids = repository.findTombstonedIds(RESOURCE, deletedAt);
+                repository.releaseTombstonedCpfs(RESOURCE, deletedAt);
+                var count = repository.deleteTombstoned(RESOURCE, deletedAt);
+                eventPublisher.publishEvent(new PersonsDeletedEvent(RESOURCE, ids, deletedAt));
+                return count;
+            });
+        }
+        return deleted;
+    }
+
+    /**
+     * Applies the same name and/or specialty to every teacher matching the filter with one
+     * UPDATE per shard, filtered in its WHERE clause, and one {@link TeachersUpdatedEvent}
+     * per shard. CPFs are unique, so they cannot be changed in bulk.
+     */
+    public int updateAll(TeacherBulkUpdateDto update) {
+        var filter = update.filter();
+        var changes = update.changes();
+        if (changes == null || (changes.name() == null && changes.cpf() == null && changes.specialty() == null)) {
+            throw new IllegalArgumentException("No changes given");
+        }
+        if (changes.cpf() != null) {
+            throw new BusinessRuleException("CPF cannot be changed in bulk");
+        }
+        if (changes.name() != null) {
+            TeacherValidator.validateName(changes.name());
+        }
+        if (changes.specialty() != null) {
+            TeacherValidator.validateSpecialty(changes.specialty());
+        }
+        var byIds = filter != null && filter.ids() != null && !filter.ids().isEmpty();
+        if (filter == null || byIds == (filter.specialty() != null)) {
+            throw new IllegalArgumentException("Provide either ids or specialty");
+        }
+        // the precision of dt_updated, so the rows written below can be found by it
+        var updatedAt = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        var updated = 0;
+        if (byIds) {
+            for (var shardIds : shardRouter.partition(filter.ids(), shardRouter::shardOfId).entrySet()) {
+                updated += shardRouter.inTransaction(shardIds.getKey(), () -> publishUpdated(updatedAt, changes,
+                        repository.updateAllByIds(shardIds.getValue(), changes.name(), changes.specialty(), updatedAt)));
+            }
+        } else {
+            for (int shard = 0; shard < shardRouter.shards(); shard++) {
+                updated += shardRouter.inTransaction(shard, () -> publishUpdated(updatedAt, changes,
+                        repository.updateAllBySpecialty(filter.specialty(), changes.name(), changes.specialty(), updatedAt)));
+            }
+        }
+        return updated;
+    }
+
+    private int publishUpdated(Instant updatedAt, TeacherBulkUpdateDto.Changes changes, int count) {
+        if (count > 0) {
+            eventPublisher.publishEvent(new TeachersUpdatedEvent(repository.findIdsUpdatedAt(updatedAt),
+                    changes.name(), changes.specialty(), updatedAt));
+        }
+        return count;
+    }
+
+    private Teacher findExisting(Long id) {
+        return repository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Teacher not found"));
+    }
+
+    private void publish(ChangeType type, Teacher teacher) {
+        eventPublisher.publishEvent(new PersonChangedEvent(RESOURCE, type, teacher.getId(), teacher));
+    }
+
+    private static Teacher toTeacher(PersonRow row) {
+        var teacher = new Teacher(row.name(), row.cpf(), row.specialty());
+        teacher.setId(row.id());
+        return teacher;
     }
 }
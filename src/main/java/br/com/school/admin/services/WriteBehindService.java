@@ -0,0 +1,144 @@
+package br.com.school.admin.services;
+
+import br.com.school.admin.config.WriteBehindProperties;
+import br.com.school.admin.dtos.OperationDto;
+import br.com.school.admin.exceptions.ResourceNotFoundException;
+import br.com.school.admin.exceptions.ServiceUnavailableException;
+import br.com.school.admin.utils.sharding.ShardRouter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Accepts already validated writes into a bounded queue and persists them on a single
+ * worker thread, taking up to {@code batchSize} writes off the queue at a time. The writes
+ * of a batch are grouped by the shard they go to and each group commits in one
+ * transaction on that shard, which the services' own transactions join. When a group
+ * cannot commit, its writes are replayed one transaction each, with the services' conflict
+ * retries, so a single bad row fails alone.
+ */
+@Service
+public class WriteBehindService {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindService.class);
+
+    private final BlockingQueue<PendingWrite> queue;
+    private final Map<String, OperationDto> operations = new ConcurrentHashMap<>();
+    private final Queue<String> operationOrder = new ConcurrentLinkedQueue<>();
+    private final WriteBehindProperties properties;
+    private final ShardRouter shardRouter;
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    public WriteBehindService(WriteBehindProperties properties, ShardRouter shardRouter, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.shardRouter = shardRouter;
+        this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+        Gauge.builder("school.write_behind.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+        this.worker = new Thread(this::drain, "write-behind");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Queues {@code write}, which must only touch {@code shard}: the shard of the CPF for
+     * a create, the shard of the id for an update.
+     */
+    public OperationDto submit(String resource, int shard, Supplier<Long> write) {
+        var operation = OperationDto.pending(UUID.randomUUID().toString(), resource);
+        // Registered before queueing so the worker always finds it, but only put in the
+        // eviction order once accepted, so rejected ids never pile up there.
+        operations.put(operation.id(), operation);
+        if (!queue.offer(new PendingWrite(operation, shard, write))) {
+            operations.remove(operation.id());
+            throw new ServiceUnavailableException("Write queue is full, retry later");
+        }
+        track(operation.id());
+        return operation;
+    }
+
+    public OperationDto findById(String id) {
+        var operation = operations.get(id);
+        if (operation == null) {
+            throw new ResourceNotFoundException("Operation not found");
+        }
+        return operation;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        worker.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private void drain() {
+        while (running || !queue.isEmpty()) {
+            try {
+                var first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                var batch = new ArrayList<PendingWrite>(properties.batchSize());
+                batch.add(first);
+                queue.drainTo(batch, properties.batchSize() - 1);
+                persist(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Write-behind worker failed", e);
+            }
+        }
+    }
+
+    private void persist(List<PendingWrite> batch) {
+        shardRouter.partition(batch, PendingWrite::shard).forEach((shard, writes) -> {
+            List<OperationDto> results;
+            try {
+                results = shardRouter.inTransaction(shard, () -> writes.stream()
+                        .map(write -> write.operation().done(write.write().get()))
+                        .toList());
+            } catch (RuntimeException e) {
+                results = writes.stream().map(this::apply).toList();
+            }
+            results.forEach(operation -> operations.replace(operation.id(), operation));
+        });
+    }
+
+    private OperationDto apply(PendingWrite write) {
+        try {
+            return write.operation().done(write.write().get());
+        } catch (RuntimeException e) {
+            return write.operation().failed(e.getMessage());
+        }
+    }
+
+    private void track(String id) {
+        operationOrder.add(id);
+        while (operations.size() > properties.maxTrackedOperations()) {
+            var oldest = operationOrder.poll();
+            if (oldest == null) {
+                break;
+            }
+            operations.remove(oldest);
+        }
+    }
+
+    private record PendingWrite(OperationDto operation, int shard, Supplier<Long> write) {
+    }
+}
@@ -0,0 +1,49 @@
+package br.com.school.admin.utils.columnar;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps each distinct string of a column to a dense int code. Codes are never reclaimed;
+ * a rebuild of the owning table starts from an empty dictionary.
+ */
+class Dictionary {
+
+    static final int NONE = -1;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private String[] values = new String[16];
+
+    int encode(String value) {
+        if (value == null) {
+            return NONE;
+        }
+        var code = codes.get(value);
+        if (code != null) {
+            return code;
+        }
+        if (codes.size() == values.length) {
+            values = Arrays.copyOf(values, values.length * 2);
+        }
+        values[codes.size()] = value;
+        codes.put(value, codes.size());
+        return codes.size() - 1;
+    }
+
+    int codeOf(String value) {
+        return value == null ? NONE : codes.getOrDefault(value, NONE);
+    }
+
+    String decode(int code) {
+        return code == NONE ? null : values[code];
+    }
+
+    long bytes() {
+        var bytes = Sizes.array(values.length, Sizes.REFERENCE) + Sizes.hashMap(codes.size());
+        for (int code = 0; code < codes.size(); code++) {
+            bytes += Sizes.string(values[code]) + Sizes.BOXED_INTEGER;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,8 @@
+package br.com.school.admin.utils.columnar;
+
+/**
+ * One person as kept by a {@link PersonTable}; {@code specialty} is only set for teachers
+ * and {@code version} is the entity version the row was read at.
+ */
+public record PersonRow(long id, String name, String cpf, String specialty, long version) {
+}
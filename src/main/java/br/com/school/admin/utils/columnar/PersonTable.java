@@ -0,0 +1,386 @@
+package br.com.school.admin.utils.columnar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * One resource's people in parallel primitive columns kept sorted by id: ids, CPFs and
+ * versions as longs, names and specialties as dictionary codes. A second pair of columns
+ * sorted by CPF answers CPF lookups. The odd CPF that is not eleven digits is kept aside
+ * in a map instead. Lookups are binary searches under a read lock; single-row writes
+ * shift the columns under the write lock, which is cheap next to a database round trip
+ * while ids keep arriving in roughly ascending order. A row older than the one held is
+ * ignored, so writes applied out of commit order cannot roll a row back.
+ */
+public class PersonTable {
+
+    private static final int CPF_DIGITS = 11;
+    private static final long OTHER_CPF = -1;
+    private static final int ROW_BITS = 26;
+    private static final long ROW_MASK = (1L << ROW_BITS) - 1;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final String resource;
+    private final boolean withSpecialty;
+    private volatile boolean ready;
+
+    private Dictionary names = new Dictionary();
+    private Dictionary specialties = new Dictionary();
+    private long[] ids = new long[16];
+    private long[] cpfs = new long[16];
+    private long[] versions = new long[16];
+    private int[] nameCodes = new int[16];
+    private int[] specialtyCodes;
+    private long[] cpfKeys = new long[16];
+    private long[] cpfIds = new long[16];
+    private Map<Long, String> otherCpfs = new HashMap<>();
+    private int size;
+    private int indexed;
+
+    public PersonTable(String resource, boolean withSpecialty) {
+        this.resource = resource;
+        this.withSpecialty = withSpecialty;
+        this.specialtyCodes = withSpecialty ? new int[16] : null;
+    }
+
+    public String resource() {
+        return resource;
+    }
+
+    public boolean hasSpecialty() {
+        return withSpecialty;
+    }
+
+    /**
+     * Whether the table has been loaded and can answer in place of the database.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void markReady() {
+        ready = true;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public PersonRow get(long id) {
+        lock.readLock().lock();
+        try {
+            var row = Arrays.binarySearch(ids, 0, size, id);
+            return row < 0 ? null : rowAt(row);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public PersonRow findByCpf(String cpf) {
+        if (cpf == null) {
+            return null;
+        }
+        var key = parseCpf(cpf);
+        lock.readLock().lock();
+        try {
+            if (key == OTHER_CPF) {
+                return otherCpfs.entrySet().stream()
+                        .filter(entry -> entry.getValue().equals(cpf))
+                        .findFirst()
+                        .map(entry -> rowAt(Arrays.binarySearch(ids, 0, size, entry.getKey())))
+                        .orElse(null);
+            }
+            var index = Arrays.binarySearch(cpfKeys, 0, indexed, key);
+            return index < 0 ? null : rowAt(Arrays.binarySearch(ids, 0, size, cpfIds[index]));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<PersonRow> findAll() {
+        return page(0, Integer.MAX_VALUE);
+    }
+
+    public List<PersonRow> page(long offset, int limit) {
+        lock.readLock().lock();
+        try {
+            var from = (int) Math.min(offset, size);
+            var to = (int) Math.min((long) from + limit, size);
+            var rows = new ArrayList<PersonRow>(to - from);
+            for (int row = from; row < to; row++) {
+                rows.add(rowAt(row));
+            }
+            return rows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rows with the given specialty in id order, comparing dictionary codes rather than
+     * strings.
+     */
+    public List<PersonRow> findBySpecialty(String specialty) {
+        lock.readLock().lock();
+        try {
+            var rows = new ArrayList<PersonRow>();
+            var code = withSpecialty ? specialties.codeOf(specialty) : Dictionary.NONE;
+            if (code == Dictionary.NONE) {
+                return rows;
+            }
+            for (int row = 0; row < size; row++) {
+                if (specialtyCodes[row] == code) {
+                    rows.add(rowAt(row));
+                }
+            }
+            return rows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void upsert(PersonRow person) {
+        var cpf = parseCpf(person.cpf());
+        lock.writeLock().lock();
+        try {
+            var row = Arrays.binarySearch(ids, 0, size, person.id());
+            if (row >= 0) {
+                if (person.version() < versions[row]) {
+                    return;
+                }
+                if (cpf != cpfs[row] || cpf == OTHER_CPF) {
+                    unindexCpf(person.id(), cpfs[row]);
+                    indexCpf(person.id(), cpf, person.cpf());
+                }
+            } else {
+                row = -row - 1;
+                ensureCapacity(size + 1);
+                shift(row, 1);
+                indexCpf(person.id(), cpf, person.cpf());
+                size++;
+            }
+            ids[row] = person.id();
+            cpfs[row] = cpf;
+            versions[row] = person.version();
+            nameCodes[row] = names.encode(person.name());
+            if (withSpecialty) {
+                specialtyCodes[row] = specialties.encode(person.specialty());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            var row = Arrays.binarySearch(ids, 0, size, id);
+            if (row < 0) {
+                return;
+            }
+            unindexCpf(id, cpfs[row]);
+            shift(row + 1, -1);
+            size--;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the whole content with {@code rows}, which must be sorted by id. The CPF
+     * columns are built with one sort of (CPF, row) pairs packed into longs instead of a
+     * shifting insert per row.
+     */
+    public void load(List<PersonRow> rows) {
+        if (rows.size() > ROW_MASK) {
+            throw new IllegalArgumentException("Too many rows for " + resource);
+        }
+        var fresh = new PersonTable(resource, withSpecialty);
+        fresh.ensureCapacity(rows.size());
+        var packed = new long[rows.size()];
+        for (var person : rows) {
+            var row = fresh.size++;
+            fresh.ids[row] = person.id();
+            fresh.cpfs[row] = parseCpf(person.cpf());
+            fresh.versions[row] = person.version();
+            fresh.nameCodes[row] = fresh.names.encode(person.name());
+            if (withSpecialty) {
+                fresh.specialtyCodes[row] = fresh.specialties.encode(person.specialty());
+            }
+            if (fresh.cpfs[row] == OTHER_CPF) {
+                fresh.otherCpfs.put(person.id(), person.cpf());
+            } else {
+                packed[fresh.indexed++] = fresh.cpfs[row] << ROW_BITS | row;
+            }
+        }
+        Arrays.sort(packed, 0, fresh.indexed);
+        for (int index = 0; index < fresh.indexed; index++) {
+            fresh.cpfKeys[index] = packed[index] >>> ROW_BITS;
+            fresh.cpfIds[index] = fresh.ids[(int) (packed[index] & ROW_MASK)];
+        }
+        replaceWith(fresh);
+    }
+
+    /**
+     * Takes over the content of {@code other}, which must not be used afterwards.
+     */
+    public void replaceWith(PersonTable other) {
+        lock.writeLock().lock();
+        try {
+            names = other.names;
+            specialties = other.specialties;
+            ids = other.ids;
+            cpfs = other.cpfs;
+            versions = other.versions;
+            nameCodes = other.nameCodes;
+            specialtyCodes = other.specialtyCodes;
+            cpfKeys = other.cpfKeys;
+            cpfIds = other.cpfIds;
+            otherCpfs = other.otherCpfs;
+            size = other.size;
+            indexed = other.indexed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Bytes held by this table next to an estimate for the same rows as detached entities
+     * indexed by id and by CPF in two HashMaps, each entity with its own boxed id, strings
+     * and {@code updatedAt} instant.
+     */
+    public Footprint footprint() {
+        lock.readLock().lock();
+        try {
+            var columns = withSpecialty ? 5 : 4;
+            var columnar = Sizes.object(12)
+                    + 5 * Sizes.array(ids.length, Long.BYTES)
+                    + Sizes.array(nameCodes.length, Integer.BYTES)
+                    + (withSpecialty ? Sizes.array(specialtyCodes.length, Integer.BYTES) + specialties.bytes() : 0)
+                    + names.bytes();
+            var entities = 2 * Sizes.hashMap(size);
+            for (int row = 0; row < size; row++) {
+                entities += Sizes.object(columns) + Sizes.BOXED_LONG + Sizes.INSTANT
+                        + Sizes.string(names.decode(nameCodes[row]))
+                        + Sizes.align(24) + Sizes.array(CPF_DIGITS, 1)
+                        + (withSpecialty ? Sizes.string(specialties.decode(specialtyCodes[row])) : 0);
+            }
+            return new Footprint(size, columnar, entities);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private PersonRow rowAt(int row) {
+        var cpf = cpfs[row] == OTHER_CPF ? otherCpfs.get(ids[row]) : formatCpf(cpfs[row]);
+        return new PersonRow(ids[row], names.decode(nameCodes[row]), cpf,
+                withSpecialty ? specialties.decode(specialtyCodes[row]) : null, versions[row]);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+        var length = Math.max(capacity, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, length);
+        cpfs = Arrays.copyOf(cpfs, length);
+        versions = Arrays.copyOf(versions, length);
+        nameCodes = Arrays.copyOf(nameCodes, length);
+        if (withSpecialty) {
+            specialtyCodes = Arrays.copyOf(specialtyCodes, length);
+        }
+        cpfKeys = Arrays.copyOf(cpfKeys, length);
+        cpfIds = Arrays.copyOf(cpfIds, length);
+    }
+
+    /**
+     * Moves the id-ordered columns from {@code row} on by {@code distance} rows.
+     */
+    private void shift(int row, int distance) {
+        var length = size - row;
+        System.arraycopy(ids, row, ids, row + distance, length);
+        System.arraycopy(cpfs, row, cpfs, row + distance, length);
+        System.arraycopy(versions, row, versions, row + distance, length);
+        System.arraycopy(nameCodes, row, nameCodes, row + distance, length);
+        if (withSpecialty) {
+            System.arraycopy(specialtyCodes, row, specialtyCodes, row + distance, length);
+        }
+    }
+
+    private void indexCpf(long id, long cpf, String raw) {
+        if (cpf == OTHER_CPF) {
+            otherCpfs.put(id, raw);
+            return;
+        }
+        // a CPF may briefly be indexed twice while events for a swap arrive out of order
+        var index = Arrays.binarySearch(cpfKeys, 0, indexed, cpf);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        System.arraycopy(cpfKeys, index, cpfKeys, index + 1, indexed - index);
+        System.arraycopy(cpfIds, index, cpfIds, index + 1, indexed - index);
+        cpfKeys[index] = cpf;
+        cpfIds[index] = id;
+        indexed++;
+    }
+
+    private void unindexCpf(long id, long cpf) {
+        if (cpf == OTHER_CPF) {
+            otherCpfs.remove(id);
+            return;
+        }
+        var found = Arrays.binarySearch(cpfKeys, 0, indexed, cpf);
+        if (found < 0) {
+            return;
+        }
+        var index = found;
+        while (index > 0 && cpfKeys[index - 1] == cpf) {
+            index--;
+        }
+        while (index < indexed && cpfKeys[index] == cpf && cpfIds[index] != id) {
+            index++;
+        }
+        if (index == indexed || cpfKeys[index] != cpf) {
+            return;
+        }
+        System.arraycopy(cpfKeys, index + 1, cpfKeys, index, indexed - index - 1);
+        System.arraycopy(cpfIds, index + 1, cpfIds, index, indexed - index - 1);
+        indexed--;
+    }
+
+    /**
+     * The CPF as a number, or {@link #OTHER_CPF} when it is not exactly eleven digits.
+     */
+    private static long parseCpf(String cpf) {
+        if (cpf == null || cpf.length() != CPF_DIGITS) {
+            return OTHER_CPF;
+        }
+        var key = 0L;
+        for (int i = 0; i < CPF_DIGITS; i++) {
+            var digit = cpf.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return OTHER_CPF;
+            }
+            key = key * 10 + digit;
+        }
+        return key;
+    }
+
+    private static String formatCpf(long cpf) {
+        var digits = Long.toString(cpf);
+        return "0".repeat(CPF_DIGITS - digits.length()) + digits;
+    }
+
+    public record Footprint(int rows, long columnarBytes, long entityBytes) {
+    }
+}
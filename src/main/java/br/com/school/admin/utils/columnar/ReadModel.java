@@ -0,0 +1,29 @@
+package br.com.school.admin.utils.columnar;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The columnar tables of one node by resource. A table answers reads only once it has
+ * been loaded, so services fall back to the database until then or when the read model
+ * is disabled.
+ */
+public class ReadModel {
+
+    private final Map<String, PersonTable> tables = new ConcurrentHashMap<>();
+
+    public PersonTable create(String resource, boolean withSpecialty) {
+        var table = new PersonTable(resource, withSpecialty);
+        tables.put(resource, table);
+        return table;
+    }
+
+    public PersonTable table(String resource) {
+        return tables.get(resource);
+    }
+
+    public Collection<PersonTable> tables() {
+        return tables.values();
+    }
+}
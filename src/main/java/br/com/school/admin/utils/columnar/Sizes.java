@@ -0,0 +1,44 @@
+package br.com.school.admin.utils.columnar;
+
+/**
+ * Shallow heap sizes on a 64-bit HotSpot JVM with compressed oops and 8-byte alignment,
+ * counting strings as Latin-1. Good enough to compare layouts, not to account for a heap.
+ */
+final class Sizes {
+
+    static final int HEADER = 12;
+    static final int ARRAY_HEADER = 16;
+    static final int REFERENCE = 4;
+    static final int BOXED_LONG = 16;
+    static final int BOXED_INTEGER = 16;
+    static final int INSTANT = 24;
+    static final int HASH_MAP_NODE = 32;
+
+    private Sizes() {
+    }
+
+    static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    static long object(int references) {
+        return align(HEADER + (long) references * REFERENCE);
+    }
+
+    static long array(int length, int elementBytes) {
+        return align(ARRAY_HEADER + (long) length * elementBytes);
+    }
+
+    static long string(String value) {
+        return value == null ? 0 : align(24) + array(value.length(), 1);
+    }
+
+    /**
+     * A HashMap's nodes plus its table at the default load factor; keys and values are
+     * counted by the caller.
+     */
+    static long hashMap(int entries) {
+        var table = Integer.highestOneBit(Math.max(1, (int) (entries / 0.75f)) * 2 - 1);
+        return object(6) + array(table, REFERENCE) + (long) entries * HASH_MAP_NODE;
+    }
+}
@@ -0,0 +1,43 @@
+package br.com.school.admin.utils.concurrent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.dao.ConcurrencyFailureException;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Reruns a read-modify-write transaction that lost a race: a stale version or a lock that
+ * could not be taken. Each attempt must re-read what it changes. Attempts are spread by a
+ * short random pause so the losers do not collide again in lockstep.
+ */
+public class ConflictRetry {
+
+    public static final int MAX_ATTEMPTS = 5;
+
+    private static final long MAX_PAUSE_NANOS = 2_000_000;
+
+    private final Counter retries;
+
+    public ConflictRetry(String name, MeterRegistry meterRegistry) {
+        this.retries = Counter.builder("school.write.conflicts")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    public <T> T call(Supplier<T> transaction) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transaction.get();
+            } catch (ConcurrencyFailureException e) {
+                if (attempt == MAX_ATTEMPTS) {
+                    throw e;
+                }
+                retries.increment();
+                LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(MAX_PAUSE_NANOS * attempt));
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package br.com.school.admin.utils.concurrent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * A small per-node cache in front of the database. Entries expire after {@code ttl}, which
+ * bounds staleness if an invalidation is ever lost. A load first leaves a marker for its
+ * key and only replaces that same marker with the value, so invalidating the key while a
+ * slow load runs keeps the stale result out of the cache.
+ * <p>
+ * Concurrent misses for a key join the load of its marker instead of running their own.
+ * Invalidating the key drops the marker too, so a reader arriving after an invalidation
+ * never joins a load that started before it.
+ */
+public class NearCache<K, V> {
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    public NearCache(String name, int maxEntries, Duration ttl, MeterRegistry meterRegistry) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.hits = Counter.builder("school.nearcache.requests")
+                .tag("name", name).tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("school.nearcache.requests")
+                .tag("name", name).tag("result", "miss")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("school.nearcache.requests")
+                .tag("name", name).tag("result", "coalesced")
+                .register(meterRegistry);
+    }
+
+    public V get(K key, Supplier<V> loader) {
+        var marker = new Entry<V>(null, 0, new CompletableFuture<>());
+        while (true) {
+            var entry = entries.get(key);
+            if (entry != null && entry.load != null) {
+                coalesced.increment();
+                return await(entry.load);
+            }
+            if (entry != null && System.nanoTime() - entry.loadedAt < ttlNanos) {
+                hits.increment();
+                return entry.value;
+            }
+            if (entry == null ? entries.putIfAbsent(key, marker) == null : entries.replace(key, entry, marker)) {
+                break;
+            }
+        }
+        misses.increment();
+        if (maxEntries > 0 && entries.size() > maxEntries) {
+            evict();
+        }
+        V value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException e) {
+            entries.remove(key, marker);
+            marker.load.completeExceptionally(e);
+            throw e;
+        }
+        if (maxEntries > 0) {
+            entries.replace(key, marker, new Entry<>(value, System.nanoTime(), null));
+        } else {
+            entries.remove(key, marker);
+        }
+        marker.load.complete(value);
+        return value;
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public long hitCount() {
+        return (long) hits.count();
+    }
+
+    public long missCount() {
+        return (long) misses.count();
+    }
+
+    public long coalescedCount() {
+        return (long) coalesced.count();
+    }
+
+    private void evict() {
+        var iterator = entries.keySet().iterator();
+        for (int i = 0; i < Math.max(1, maxEntries / 10) && iterator.hasNext(); i++) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Compared by identity, so a load only replaces its own marker. A marker carries the
+     * {@code load} other readers wait on; a loaded value has none.
+     */
+    private static final class Entry<V> {
+
+        private final V value;
+        private final long loadedAt;
+        private final CompletableFuture<V> load;
+
+        Entry(V value, long loadedAt, CompletableFuture<V> load) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+            this.load = load;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package br.com.school.admin.utils.concurrent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The near-caches of one node by resource, so invalidations can reach them by name.
+ */
+public class NearCaches {
+
+    private final Map<String, NearCache<Long, ?>> caches = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final Duration ttl;
+    private final MeterRegistry meterRegistry;
+
+    public NearCaches(int maxEntries, Duration ttl, MeterRegistry meterRegistry) {
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <V> NearCache<Long, V> create(String resource) {
+        var cache = new NearCache<Long, V>(resource, maxEntries, ttl, meterRegistry);
+        caches.put(resource, cache);
+        return cache;
+    }
+
+    public void invalidate(String resource, Long id) {
+        var cache = caches.get(resource);
+        if (cache != null) {
+            cache.invalidate(id);
+        }
+    }
+
+    public void invalidateAll() {
+        caches.values().forEach(NearCache::invalidateAll);
+    }
+}
@@ -0,0 +1,39 @@
+package br.com.school.admin.utils.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+public class MergePatch {
+
+    public static final String MEDIA_TYPE = "application/merge-patch+json";
+
+    private MergePatch() {
+    }
+
+    /**
+     * Reads an RFC 7396 merge patch of a flat object with string members. Only the members
+     * present in the patch are returned; an explicit {@code null} is kept so that clearing a
+     * required field fails validation instead of being ignored.
+     */
+    public static Map<String, String> fields(JsonNode patch, Set<String> patchable) {
+        if (patch == null || !patch.isObject()) {
+            throw new IllegalArgumentException("Patch must be a JSON object");
+        }
+        var fields = new LinkedHashMap<String, String>();
+        for (var iterator = patch.fields(); iterator.hasNext(); ) {
+            var field = iterator.next();
+            if (!patchable.contains(field.getKey())) {
+                throw new IllegalArgumentException("Field " + field.getKey() + " cannot be patched");
+            }
+            var value = field.getValue();
+            if (!value.isNull() && !value.isTextual()) {
+                throw new IllegalArgumentException("Field " + field.getKey() + " must be a string");
+            }
+            fields.put(field.getKey(), value.isNull() ? null : value.asText());
+        }
+        return fields;
+    }
+}
@@ -0,0 +1,45 @@
+package br.com.school.admin.utils.json;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+public class SparseFields {
+
+    private SparseFields() {
+    }
+
+    /**
+     * Reads a comma-separated {@code fields} parameter, keeping the requested order and
+     * dropping repeats.
+     */
+    public static List<String> parse(String fields, List<String> selectable) {
+        var parsed = new LinkedHashSet<String>();
+        for (var field : fields.split(",")) {
+            var name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!selectable.contains(name)) {
+                throw new IllegalArgumentException("Field " + name + " cannot be selected");
+            }
+            parsed.add(name);
+        }
+        if (parsed.isEmpty()) {
+            throw new IllegalArgumentException("Select at least one of " + String.join(", ", selectable));
+        }
+        return List.copyOf(parsed);
+    }
+
+    /**
+     * Refuses a {@code fields} list combined with any of {@code filters}: projections are
+     * only served for whole lists and pages.
+     */
+    public static void checkNotFiltered(Map<String, String> params, List<String> filters) {
+        for (var filter : filters) {
+            if (params.containsKey(filter)) {
+                throw new IllegalArgumentException("Fields cannot be combined with " + filter);
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package br.com.school.admin.utils.sharding;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.zip.CRC32;
+
+/**
+ * Decides which shard a person lives on and runs work against it. A row is placed by a
+ * stable hash of its CPF, so every CPF check touches one shard. Each shard hands out ids
+ * {@code shard + 1}, {@code shard + 1 + shards}, ... so an id alone tells its shard.
+ * The shard chosen for the current thread is read by {@link ShardRoutingDataSource}
+ * when a connection is first used.
+ */
+public class ShardRouter {
+
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private final int shards;
+    private final TransactionOperations transactions;
+    private final ExecutorService executor;
+
+    public ShardRouter(int shards, TransactionOperations transactions) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("There must be at least one shard");
+        }
+        this.shards = shards;
+        this.transactions = transactions;
+        var threadNumber = new AtomicInteger();
+        this.executor = shards == 1 ? null : Executors.newCachedThreadPool(runnable -> {
+            var thread = new Thread(runnable, "shard-gather-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * One shard and no transaction management of its own, for code that runs without
+     * a Spring context.
+     */
+    public static ShardRouter single() {
+        return new ShardRouter(1, TransactionOperations.withoutTransaction());
+    }
+
+    static Integer current() {
+        return CURRENT.get();
+    }
+
+    public int shards() {
+        return shards;
+    }
+
+    public int shardOfCpf(String cpf) {
+        if (shards == 1 || cpf == null) {
+            return 0;
+        }
+        var crc = new CRC32();
+        crc.update(cpf.getBytes(StandardCharsets.UTF_8));
+        return (int) (crc.getValue() % shards);
+    }
+
+    public int shardOfId(Long id) {
+        if (shards == 1 || id == null) {
+            return 0;
+        }
+        return (int) Math.floorMod(id - 1, (long) shards);
+    }
+
+    public <T> T on(int shard, Supplier<T> action) {
+        var previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    public void run(int shard, Runnable action) {
+        on(shard, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs the action in its own transaction on the shard. A transaction is bound to the
+     * first shard it touches, so work spanning shards needs one of these per shard.
+     */
+    public <T> T inTransaction(int shard, Supplier<T> action) {
+        return on(shard, () -> transactions.execute(status -> action.get()));
+    }
+
+    /**
+     * Runs the action on every shard at once and returns the results in shard order.
+     */
+    public <T> List<T> gather(IntFunction<T> action) {
+        if (shards == 1) {
+            return List.of(on(0, () -> action.apply(0)));
+        }
+        var calls = new ArrayList<CompletableFuture<T>>(shards);
+        for (int shard = 0; shard < shards; shard++) {
+            var target = shard;
+            calls.add(CompletableFuture.supplyAsync(() -> on(target, () -> action.apply(target)), executor));
+        }
+        var results = new ArrayList<T>(shards);
+        try {
+            for (var call : calls) {
+                results.add(call.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return results;
+    }
+
+    public static void checkPage(int page, int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    /**
+     * Returns one page of rows ordered by {@code sort}. Any shard may hold the whole page,
+     * so with several shards each one is asked for every row up to the end of the page and
+     * the sorted results are merged.
+     */
+    public <T> List<T> gatherPage(int page, int size, Sort sort, Comparator<? super T> order,
+                                  Function<Pageable, List<T>> query) {
+        checkPage(page, size);
+        if (shards == 1) {
+            return on(0, () -> query.apply(PageRequest.of(page, size, sort)));
+        }
+        var window = (int) Math.min((long) (page + 1) * size, Integer.MAX_VALUE);
+        return SortedMerge.merge(gather(shard -> query.apply(PageRequest.of(0, window, sort))),
+                order, (long) page * size, size);
+    }
+
+    public <K> Map<Integer, List<K>> partition(Collection<K> keys, ToIntFunction<K> shardOf) {
+        var partitions = new TreeMap<Integer, List<K>>();
+        for (var key : keys) {
+            partitions.computeIfAbsent(shardOf.applyAsInt(key), shard -> new ArrayList<>()).add(key);
+        }
+        return partitions;
+    }
+
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
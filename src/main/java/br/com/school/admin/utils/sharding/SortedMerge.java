@@ -0,0 +1,48 @@
+package br.com.school.admin.utils.sharding;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Merges lists that are each already sorted, as returned by the shards, into one sorted
+ * window without sorting everything again.
+ */
+public class SortedMerge {
+
+    private SortedMerge() {
+    }
+
+    public static <T> List<T> merge(List<List<T>> parts, Comparator<? super T> order) {
+        if (parts.size() == 1) {
+            return parts.get(0);
+        }
+        return merge(parts, order, 0, Integer.MAX_VALUE);
+    }
+
+    public static <T> List<T> merge(List<List<T>> parts, Comparator<? super T> order, long offset, int limit) {
+        var heads = new PriorityQueue<Head<T>>((a, b) -> order.compare(a.value(), b.value()));
+        for (var part : parts) {
+            var iterator = part.iterator();
+            if (iterator.hasNext()) {
+                heads.add(new Head<>(iterator.next(), iterator));
+            }
+        }
+        var merged = new ArrayList<T>();
+        for (long position = 0; !heads.isEmpty() && merged.size() < limit; position++) {
+            var head = heads.poll();
+            if (position >= offset) {
+                merged.add(head.value());
+            }
+            if (head.rest().hasNext()) {
+                heads.add(new Head<>(head.rest().next(), head.rest()));
+            }
+        }
+        return merged;
+    }
+
+    private record Head<T>(T value, Iterator<T> rest) {
+    }
+}
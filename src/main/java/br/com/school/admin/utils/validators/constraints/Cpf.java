@@ -0,0 +1,17 @@
+package br.com.school.admin.utils.validators.constraints;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The field, when present, must pass {@link br.com.school.admin.utils.validators.CpfDigits#isValid}.
+ * Combine with {@link Required} to reject missing values.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.FIELD)
+public @interface Cpf {
+
+    String message();
+}
@@ -0,0 +1,17 @@
+package br.com.school.admin.utils.validators.constraints;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The field must not be null, empty or blank. Read at build time by the validator
+ * processor, which generates a {@code <Type>Validator} next to the annotated class.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.FIELD)
+public @interface Required {
+
+    String message();
+}
@@ -0,0 +1,26 @@
+create table tb_students (
+    cd_student bigint generated by default as identity,
+    nm_student varchar(255) not null,
+    nr_cpf     varchar(255) not null,
+    constraint pk_students primary key (cd_student),
+    constraint uk_students_cpf unique (nr_cpf)
+);
+
+create table tb_teachers (
+    cd_teacher   bigint generated by default as identity,
+    nm_teacher   varchar(255) not null,
+    nr_cpf       varchar(255) not null,
+    ds_specialty varchar(255) not null,
+    constraint pk_teachers primary key (cd_teacher),
+    constraint uk_teachers_cpf unique (nr_cpf)
+);
+
+create table tb_directors (
+    cd_director bigint generated by default as identity,
+    nm_director varchar(255) not null,
+    nr_cpf      varchar(255) not null,
+    constraint pk_directors primary key (cd_director),
+    constraint uk_directors_cpf unique (nr_cpf)
+);
+
+create index ix_teachers_specialty on tb_teachers (ds_specialty);
@@ -0,0 +1,17 @@
+alter table tb_students add column dt_updated timestamp(6) with time zone default current_timestamp not null;
+alter table tb_teachers add column dt_updated timestamp(6) with time zone default current_timestamp not null;
+alter table tb_directors add column dt_updated timestamp(6) with time zone default current_timestamp not null;
+
+create index ix_students_updated on tb_students (dt_updated);
+create index ix_teachers_updated on tb_teachers (dt_updated);
+create index ix_directors_updated on tb_directors (dt_updated);
+
+create table tb_tombstones (
+    cd_tombstone bigint generated by default as identity,
+    ds_resource  varchar(32) not null,
+    cd_person    bigint not null,
+    dt_deleted   timestamp(6) with time zone not null,
+    constraint pk_tombstones primary key (cd_tombstone)
+);
+
+create index ix_tombstones_resource_deleted on tb_tombstones (ds_resource, dt_deleted);
@@ -0,0 +1,10 @@
+create table tb_change_log (
+    cd_change   bigint generated by default as identity,
+    ds_resource varchar(32) not null,
+    cd_person   bigint not null,
+    ds_origin   varchar(36) not null,
+    dt_changed  timestamp(6) with time zone not null,
+    constraint pk_change_log primary key (cd_change)
+);
+
+create index ix_change_log_changed on tb_change_log (dt_changed);
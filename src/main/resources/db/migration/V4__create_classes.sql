@@ -0,0 +1,19 @@
+create table tb_classes (
+    cd_class   bigint generated by default as identity,
+    nm_class   varchar(255) not null,
+    cd_teacher bigint not null,
+    constraint pk_classes primary key (cd_class),
+    constraint fk_classes_teacher foreign key (cd_teacher) references tb_teachers (cd_teacher) on delete cascade
+);
+
+create index ix_classes_teacher on tb_classes (cd_teacher, cd_class);
+
+create table tb_enrollments (
+    cd_class    bigint not null,
+    cd_student  bigint not null,
+    dt_enrolled timestamp(6) with time zone not null,
+    constraint pk_enrollments primary key (cd_class, cd_student),
+    constraint fk_enrollments_class foreign key (cd_class) references tb_classes (cd_class) on delete cascade
+);
+
+create index ix_enrollments_student on tb_enrollments (cd_student);
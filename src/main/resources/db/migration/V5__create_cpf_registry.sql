@@ -0,0 +1,20 @@
+create table tb_cpfs (
+    nr_cpf      varchar(255) not null,
+    ds_resource varchar(32) not null,
+    constraint pk_cpfs primary key (nr_cpf)
+);
+
+insert into tb_cpfs (nr_cpf, ds_resource)
+select nr_cpf, 'students' from tb_students;
+
+insert into tb_cpfs (nr_cpf, ds_resource)
+select t.nr_cpf, 'teachers' from tb_teachers t
+where not exists (select 1 from tb_cpfs c where c.nr_cpf = t.nr_cpf);
+
+insert into tb_cpfs (nr_cpf, ds_resource)
+select d.nr_cpf, 'directors' from tb_directors d
+where not exists (select 1 from tb_cpfs c where c.nr_cpf = d.nr_cpf);
+
+alter table tb_students add column nr_version bigint default 0 not null;
+alter table tb_teachers add column nr_version bigint default 0 not null;
+alter table tb_directors add column nr_version bigint default 0 not null;
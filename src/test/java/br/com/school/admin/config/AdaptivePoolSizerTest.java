@@ -0,0 +1,62 @@
+package br.com.school.admin.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+class AdaptivePoolSizerTest {
+
+    private AdaptivePoolSizer sizer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        var dataSource = mock(DataSource.class);
+        given(dataSource.unwrap(HikariDataSource.class)).willReturn(mock(HikariDataSource.class));
+        var properties = new AdaptivePoolProperties(true, 2, 20, Duration.ofMillis(20), Duration.ofSeconds(10));
+        sizer = new AdaptivePoolSizer(dataSource, new SimpleMeterRegistry(), properties);
+    }
+
+    /*
+    NEXT POOL SIZE
+    * 1 - Grows when threads are waiting for a connection
+    * 2 - Grows when acquire time is above target but never beyond max
+    * 3 - Shrinks when connections are idle but never below min
+    * 4 - Keeps size when the pool is healthy
+     */
+
+    @Test
+    @DisplayName("Should grow pool when threads are waiting for a connection")
+    void testGrowWhenThreadsArePending() {
+        assertEquals(10, sizer.nextPoolSize(8, 3, 0, 5));
+    }
+
+    @Test
+    @DisplayName("Should grow pool when acquire time is above target up to max")
+    void testGrowWhenAcquireIsSlowUpToMax() {
+        assertEquals(5, sizer.nextPoolSize(4, 0, 0, 50));
+        assertEquals(20, sizer.nextPoolSize(19, 0, 0, 50));
+        assertEquals(20, sizer.nextPoolSize(20, 0, 0, 50));
+    }
+
+    @Test
+    @DisplayName("Should shrink pool when connections are idle down to min")
+    void testShrinkWhenIdleDownToMin() {
+        assertEquals(9, sizer.nextPoolSize(10, 0, 8, 1));
+        assertEquals(2, sizer.nextPoolSize(2, 0, 2, 0));
+    }
+
+    @Test
+    @DisplayName("Should keep pool size when acquire time is within target")
+    void testKeepSizeWhenHealthy() {
+        assertEquals(10, sizer.nextPoolSize(10, 0, 2, 10));
+    }
+}
@@ -0,0 +1,62 @@
+package br.com.school.admin.config;
+
+import br.com.school.admin.utils.sharding.ShardRoutingDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AotConditionsCheckTest {
+
+    private final MockEnvironment environment = new MockEnvironment();
+    private final DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+
+    /*
+    AOT CONDITIONS
+    * 1 - Starts when the conditional beans match the runtime properties
+    ! 2 - Error when more shards are configured than the build was made for
+    ! 3 - Error when a backup restore is configured that the build left out
+     */
+
+    @Test
+    @DisplayName("Should start when the conditional beans match the runtime properties")
+    void testMatchingBuild() {
+        // given
+        environment.setProperty("school.sharding.shards", "3");
+        beanFactory.registerBeanDefinition("shardRoutingDataSource", new RootBeanDefinition(ShardRoutingDataSource.class));
+
+        // when + then
+        assertDoesNotThrow(() -> new AotConditionsCheck(environment, beanFactory).afterSingletonsInstantiated());
+    }
+
+    @Test
+    @DisplayName("Should return error when shards are configured for a build made with one")
+    void testShardsDifferFromBuild() {
+        // given
+        environment.setProperty("school.sharding.shards", "3");
+
+        // when
+        var currentException = assertThrows(IllegalStateException.class,
+                () -> new AotConditionsCheck(environment, beanFactory).afterSingletonsInstantiated());
+
+        // then
+        assertEquals("school.sharding.shards does not match the value the application was built with;"
+                + " rebuild it with the new value or set it back", currentException.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should return error when a backup restore is configured for a build made without one")
+    void testRestoreDiffersFromBuild() {
+        // given
+        environment.setProperty("school.backup.restore-from", "/backups/shard{shard}.sql.gz");
+
+        // when + then
+        assertThrows(IllegalStateException.class,
+                () -> new AotConditionsCheck(environment, beanFactory).afterSingletonsInstantiated());
+    }
+}
@@ -0,0 +1,140 @@
+package br.com.school.admin.config;
+
+import br.com.school.admin.services.BackupService;
+import br.com.school.admin.utils.sharding.ShardRouter;
+import br.com.school.admin.utils.sharding.ShardRoutingDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionOperations;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BackupRestoreCallbackTest {
+
+    @TempDir
+    Path dir;
+
+    private BackupProperties properties;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        var source = database();
+        Flyway.configure().dataSource(source).load().migrate();
+        execute(source, "insert into tb_students (nm_student, nr_cpf) values ('Joseph', '44007319014')");
+        var backup = new BackupService(source, new BackupProperties(dir, null), ShardRouter.single(), new SimpleMeterRegistry())
+                .backup(0);
+        properties = new BackupProperties(dir, backup);
+    }
+
+    private DataSource database() {
+        var dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        return dataSource;
+    }
+
+    private void execute(DataSource dataSource, String sql) throws SQLException {
+        try (var connection = dataSource.getConnection(); var statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private long countStudents(DataSource dataSource) throws SQLException {
+        try (var connection = dataSource.getConnection(); var statement = connection.createStatement();
+             var result = statement.executeQuery("select count(*) from tb_students")) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+
+    /*
+    RESTORE BACKUP
+    * 1 - Empty database is restored and no migration is applied again
+    * 2 - Already migrated database is left untouched
+    * 3 - Each shard is restored from its own backup
+    ! 4 - Error when several shards would share one backup
+     */
+
+    @Test
+    @DisplayName("Should restore backup into an empty database before migrating")
+    void testRestoreIntoEmptyDatabase() throws SQLException {
+        // given
+        var target = database();
+
+        // when
+        var result = Flyway.configure().dataSource(target).callbacks(new BackupRestoreCallback(properties.restoreFrom())).load().migrate();
+
+        // then
+        assertEquals(0, result.migrationsExecuted);
+        assertEquals(1, countStudents(target));
+        execute(target, "insert into tb_students (nm_student, nr_cpf) values ('Harry', '47455321058')");
+        assertEquals(2, countStudents(target));
+    }
+
+    @Test
+    @DisplayName("Should not restore backup into an already migrated database")
+    void testSkipRestoreIntoMigratedDatabase() throws SQLException {
+        // given
+        var target = database();
+        Flyway.configure().dataSource(target).load().migrate();
+
+        // when
+        Flyway.configure().dataSource(target).callbacks(new BackupRestoreCallback(properties.restoreFrom())).load().migrate();
+
+        // then
+        assertEquals(0, countStudents(target));
+    }
+
+    @Test
+    @DisplayName("Should restore each shard from its own backup")
+    void testRestoreEveryShard() throws Exception {
+        // given
+        var sources = List.of(database(), database());
+        for (var source : sources) {
+            Flyway.configure().dataSource(source).load().migrate();
+        }
+        execute(sources.get(1), "insert into tb_students (nm_student, nr_cpf) values ('Harry', '47455321058')");
+        execute(sources.get(1), "insert into tb_students (nm_student, nr_cpf) values ('Mary', '52998224725')");
+        var backupService = new BackupService(new ShardRoutingDataSource(sources), properties,
+                new ShardRouter(2, TransactionOperations.withoutTransaction()), new SimpleMeterRegistry());
+        for (int shard = 0; shard < 2; shard++) {
+            Files.move(backupService.backup(shard), dir.resolve("shard" + shard + ".sql.gz"));
+        }
+        var sharded = new BackupProperties(dir, dir.resolve("shard{shard}.sql.gz"));
+        var targets = List.of(database(), database());
+
+        // when
+        var flyway = Flyway.configure().dataSource(targets.get(0))
+                .callbacks(new BackupRestoreCallback(sharded.restoreFromOf(0, 2))).load();
+        flyway.migrate();
+        new ShardMigrations(flyway, targets, sharded).afterPropertiesSet();
+
+        // then
+        assertEquals(0, countStudents(targets.get(0)));
+        assertEquals(2, countStudents(targets.get(1)));
+    }
+
+    @Test
+    @DisplayName("Should return error when several shards would be restored from one backup")
+    void testErrorWhenShardsShareOneBackup() {
+        // when
+        var currentException = assertThrows(IllegalArgumentException.class, () -> properties.restoreFromOf(1, 2));
+
+        // then
+        assertEquals("school.backup.restore-from must contain {shard} when there is more than one shard",
+                currentException.getMessage());
+    }
+}
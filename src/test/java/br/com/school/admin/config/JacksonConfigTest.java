@@ -0,0 +1,61 @@
+package br.com.school.admin.config;
+
+import br.com.school.admin.models.Director;
+import br.com.school.admin.models.Student;
+import br.com.school.admin.models.Teacher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class JacksonConfigTest {
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    private final ObjectMapper reflectiveMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    @DisplayName("Should register blackbird module in application object mapper")
+    void testBlackbirdIsRegistered() {
+        assertTrue(objectMapper.getRegisteredModuleIds().contains(new BlackbirdModule().getTypeId()));
+    }
+
+    @Test
+    @DisplayName("Should serialize people byte for byte like the reflective mapper")
+    void testSerializationIsUnchanged() throws Exception {
+        // given
+        var student = new Student("Joseph", "74539808010");
+        student.setId(1L);
+        var teacher = new Teacher("John", "40082430039", "Math");
+        teacher.setId(2L);
+        var director = new Director("Mary", null);
+
+        // when + then
+        for (var payload : List.of(student, teacher, director, List.of(student, student))) {
+            assertEquals(reflectiveMapper.writeValueAsString(payload), objectMapper.writeValueAsString(payload));
+        }
+    }
+
+    @Test
+    @DisplayName("Should deserialize people like the reflective mapper")
+    void testDeserializationIsUnchanged() throws Exception {
+        // given
+        var json = "{\"id\":3,\"name\":\"John\",\"cpf\":\"40082430039\",\"specialty\":\"Math\"}";
+
+        // when
+        var teacher = objectMapper.readValue(json, Teacher.class);
+
+        // then
+        assertEquals(json, reflectiveMapper.writeValueAsString(teacher));
+    }
+}
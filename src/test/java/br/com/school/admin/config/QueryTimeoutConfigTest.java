@@ -0,0 +1,106 @@
+package br.com.school.admin.config;
+
+import br.com.school.admin.factories.StudentFactory;
+import br.com.school.admin.models.Student;
+import br.com.school.admin.repositories.StudentCrudRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PessimisticLockException;
+import jakarta.persistence.QueryTimeoutException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+@SpringBootTest(properties = {
+        "school.datasource.query-timeout=1s",
+        "spring.datasource.url=jdbc:h2:mem:query-timeout-${random.uuid};DB_CLOSE_ON_EXIT=FALSE;LOCK_TIMEOUT=60000"})
+@DirtiesContext
+class QueryTimeoutConfigTest {
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    StudentCrudRepository studentRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    /*
+    QUERY TIMEOUT
+    ! 1 - Queries running past the timeout are cancelled
+    * 2 - Queries within the timeout are not affected
+    ! 3 - Statements run outside of JPA queries past the timeout are cancelled
+    ! 4 - Flushed updates blocked on a row lock past the timeout fail
+     */
+
+    @Test
+    @DisplayName("Should cancel queries running past the timeout")
+    void testSlowQueryIsCancelled() {
+        // given
+        var query = entityManager.createNativeQuery(
+                "select count(*) from system_range(1, 1000000) a, system_range(1, 1000000) b");
+
+        // when + then
+        assertTimeoutPreemptively(Duration.ofSeconds(30),
+                () -> assertThrows(QueryTimeoutException.class, query::getSingleResult));
+    }
+
+    @Test
+    @DisplayName("Should not affect queries within the timeout")
+    void testFastQueryRuns() {
+        // when
+        var result = entityManager.createNativeQuery("select count(*) from system_range(1, 1000)").getSingleResult();
+
+        // then
+        assertEquals(1000L, ((Number) result).longValue());
+    }
+
+    @Test
+    @DisplayName("Should cancel statements run outside of JPA queries past the timeout")
+    void testSlowStatementIsCancelled() {
+        // when + then
+        assertTimeoutPreemptively(Duration.ofSeconds(30), () -> assertThrows(
+                org.springframework.dao.QueryTimeoutException.class, () -> jdbcTemplate.queryForObject(
+                        "select count(*) from system_range(1, 1000000) a, system_range(1, 1000000) b", Long.class)));
+    }
+
+    @Test
+    @DisplayName("Should fail flushed updates blocked on a row lock past the timeout")
+    void testBlockedUpdateFails() throws Exception {
+        // given
+        var id = studentRepository.save(StudentFactory.createStudent()).getId();
+
+        try (var blocker = dataSource.getConnection()) {
+            blocker.setAutoCommit(false);
+            try (var lock = blocker.prepareStatement("select * from tb_students where cd_student = ? for update")) {
+                lock.setLong(1, id);
+                lock.executeQuery().close();
+            }
+
+            // when + then
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () -> assertThrows(PessimisticLockException.class,
+                    () -> transactionTemplate.executeWithoutResult(status -> {
+                        entityManager.find(Student.class, id).setName("Blocked");
+                        entityManager.flush();
+                    })));
+            blocker.rollback();
+        }
+    }
+}
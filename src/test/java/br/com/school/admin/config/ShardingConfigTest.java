@@ -0,0 +1,336 @@
+package br.com.school.admin.config;
+
+import br.com.school.admin.dtos.OperationDto;
+import br.com.school.admin.factories.CpfFactory;
+import br.com.school.admin.models.Student;
+import br.com.school.admin.models.Teacher;
+import br.com.school.admin.services.WriteBehindService;
+import br.com.school.admin.utils.sharding.ShardRouter;
+import br.com.school.admin.utils.sharding.ShardRoutingDataSource;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+        "school.sharding.shards=3",
+        "school.sharding.url=jdbc:h2:mem:shard-${random.uuid}-{shard};DB_CLOSE_ON_EXIT=FALSE"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class ShardingConfigTest {
+
+    private static final String STUDENT_PATH = "/students";
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    ShardRouter shardRouter;
+
+    @Autowired
+    ShardRoutingDataSource shardRoutingDataSource;
+
+    @Autowired
+    WriteBehindService writeBehindService;
+
+    private Student createStudent(String name, String cpf) throws Exception {
+        var response = mockMvc.perform(post(STUDENT_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new Student(name, cpf))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(response, Student.class);
+    }
+
+    private List<Student> createStudents(int count) throws Exception {
+        var students = new ArrayList<Student>();
+        for (var cpf : CpfFactory.validCpfs(count)) {
+            students.add(createStudent("Student " + cpf, cpf));
+        }
+        return students;
+    }
+
+    private OperationDto awaitOperation(String location) throws Exception {
+        for (int i = 0; i < 250; i++) {
+            var operation = objectMapper.readValue(mockMvc.perform(get(location))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString(), OperationDto.class);
+            if (operation.status() != OperationDto.Status.PENDING) {
+                return operation;
+            }
+            TimeUnit.MILLISECONDS.sleep(20);
+        }
+        throw new AssertionError("Operation did not complete");
+    }
+
+    private long countStudents(int shard, Long id) {
+        return new JdbcTemplate(shardRoutingDataSource.shards().get(shard))
+                .queryForObject("select count(*) from tb_students where cd_student = ?", Long.class, id);
+    }
+
+    /*
+    SHARD PLACEMENT
+    * 1 - Each person is stored only on the shard of its CPF, with an id that encodes it
+    ! 2 - Error when the CPF is already used by another resource
+    ! 3 - Error when the CPF would move the person to another shard
+    ! 4 - Error when a patch would move the person to another shard, leaving it unchanged
+    * 5 - The CPF can be changed to another one of the same shard
+    * 6 - Asynchronous saves queued together are stored on the shard of their CPF
+     */
+
+    @Test
+    @DisplayName("Should store each person only on the shard of its cpf with an id of that shard")
+    void shouldStorePersonOnTheShardOfItsCpf() throws Exception {
+        // when
+        var students = createStudents(12);
+
+        // then
+        var usedShards = new HashSet<Integer>();
+        for (var student : students) {
+            var shard = shardRouter.shardOfCpf(student.getCpf());
+            usedShards.add(shard);
+            assertEquals(shard, shardRouter.shardOfId(student.getId()));
+            for (int other = 0; other < shardRouter.shards(); other++) {
+                assertEquals(other == shard ? 1 : 0, countStudents(other, student.getId()));
+            }
+        }
+        assertEquals(3, usedShards.size());
+    }
+
+    @Test
+    @DisplayName("Should return error when cpf is already used by a person of another resource")
+    void shouldReturnErrorWhenCpfIsUsedByAnotherResource() throws Exception {
+        // given
+        var student = createStudents(1).get(0);
+
+        // when
+        var request = post("/teachers")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new Teacher("Walter", student.getCpf(), "Chemistry")));
+
+        // then
+        mockMvc.perform(request)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("CPF already exists"));
+    }
+
+    @Test
+    @DisplayName("Should return error when the new cpf belongs to another shard")
+    void shouldReturnErrorWhenCpfBelongsToAnotherShard() throws Exception {
+        // given
+        var cpfs = CpfFactory.validCpfs(12);
+        var student = createStudent("Joseph", cpfs.get(0));
+        var otherShardCpf = cpfs.stream()
+                .filter(cpf -> shardRouter.shardOfCpf(cpf) != shardRouter.shardOfCpf(student.getCpf()))
+                .findFirst().orElseThrow();
+
+        // when
+        var request = put(STUDENT_PATH + "/" + student.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new Student("Joseph", otherShardCpf)));
+
+        // then
+        mockMvc.perform(request)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("CPF cannot be changed to one kept on another shard"));
+    }
+
+    @Test
+    @DisplayName("Should return error and keep the person when a patch moves its cpf to another shard")
+    void shouldReturnErrorWhenPatchedCpfBelongsToAnotherShard() throws Exception {
+        // given
+        var cpfs = CpfFactory.validCpfs(12);
+        var student = createStudent("Joseph", cpfs.get(0));
+        var otherShardCpf = cpfs.stream()
+                .filter(cpf -> shardRouter.shardOfCpf(cpf) != shardRouter.shardOfCpf(student.getCpf()))
+                .findFirst().orElseThrow();
+
+        // when
+        var request = patch(STUDENT_PATH + "/" + student.getId())
+                .contentType("application/merge-patch+json")
+                .content(objectMapper.writeValueAsString(Map.of("cpf", otherShardCpf)));
+
+        // then
+        mockMvc.perform(request)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("CPF cannot be changed to one kept on another shard"));
+        mockMvc.perform(get(STUDENT_PATH + "/" + student.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cpf").value(student.getCpf()));
+        mockMvc.perform(post(STUDENT_PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new Student("Mary", otherShardCpf))))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    @DisplayName("Should change the cpf to another one kept on the same shard")
+    void shouldChangeCpfWithinItsShard() throws Exception {
+        // given
+        var cpfs = CpfFactory.validCpfs(12);
+        var student = createStudent("Joseph", cpfs.get(0));
+        var sameShardCpf = cpfs.stream().skip(1)
+                .filter(cpf -> shardRouter.shardOfCpf(cpf) == shardRouter.shardOfCpf(student.getCpf()))
+                .findFirst().orElseThrow();
+
+        // when
+        var request = put(STUDENT_PATH + "/" + student.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new Student("Joseph", sameShardCpf)));
+
+        // then
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(student.getId()))
+                .andExpect(jsonPath("$.cpf").value(sameShardCpf));
+    }
+
+    @Test
+    @DisplayName("Should store people saved asynchronously together on the shard of their cpf")
+    void shouldStoreAsyncSavesOnTheShardOfTheirCpf() throws Exception {
+        // given
+        var cpfs = CpfFactory.validCpfs(12);
+        var locations = new ArrayList<String>();
+        var release = new CountDownLatch(1);
+        writeBehindService.submit("students", 0, () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        });
+
+        // when
+        for (var cpf : cpfs) {
+            locations.add(mockMvc.perform(post(STUDENT_PATH)
+                            .header("Prefer", "respond-async")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new Student("Student " + cpf, cpf))))
+                    .andExpect(status().isAccepted())
+                    .andReturn().getResponse().getHeader("Location"));
+        }
+        release.countDown();
+
+        // then
+        var usedShards = new HashSet<Integer>();
+        for (int i = 0; i < cpfs.size(); i++) {
+            var operation = awaitOperation(locations.get(i));
+            assertEquals(OperationDto.Status.DONE, operation.status(), operation.message());
+            var shard = shardRouter.shardOfCpf(cpfs.get(i));
+            usedShards.add(shard);
+            assertEquals(shard, shardRouter.shardOfId(operation.resourceId()));
+            for (int other = 0; other < shardRouter.shards(); other++) {
+                assertEquals(other == shard ? 1 : 0, countStudents(other, operation.resourceId()));
+            }
+        }
+        assertEquals(3, usedShards.size());
+    }
+
+    /*
+    SCATTER GATHER
+    * 1 - Listing and paging merge every shard in id order
+    * 2 - Single people are found, updated and deleted on their own shard
+    * 3 - Bulk delete reaches every shard
+     */
+
+    @Test
+    @DisplayName("Should list and page people from every shard in id order")
+    void shouldListAndPageAcrossShards() throws Exception {
+        // given
+        var ids = createStudents(10).stream().map(Student::getId).sorted().toList();
+
+        // when
+        var all = objectMapper.readValue(mockMvc.perform(get(STUDENT_PATH))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(), Student[].class);
+        var pages = new ArrayList<Long>();
+        for (int page = 0; page < 4; page++) {
+            var content = mockMvc.perform(get(STUDENT_PATH).param("page", String.valueOf(page)).param("size", "3"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            for (var student : objectMapper.readValue(content, Student[].class)) {
+                pages.add(student.getId());
+            }
+        }
+
+        // then
+        assertEquals(ids, List.of(all).stream().map(Student::getId).toList());
+        assertEquals(ids, pages);
+    }
+
+    @Test
+    @DisplayName("Should find, update and delete a person on its own shard")
+    void shouldFindUpdateAndDeleteOnOwnShard() throws Exception {
+        // given
+        var students = createStudents(6);
+
+        for (var student : students) {
+            // when + then
+            mockMvc.perform(get(STUDENT_PATH + "/" + student.getId()))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.cpf").value(student.getCpf()));
+            mockMvc.perform(put(STUDENT_PATH + "/" + student.getId())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new Student("Renamed", student.getCpf()))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.name").value("Renamed"));
+            mockMvc.perform(delete(STUDENT_PATH + "/" + student.getId()))
+                    .andExpect(status().isNoContent());
+            mockMvc.perform(get(STUDENT_PATH + "/" + student.getId()))
+                    .andExpect(status().isNotFound());
+        }
+        mockMvc.perform(get(STUDENT_PATH).param("since", "2000-01-01T00:00:00Z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted.length()").value(6));
+    }
+
+    @Test
+    @DisplayName("Should delete matching people on every shard in bulk")
+    void shouldBulkDeleteOnEveryShard() throws Exception {
+        // given
+        var students = createStudents(9);
+        var ids = students.stream().map(Student::getId).toList();
+        assertNotEquals(1, students.stream().map(s -> shardRouter.shardOfId(s.getId())).distinct().count());
+
+        // when
+        var request = delete(STUDENT_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("ids", ids)));
+
+        // then
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(9));
+        mockMvc.perform(get(STUDENT_PATH))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+}
@@ -0,0 +1,381 @@
+package br.com.school.admin.controllers;
+
+import br.com.school.admin.config.SqlCapture;
+import br.com.school.admin.factories.TeacherFactory;
+import br.com.school.admin.models.Enrollment;
+import br.com.school.admin.models.SchoolClass;
+import br.com.school.admin.models.Student;
+import br.com.school.admin.models.Teacher;
+import br.com.school.admin.repositories.EnrollmentRepository;
+import br.com.school.admin.repositories.SchoolClassRepository;
+import br.com.school.admin.repositories.StudentCrudRepository;
+import br.com.school.admin.repositories.TeacherCrudRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=br.com.school.admin.config.SqlCapture")
+@Transactional
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class ClassControllerTest {
+
+    private static final String CLASS_PATH = "/classes";
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    TeacherCrudRepository teacherRepository;
+
+    @Autowired
+    StudentCrudRepository studentRepository;
+
+    @Autowired
+    SchoolClassRepository classRepository;
+
+    @Autowired
+    EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    private final Long nonExistentId = 999L;
+
+    private Teacher generateTeacher() {
+        return teacherRepository.save(TeacherFactory.createTeacher());
+    }
+
+    private SchoolClass generateClass(Teacher teacher, String name) {
+        var schoolClass = new SchoolClass(name, teacher.getId());
+        schoolClass.setTeacher(teacher);
+        return classRepository.save(schoolClass);
+    }
+
+    private List<Student> generateEnrolledStudents(SchoolClass schoolClass, int count) {
+        var students = new ArrayList<Student>(count);
+        for (int i = 0; i < count; i++) {
+            var student = studentRepository.save(new Student("Student " + i, String.format("%011d", 10_000_000_000L + i)));
+            enrollmentRepository.save(new Enrollment(schoolClass.getId(), student.getId(), Instant.now()));
+            students.add(student);
+        }
+        return students;
+    }
+
+    private void startCounting() {
+        entityManager.flush();
+        entityManager.clear();
+        SqlCapture.clear();
+    }
+
+    // the near-cache poller reads tb_change_log on its own schedule
+    private long selectCount() {
+        return SqlCapture.statements().stream()
+                .map(sql -> sql.toLowerCase(Locale.ROOT))
+                .filter(sql -> sql.startsWith("select") && !sql.contains("tb_change_log"))
+                .count();
+    }
+
+    /*
+    CREATE CLASS
+    1 - Error when try to create class without name or teacher
+    2 - Error when try to create class for a non-existent teacher
+    3 - Success when try to create a valid class
+     */
+
+    @Test
+    @DisplayName("Should return error when try to create class without name or teacher")
+    void shouldReturnErrorWhenTryToCreateClassWithoutNameOrTeacher() throws Exception {
+        // given
+        var teacher = generateTeacher();
+
+        // when
+        var emptyNameRequest = post(CLASS_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new SchoolClass("", teacher.getId())));
+
+        var emptyTeacherRequest = post(CLASS_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new SchoolClass("Math", null)));
+
+        // then
+        mockMvc.perform(emptyNameRequest)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Name is required"));
+
+        mockMvc.perform(emptyTeacherRequest)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Teacher is required"));
+    }
+
+    @Test
+    @DisplayName("Should return error when try to create class for a non-existent teacher")
+    void shouldReturnErrorWhenTryToCreateClassForNonExistentTeacher() throws Exception {
+        // when
+        var classRequest = post(CLASS_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new SchoolClass("Math", nonExistentId)));
+
+        // then
+        mockMvc.perform(classRequest)
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Teacher not found"));
+    }
+
+    @Test
+    @DisplayName("Should return success when try to create a valid class")
+    void shouldReturnSuccessWhenTryToCreateValidClass() throws Exception {
+        // given
+        var teacher = generateTeacher();
+
+        // when
+        var classRequest = post(CLASS_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new SchoolClass("Math", teacher.getId())));
+
+        // then
+        mockMvc.perform(classRequest)
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.name").value("Math"))
+                .andExpect(jsonPath("$.teacher.id").value(teacher.getId()))
+                .andExpect(jsonPath("$.students").value(0));
+    }
+
+    /*
+    ENROLLMENTS
+    1 - Enrolling is idempotent and counted on the class
+    2 - Error when try to enroll a non-existent student or into a non-existent class
+    3 - Unenrolling removes the student from the roster
+     */
+
+    @Test
+    @DisplayName("Should enroll a student only once")
+    void shouldEnrollStudentOnlyOnce() throws Exception {
+        // given
+        var schoolClass = generateClass(generateTeacher(), "Math");
+        var student = studentRepository.save(new Student("Ana", "52998224725"));
+
+        // when
+        var enrollRequest = put(CLASS_PATH + "/{id}/students/{studentId}", schoolClass.getId(), student.getId());
+
+        // then
+        mockMvc.perform(enrollRequest).andExpect(status().isNoContent());
+        mockMvc.perform(enrollRequest).andExpect(status().isNoContent());
+        mockMvc.perform(get(CLASS_PATH + "/{id}", schoolClass.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.students").value(1));
+    }
+
+    @Test
+    @DisplayName("Should return error when try to enroll a non-existent student or into a non-existent class")
+    void shouldReturnErrorWhenTryToEnrollNonExistentStudentOrClass() throws Exception {
+        // given
+        var schoolClass = generateClass(generateTeacher(), "Math");
+        var student = studentRepository.save(new Student("Ana", "52998224725"));
+
+        // then
+        mockMvc.perform(put(CLASS_PATH + "/{id}/students/{studentId}", schoolClass.getId(), nonExistentId))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Student not found"));
+
+        mockMvc.perform(put(CLASS_PATH + "/{id}/students/{studentId}", nonExistentId, student.getId()))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Class not found"));
+    }
+
+    @Test
+    @DisplayName("Should remove a student from the roster when unenrolled")
+    void shouldRemoveStudentFromRosterWhenUnenrolled() throws Exception {
+        // given
+        var schoolClass = generateClass(generateTeacher(), "Math");
+        var students = generateEnrolledStudents(schoolClass, 2);
+
+        // when
+        mockMvc.perform(delete(CLASS_PATH + "/{id}/students/{studentId}", schoolClass.getId(), students.get(0).getId()))
+                .andExpect(status().isNoContent());
+
+        // then
+        mockMvc.perform(get(CLASS_PATH + "/{id}/students", schoolClass.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].id").value(students.get(1).getId()));
+    }
+
+    /*
+    ROSTERS
+    1 - Class roster is loaded in a constant number of queries
+    2 - Class roster is paginated by keyset
+    3 - Class roster keeps paging past enrollments of missing students
+    4 - Teacher classes are loaded in a constant number of queries
+    5 - Error when try to read the roster of a non-existent class or teacher
+     */
+
+    @Test
+    @DisplayName("Should load the class roster in a constant number of queries")
+    void shouldLoadClassRosterInConstantNumberOfQueries() throws Exception {
+        // given
+        var schoolClass = generateClass(generateTeacher(), "Math");
+        generateEnrolledStudents(schoolClass, 30);
+        startCounting();
+
+        // when
+        mockMvc.perform(get(CLASS_PATH + "/{id}/students", schoolClass.getId()).param("size", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(30)))
+                .andExpect(jsonPath("$.next").value(nullValue()));
+
+        // then
+        assertEquals(2, selectCount());
+    }
+
+    @Test
+    @DisplayName("Should page the class roster by keyset")
+    void shouldPageClassRosterByKeyset() throws Exception {
+        // given
+        var schoolClass = generateClass(generateTeacher(), "Math");
+        var students = generateEnrolledStudents(schoolClass, 5);
+
+        // then
+        mockMvc.perform(get(CLASS_PATH + "/{id}/students", schoolClass.getId()).param("size", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(3)))
+                .andExpect(jsonPath("$.items[0].id").value(students.get(0).getId()))
+                .andExpect(jsonPath("$.next").value(students.get(2).getId()));
+
+        mockMvc.perform(get(CLASS_PATH + "/{id}/students", schoolClass.getId())
+                        .param("after", students.get(2).getId().toString())
+                        .param("size", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].id").value(students.get(3).getId()))
+                .andExpect(jsonPath("$.next").value(nullValue()));
+    }
+
+    @Test
+    @DisplayName("Should keep paging the class roster past enrollments of missing students")
+    void shouldKeepPagingClassRosterPastMissingStudents() throws Exception {
+        // given
+        var schoolClass = generateClass(generateTeacher(), "Math");
+        var students = generateEnrolledStudents(schoolClass, 4);
+        studentRepository.delete(students.get(1));
+
+        // then
+        mockMvc.perform(get(CLASS_PATH + "/{id}/students", schoolClass.getId()).param("size", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.next").value(students.get(2).getId()));
+
+        mockMvc.perform(get(CLASS_PATH + "/{id}/students", schoolClass.getId())
+                        .param("after", students.get(2).getId().toString())
+                        .param("size", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(students.get(3).getId()))
+                .andExpect(jsonPath("$.next").value(nullValue()));
+    }
+
+    @Test
+    @DisplayName("Should load the classes of a teacher in a constant number of queries")
+    void shouldLoadTeacherClassesInConstantNumberOfQueries() throws Exception {
+        // given
+        var teacher = generateTeacher();
+        for (int i = 0; i < 10; i++) {
+            generateEnrolledStudents(generateClass(teacher, "Class " + i), 0);
+        }
+        var math = generateClass(teacher, "Math");
+        generateEnrolledStudents(math, 3);
+        startCounting();
+
+        // when
+        mockMvc.perform(get("/teachers/{id}/classes", teacher.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(11)))
+                .andExpect(jsonPath("$.items[10].name").value("Math"))
+                .andExpect(jsonPath("$.items[10].teacher.name").value(teacher.getName()))
+                .andExpect(jsonPath("$.items[10].students").value(3));
+
+        // then
+        assertEquals(2, selectCount());
+        assertTrue(SqlCapture.statements().stream().noneMatch(sql -> sql.toLowerCase(Locale.ROOT).startsWith("update")));
+    }
+
+    @Test
+    @DisplayName("Should return error when try to read the roster of a non-existent class or teacher")
+    void shouldReturnErrorWhenTryToReadRosterOfNonExistentClassOrTeacher() throws Exception {
+        mockMvc.perform(get(CLASS_PATH + "/{id}/students", nonExistentId))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Class not found"));
+
+        mockMvc.perform(get("/teachers/{id}/classes", nonExistentId))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Teacher not found"));
+    }
+
+    /*
+    DELETE CLASS
+    1 - Deleting a student drops its enrollments
+    2 - Success when try to delete a class
+     */
+
+    @Test
+    @DisplayName("Should drop enrollments when the student is deleted")
+    @Transactional(Transactional.TxType.NOT_SUPPORTED) // enrollments are dropped after the delete commits
+    void shouldDropEnrollmentsWhenStudentIsDeleted() throws Exception {
+        // given
+        var schoolClass = generateClass(generateTeacher(), "Math");
+        var students = generateEnrolledStudents(schoolClass, 2);
+
+        // when
+        mockMvc.perform(delete("/students/{id}", students.get(0).getId()))
+                .andExpect(status().isNoContent());
+
+        // then
+        mockMvc.perform(get(CLASS_PATH + "/{id}", schoolClass.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.students").value(1));
+    }
+
+    @Test
+    @DisplayName("Should return success when try to delete a class")
+    void shouldReturnSuccessWhenTryToDeleteClass() throws Exception {
+        // given
+        var schoolClass = generateClass(generateTeacher(), "Math");
+        generateEnrolledStudents(schoolClass, 2);
+        entityManager.flush();
+
+        // when
+        mockMvc.perform(delete(CLASS_PATH + "/{id}", schoolClass.getId()))
+                .andExpect(status().isNoContent());
+
+        // then
+        mockMvc.perform(get(CLASS_PATH + "/{id}", schoolClass.getId()))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Class not found"));
+    }
+}
@@ -354,4 +354,30 @@ class DirectorControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$").isEmpty());
     }
+
+    /*
+    FIELDS WITH FILTERS
+    1 - Error when try to select fields while filtering by cpf or since, with or without a page
+     */
+
+    @Test
+    @DisplayName("Should return error when try to select fields while filtering directors")
+    void shouldReturnErrorWhenTrySelectFieldsWhileFilteringDirectors() throws Exception {
+        // given
+        var director = generateSingleData();
+
+        // then
+        mockMvc.perform(get(DIRECTOR_PATH).param("cpf", director.getCpf()).param("fields", "id,name"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Fields cannot be combined with cpf"));
+
+        mockMvc.perform(get(DIRECTOR_PATH).param("since", "2020-01-01T00:00:00Z").param("fields", "id,name"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Fields cannot be combined with since"));
+
+        mockMvc.perform(get(DIRECTOR_PATH).param("page", "0").param("size", "10").param("cpf", director.getCpf())
+                        .param("fields", "id,name"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Fields cannot be combined with cpf"));
+    }
 }
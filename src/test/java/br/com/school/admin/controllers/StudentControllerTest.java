@@ -3,7 +3,12 @@ package br.com.school.admin.controllers;
 import br.com.school.admin.factories.StudentFactory;
 import br.com.school.admin.models.Student;
 import br.com.school.admin.repositories.StudentCrudRepository;
+import br.com.school.admin.services.CountService;
+import br.com.school.admin.exceptions.ErrorDto;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import jakarta.transaction.Transactional;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -14,10 +19,21 @@ import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -35,9 +51,15 @@ class StudentControllerTest {
     @Autowired
     StudentCrudRepository studentRepository;
 
+    @Autowired
+    CountService countService;
+
     @Autowired
     ObjectMapper objectMapper;
 
+    private final CBORMapper cborMapper = new CBORMapper();
+    private final SmileMapper smileMapper = new SmileMapper();
+
     private final Long nonExistentId = 999L;
     private final Long existentId = 1L;
 
@@ -354,4 +376,482 @@ class StudentControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$").isEmpty());
     }
-}
\ No newline at end of file
+
+    /*
+    BINARY FORMATS
+    1 - Success when try to get all students as cbor
+    2 - Success when try to create a student sent as smile
+    3 - Error returned as cbor when cbor is accepted
+     */
+
+    @Test
+    @DisplayName("Should return students encoded as cbor when cbor is accepted")
+    void shouldReturnStudentsAsCborWhenCborIsAccepted() throws Exception {
+        // given
+        generateMultipleData();
+
+        // when
+        var studentRequest = get(STUDENT_PATH).accept(MediaType.APPLICATION_CBOR);
+
+        // then
+        var body = mockMvc.perform(studentRequest)
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        var students = cborMapper.readValue(body, new TypeReference<List<Student>>() {
+        });
+        assertEquals(2, students.size());
+        assertEquals("74539808010", students.get(0).getCpf());
+        assertEquals("John", students.get(1).getName());
+    }
+
+    @Test
+    @DisplayName("Should create student sent as smile and answer in smile")
+    void shouldCreateStudentSentAsSmile() throws Exception {
+        // given
+        var student = StudentFactory.createStudent();
+        var smile = MediaType.valueOf("application/x-jackson-smile");
+
+        // when
+        var studentRequest = post(STUDENT_PATH)
+                .contentType(smile)
+                .accept(smile)
+                .content(smileMapper.writeValueAsBytes(student));
+
+        // then
+        var body = mockMvc.perform(studentRequest)
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsByteArray();
+        var created = smileMapper.readValue(body, Student.class);
+        assertEquals(student.getName(), created.getName());
+        assertEquals(student.getCpf(), created.getCpf());
+    }
+
+    @Test
+    @DisplayName("Should return error encoded as cbor when cbor is accepted")
+    void shouldReturnErrorAsCborWhenCborIsAccepted() throws Exception {
+        // when
+        var studentRequest = get(STUDENT_PATH + "/{id}", nonExistentId).accept(MediaType.APPLICATION_CBOR);
+
+        // then
+        var body = mockMvc.perform(studentRequest)
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals(new ErrorDto("Student not found", "404"), cborMapper.readValue(body, ErrorDto.class));
+    }
+
+    /*
+    ASYNC WRITES
+    1 - Error when try to create student asynchronously with invalid cpf
+    2 - Accepted when try to create a valid student asynchronously
+     */
+
+    @Test
+    @DisplayName("Should return error when try to create student asynchronously with invalid cpf")
+    void shouldReturnErrorWhenTryToCreateStudentAsynchronouslyWithInvalidCpf() throws Exception {
+        // given
+        var studentInvalidCpf = StudentFactory.createStudentWithInvalidCpf();
+
+        // when
+        var studentRequest = post(STUDENT_PATH)
+                .header("Prefer", "respond-async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(studentInvalidCpf));
+
+        // then
+        mockMvc.perform(studentRequest)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("CPF is invalid"));
+    }
+
+    @Test
+    @DisplayName("Should return accepted when try to create a valid student asynchronously")
+    void shouldReturnAcceptedWhenTryToCreateAValidStudentAsynchronously() throws Exception {
+        // given
+        var student = StudentFactory.createStudent();
+
+        // when
+        var studentRequest = post(STUDENT_PATH)
+                .header("Prefer", "respond-async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(student));
+
+        // then
+        var location = mockMvc.perform(studentRequest)
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.resource").value("students"))
+                .andExpect(jsonPath("$.status").value("PENDING"))
+                .andReturn().getResponse().getHeader("Location");
+        mockMvc.perform(get(location))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.resource").value("students"));
+    }
+
+    /*
+    IDEMPOTENT WRITES
+    1 - Replayed response when try to create a student twice with the same idempotency key
+    ! 2 - Error when the idempotency key is reused with a different body
+    3 - Success when two clients happen to use the same idempotency key
+     */
+
+    @Test
+    @DisplayName("Should replay first response when try to create a student twice with the same idempotency key")
+    void shouldReplayFirstResponseWhenTryToCreateAStudentTwiceWithTheSameIdempotencyKey() throws Exception {
+        // given
+        var student = StudentFactory.createStudent();
+
+        // when
+        var studentRequest = post(STUDENT_PATH)
+                .header("Idempotency-Key", "enrollment-42")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(student));
+
+        // then
+        var first = mockMvc.perform(studentRequest)
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        mockMvc.perform(studentRequest)
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(content().json(first, true));
+        assertEquals(1, studentRepository.count());
+    }
+
+    @Test
+    @DisplayName("Should return error when the idempotency key is reused with a different body")
+    void shouldReturnErrorWhenTheIdempotencyKeyIsReusedWithADifferentBody() throws Exception {
+        // given
+        mockMvc.perform(post(STUDENT_PATH)
+                        .header("Idempotency-Key", "enrollment-42")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(StudentFactory.createStudent())))
+                .andExpect(status().isCreated());
+
+        // when
+        var otherStudent = post(STUDENT_PATH)
+                .header("Idempotency-Key", "enrollment-42")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new Student("Mary", "33635261050")));
+
+        // then
+        mockMvc.perform(otherStudent)
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.message").value("Idempotency-Key was already used with a different request body"));
+        assertEquals(1, studentRepository.count());
+    }
+
+    @Test
+    @DisplayName("Should create both students when two clients use the same idempotency key")
+    void shouldCreateBothStudentsWhenTwoClientsUseTheSameIdempotencyKey() throws Exception {
+        // given
+        mockMvc.perform(post(STUDENT_PATH)
+                        .header("Idempotency-Key", "enrollment-42")
+                        .header("X-API-Key", "secretary")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(StudentFactory.createStudent())))
+                .andExpect(status().isCreated());
+
+        // when
+        var otherClient = post(STUDENT_PATH)
+                .header("Idempotency-Key", "enrollment-42")
+                .header("X-API-Key", "library")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new Student("Mary", "33635261050")));
+
+        // then
+        mockMvc.perform(otherClient)
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"))
+                .andExpect(jsonPath("$.name").value("Mary"));
+        assertEquals(2, studentRepository.count());
+    }
+
+    /*
+    DELTA SYNC
+    1 - Success with created students and ids deleted since the watermark
+     */
+
+    @Test
+    @DisplayName("Should return students changed and deleted since the watermark")
+    void shouldReturnStudentsChangedAndDeletedSinceTheWatermark() throws Exception {
+        // given
+        var since = Instant.now().minusSeconds(60).toString();
+        generateMultipleData();
+        mockMvc.perform(delete(STUDENT_PATH + "/{id}", 2L)).andExpect(status().isNoContent());
+
+        // when
+        var studentRequest = get(STUDENT_PATH).param("since", since);
+
+        // then
+        mockMvc.perform(studentRequest)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed.length()").value(1))
+                .andExpect(jsonPath("$.changed[0].cpf").value("74539808010"))
+                .andExpect(jsonPath("$.changed[0].updatedAt").doesNotExist())
+                .andExpect(jsonPath("$.deleted[0]").value(2))
+                .andExpect(jsonPath("$.watermark").exists());
+        mockMvc.perform(get(STUDENT_PATH).param("since", Instant.now().plusSeconds(60).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changed").isEmpty())
+                .andExpect(jsonPath("$.deleted").isEmpty());
+    }
+
+    /*
+    CSV IMPORT
+    1 - Success with valid rows imported and rejected rows in the error report
+    ! 2 - Error when the header misses a required column
+     */
+
+    @Test
+    @DisplayName("Should import valid rows and report rejected rows when import students from csv")
+    void shouldImportValidRowsAndReportRejectedRowsWhenImportStudentsFromCsv() throws Exception {
+        // given
+        generateSingleData();
+        var csv = """
+                name,cpf
+                "Silva, Ana",74539808010
+                John,40082430039
+                Mary,12345678900
+                Paul,74539808010
+                Joseph,23759841023
+                ,33635261050
+                """;
+
+        // when
+        var importRequest = post(STUDENT_PATH + "/import")
+                .contentType("text/csv")
+                .content(csv);
+
+        // then
+        var errorReport = mockMvc.perform(importRequest)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.resource").value("students"))
+                .andExpect(jsonPath("$.total").value(6))
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.failed").value(4))
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(3, studentRepository.count());
+        assertEquals(List.of("Joseph", "Silva, Ana", "John"),
+                studentRepository.findAll().stream().map(Student::getName).toList());
+        mockMvc.perform(get(objectMapper.readTree(errorReport).get("errorReport").asText()))
+                .andExpect(status().isOk())
+                .andExpect(content().string("""
+                        row,cpf,error
+                        4,12345678900,CPF is invalid
+                        5,74539808010,CPF repeated in file
+                        6,23759841023,CPF already exists
+                        7,33635261050,Name is required
+                        """));
+    }
+
+    @Test
+    @DisplayName("Should return error when import students from csv without cpf column")
+    void shouldReturnErrorWhenImportStudentsFromCsvWithoutCpfColumn() throws Exception {
+        // given
+        var csv = "name\nJoseph\n";
+
+        // when
+        var importRequest = post(STUDENT_PATH + "/import")
+                .contentType("text/csv")
+                .content(csv);
+
+        // then
+        mockMvc.perform(importRequest)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("CSV header must contain name, cpf"));
+        assertEquals(0, studentRepository.count());
+    }
+
+    /*
+    EXPORT
+    1 - Success with a gzip'd csv downloaded whole and by range
+    2 - Unsatisfiable range past the end of the file
+     */
+
+    private String awaitExport(String location) throws Exception {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            var export = objectMapper.readTree(mockMvc.perform(get(location))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            if (export.get("status").asText().equals("DONE")) {
+                return export.get("download").asText();
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Export did not finish");
+    }
+
+    @Test
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    @DisplayName("Should download exported students whole and by range")
+    void shouldDownloadExportedStudentsWholeAndByRange() throws Exception {
+        // given
+        generateMultipleData();
+
+        // when
+        var location = mockMvc.perform(post(STUDENT_PATH + "/export").param("format", "csv"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.resource").value("students"))
+                .andExpect(jsonPath("$.format").value("CSV"))
+                .andReturn().getResponse().getHeader("Location");
+        var download = awaitExport(location);
+
+        // then
+        var file = mockMvc.perform(get(download))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Accept-Ranges", "bytes"))
+                .andExpect(content().contentType("application/gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+        try (var csv = new GZIPInputStream(new ByteArrayInputStream(file))) {
+            assertEquals("id,name,cpf\n1,Joseph,74539808010\n2,John,40082430039\n",
+                    new String(csv.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        var tail = mockMvc.perform(get(download).header("Range", "bytes=10-"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 10-" + (file.length - 1) + "/" + file.length))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertArrayEquals(Arrays.copyOfRange(file, 10, file.length), tail);
+    }
+
+    @Test
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    @DisplayName("Should return range not satisfiable when download exported students past the end")
+    void shouldReturnRangeNotSatisfiableWhenDownloadExportedStudentsPastTheEnd() throws Exception {
+        // given
+        generateSingleData();
+        var location = mockMvc.perform(post(STUDENT_PATH + "/export").param("format", "json"))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getHeader("Location");
+        var download = awaitExport(location);
+
+        // when
+        var downloadRequest = get(download).header("Range", "bytes=100000-");
+
+        // then
+        mockMvc.perform(downloadRequest)
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().exists("Content-Range"));
+    }
+
+    /*
+    BULK DELETE STUDENTS
+    1 - Success when delete students by ids, ignoring ids that do not exist
+    2 - Error when try to delete students without a filter
+    3 - Success when delete students updated before an instant, releasing their cpfs
+     */
+
+    @Test
+    @DisplayName("Should return affected count when delete students by ids")
+    void shouldReturnAffectedCountWhenDeleteStudentsByIds() throws Exception {
+        // given
+        var since = Instant.now().minusSeconds(60).toString();
+        generateMultipleData();
+
+        // when
+        var studentRequest = delete(STUDENT_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\": [1, 2, 999]}");
+
+        // then
+        mockMvc.perform(studentRequest)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.resource").value("students"))
+                .andExpect(jsonPath("$.affected").value(2));
+        assertEquals(0, studentRepository.count());
+        mockMvc.perform(get(STUDENT_PATH).param("since", since))
+                .andExpect(jsonPath("$.deleted.length()").value(2));
+    }
+
+    @Test
+    @DisplayName("Should return error when try to delete students without a filter")
+    void shouldReturnErrorWhenTryToDeleteStudentsWithoutAFilter() throws Exception {
+        // given
+        generateMultipleData();
+
+        // when
+        var studentRequest = delete(STUDENT_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}");
+
+        // then
+        mockMvc.perform(studentRequest)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Provide either ids or updatedBefore"));
+        assertEquals(2, studentRepository.count());
+    }
+
+    @Test
+    @DisplayName("Should delete students updated before an instant and release their cpfs")
+    void shouldDeleteStudentsUpdatedBeforeAnInstant() throws Exception {
+        // given
+        var student = StudentFactory.createStudent();
+        var createRequest = post(STUDENT_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(student));
+        mockMvc.perform(createRequest).andExpect(status().isCreated());
+
+        // when
+        var studentRequest = delete(STUDENT_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"updatedBefore\": \"" + Instant.now().plusSeconds(60) + "\"}");
+
+        // then
+        mockMvc.perform(studentRequest)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(1));
+        assertEquals(0, studentRepository.count());
+        mockMvc.perform(createRequest).andExpect(status().isCreated());
+    }
+
+    /*
+    COUNT STUDENTS
+    1 - Success with the reconciled count, per resource and in the stats
+     */
+
+    @Test
+    @DisplayName("Should return the reconciled count of students")
+    void shouldReturnReconciledCountOfStudents() throws Exception {
+        // given
+        generateMultipleData();
+        countService.reconcile();
+
+        // then
+        mockMvc.perform(get(STUDENT_PATH + "/count"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.resource").value("students"))
+                .andExpect(jsonPath("$.count").value(2));
+
+        mockMvc.perform(get("/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.counts.students").value(2))
+                .andExpect(jsonPath("$.counts.teachers").value(0))
+                .andExpect(jsonPath("$.reconciledAt").exists());
+    }
+
+    /*
+    FIELDS WITH FILTERS
+    1 - Error when try to select fields while filtering by cpf or since, with or without a page
+     */
+
+    @Test
+    @DisplayName("Should return error when try to select fields while filtering students")
+    void shouldReturnErrorWhenTrySelectFieldsWhileFilteringStudents() throws Exception {
+        // given
+        var student = generateSingleData();
+
+        // then
+        mockMvc.perform(get(STUDENT_PATH).param("cpf", student.getCpf()).param("fields", "id,name"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Fields cannot be combined with cpf"));
+
+        mockMvc.perform(get(STUDENT_PATH).param("since", "2020-01-01T00:00:00Z").param("fields", "id,name"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Fields cannot be combined with since"));
+
+        mockMvc.perform(get(STUDENT_PATH).param("page", "0").param("size", "10").param("cpf", student.getCpf())
+                        .param("fields", "id,name"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Fields cannot be combined with cpf"));
+    }
+}
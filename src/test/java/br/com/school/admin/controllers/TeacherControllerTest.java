@@ -1,7 +1,9 @@
 package br.com.school.admin.controllers;
 
+import br.com.school.admin.config.SqlCapture;
 import br.com.school.admin.factories.TeacherFactory;
 import br.com.school.admin.models.Teacher;
+import br.com.school.admin.repositories.ChangeLogRepository;
 import br.com.school.admin.repositories.TeacherCrudRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.transaction.Transactional;
@@ -14,15 +16,20 @@ import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @AutoConfigureMockMvc
-@SpringBootTest
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=br.com.school.admin.config.SqlCapture")
 @Transactional
 @DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
 class TeacherControllerTest {
@@ -35,6 +42,9 @@ class TeacherControllerTest {
     @Autowired
     TeacherCrudRepository teacherRepository;
 
+    @Autowired
+    ChangeLogRepository changeLogRepository;
+
     @Autowired
     ObjectMapper objectMapper;
 
@@ -374,4 +384,233 @@ class TeacherControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$").isEmpty());
     }
-}
\ No newline at end of file
+
+    /*
+    BULK UPDATE TEACHERS
+    1 - Success when rename the specialty of the teachers matching a filter, with set-based statements
+    2 - Error when try to change cpf in bulk
+     */
+
+    @Test
+    @DisplayName("Should return affected count when rename the specialty of matching teachers")
+    void shouldReturnAffectedCountWhenRenameTheSpecialtyOfMatchingTeachers() throws Exception {
+        // given
+        generateMultipleData();
+        teacherRepository.flush();
+        SqlCapture.clear();
+        var update = """
+                {"filter": {"specialty": "Math"}, "changes": {"specialty": "Mathematics"}}
+                """;
+
+        // when
+        var teacherRequest = patch(TEACHER_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(update);
+
+        // then
+        mockMvc.perform(teacherRequest)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.resource").value("teachers"))
+                .andExpect(jsonPath("$.affected").value(1));
+        var statements = SqlCapture.statements().stream()
+                .map(sql -> sql.toLowerCase(Locale.ROOT).replaceAll("\\s+", " "))
+                .toList();
+        assertEquals(1, statements.stream().filter(sql -> sql.startsWith("update tb_teachers")).count());
+        assertEquals(1, statements.stream().filter(sql -> sql.startsWith("insert into tb_change_log")).count());
+        assertEquals(1, changeLogRepository.count());
+        mockMvc.perform(get(TEACHER_PATH))
+                .andExpect(jsonPath("$[0].specialty").value("Mathematics"))
+                .andExpect(jsonPath("$[1].specialty").value("Portuguese"));
+    }
+
+    @Test
+    @DisplayName("Should return error when try to change cpf of teachers in bulk")
+    void shouldReturnErrorWhenTryToChangeCpfOfTeachersInBulk() throws Exception {
+        // given
+        generateMultipleData();
+        var update = """
+                {"filter": {"ids": [1, 2]}, "changes": {"cpf": "23759841023"}}
+                """;
+
+        // when
+        var teacherRequest = patch(TEACHER_PATH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(update);
+
+        // then
+        mockMvc.perform(teacherRequest)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("CPF cannot be changed in bulk"));
+    }
+
+    /*
+    PATCH TEACHER
+    1 - Success when patch only the specialty, updating only that column
+    2 - Error when try to patch teacher with invalid cpf
+    3 - Error when try to patch a field that cannot be patched
+     */
+
+    @Test
+    @DisplayName("Should update only the specialty column when patch the specialty of a teacher")
+    void shouldUpdateOnlyTheSpecialtyColumnWhenPatchTheSpecialtyOfATeacher() throws Exception {
+        // given
+        var teacher = generateSingleData();
+        teacherRepository.flush();
+        SqlCapture.clear();
+
+        // when
+        var teacherRequest = patch(TEACHER_PATH + "/{id}", teacher.getId())
+                .contentType("application/merge-patch+json")
+                .content("{\"specialty\": \"Physics\"}");
+
+        // then
+        mockMvc.perform(teacherRequest)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Joseph"))
+                .andExpect(jsonPath("$.cpf").value("23759841023"))
+                .andExpect(jsonPath("$.specialty").value("Physics"));
+        teacherRepository.flush();
+        var updates = SqlCapture.statements().stream()
+                .map(sql -> sql.toLowerCase(Locale.ROOT))
+                .filter(sql -> sql.startsWith("update tb_teachers"))
+                .toList();
+        assertEquals(1, updates.size());
+        assertFalse(updates.get(0).contains("nr_cpf"));
+        assertFalse(updates.get(0).contains("nm_teacher"));
+    }
+
+    @Test
+    @DisplayName("Should return error when try to patch teacher with invalid cpf")
+    void shouldReturnErrorWhenTryToPatchTeacherWithInvalidCpf() throws Exception {
+        // given
+        var teacher = generateSingleData();
+
+        // when
+        var teacherRequest = patch(TEACHER_PATH + "/{id}", teacher.getId())
+                .contentType("application/merge-patch+json")
+                .content("{\"cpf\": \"12345678900\"}");
+
+        // then
+        mockMvc.perform(teacherRequest)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("CPF is invalid"));
+    }
+
+    @Test
+    @DisplayName("Should return error when try to patch a field of teacher that cannot be patched")
+    void shouldReturnErrorWhenTryToPatchAFieldOfTeacherThatCannotBePatched() throws Exception {
+        // given
+        var teacher = generateSingleData();
+
+        // when
+        var teacherRequest = patch(TEACHER_PATH + "/{id}", teacher.getId())
+                .contentType("application/merge-patch+json")
+                .content("{\"id\": 5}");
+
+        // then
+        mockMvc.perform(teacherRequest)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Field id cannot be patched"));
+    }
+
+    /*
+    SPARSE FIELDSETS
+    1 - Success when list teachers with only the requested columns selected
+    2 - Success when find a teacher by id with only the requested fields
+    3 - Error when try to select a field that does not exist
+     */
+
+    @Test
+    @DisplayName("Should return only the requested fields and select only their columns when list teachers")
+    void shouldReturnOnlyRequestedFieldsWhenListTeachers() throws Exception {
+        // given
+        generateMultipleData();
+        teacherRepository.flush();
+        SqlCapture.clear();
+
+        // then
+        mockMvc.perform(get(TEACHER_PATH).param("fields", "name,id"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].name").value("Joseph"))
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].cpf").doesNotExist())
+                .andExpect(jsonPath("$[0].specialty").doesNotExist());
+
+        mockMvc.perform(get(TEACHER_PATH).param("fields", "name").param("page", "1").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("John"))
+                .andExpect(jsonPath("$[0].id").doesNotExist());
+
+        var selects = SqlCapture.statements().stream()
+                .map(sql -> sql.toLowerCase(Locale.ROOT))
+                .filter(sql -> sql.startsWith("select") && sql.contains("from tb_teachers"))
+                .toList();
+        assertEquals(2, selects.size());
+        selects.forEach(sql -> assertFalse(sql.contains("nr_cpf") || sql.contains("ds_specialty")));
+    }
+
+    @Test
+    @DisplayName("Should return only the requested fields when find teacher by id")
+    void shouldReturnOnlyRequestedFieldsWhenFindTeacherById() throws Exception {
+        // given
+        var teacher = generateSingleData();
+
+        // then
+        mockMvc.perform(get(TEACHER_PATH + "/{id}", teacher.getId()).param("fields", "specialty"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.specialty").value("Math"))
+                .andExpect(jsonPath("$.name").doesNotExist());
+
+        mockMvc.perform(get(TEACHER_PATH + "/{id}", nonExistentId).param("fields", "name"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Teacher not found"));
+    }
+
+    @Test
+    @DisplayName("Should return error when try to select a field that does not exist")
+    void shouldReturnErrorWhenTryToSelectUnknownField() throws Exception {
+        // given
+        generateMultipleData();
+
+        // then
+        mockMvc.perform(get(TEACHER_PATH).param("fields", "name,updatedAt"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Field updatedAt cannot be selected"));
+
+        mockMvc.perform(get(TEACHER_PATH).param("fields", ""))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Select at least one of id, name, cpf, specialty"));
+    }
+
+    /*
+    FIELDS WITH FILTERS
+    1 - Error when try to select fields while filtering by cpf, specialty or since, with or without a page
+     */
+
+    @Test
+    @DisplayName("Should return error when try to select fields while filtering teachers")
+    void shouldReturnErrorWhenTrySelectFieldsWhileFilteringTeachers() throws Exception {
+        // given
+        var teacher = generateSingleData();
+
+        // then
+        mockMvc.perform(get(TEACHER_PATH).param("cpf", teacher.getCpf()).param("fields", "id,name"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Fields cannot be combined with cpf"));
+
+        mockMvc.perform(get(TEACHER_PATH).param("specialty", "Math").param("fields", "id,name"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Fields cannot be combined with specialty"));
+
+        mockMvc.perform(get(TEACHER_PATH).param("since", "2020-01-01T00:00:00Z").param("fields", "id,name"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Fields cannot be combined with since"));
+
+        mockMvc.perform(get(TEACHER_PATH).param("page", "0").param("size", "10").param("cpf", teacher.getCpf())
+                        .param("fields", "id,name"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Fields cannot be combined with cpf"));
+    }
+}
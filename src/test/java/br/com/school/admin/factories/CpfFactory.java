@@ -0,0 +1,23 @@
+package br.com.school.admin.factories;
+
+import br.com.school.admin.utils.validators.CpfDigits;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class CpfFactory {
+
+    public static List<String> validCpfs(int count) {
+        var cpfs = new ArrayList<String>(count);
+        for (long base = 123456000L; cpfs.size() < count; base++) {
+            for (int digits = 0; digits < 100; digits++) {
+                var cpf = String.format("%09d%02d", base, digits);
+                if (CpfDigits.isValid(cpf)) {
+                    cpfs.add(cpf);
+                    break;
+                }
+            }
+        }
+        return cpfs;
+    }
+}
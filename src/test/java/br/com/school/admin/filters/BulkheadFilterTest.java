@@ -0,0 +1,207 @@
+package br.com.school.admin.filters;
+
+import br.com.school.admin.config.BulkheadProperties;
+import br.com.school.admin.config.IdempotencyProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.Filter;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulkheadFilterTest {
+
+    private final CountDownLatch entered = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private SimpleMeterRegistry meterRegistry;
+    private Bulkheads bulkheads;
+    private BulkheadFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        var properties = new BulkheadProperties(true, Duration.ofMillis(50),
+                Map.of(EndpointClass.LIST, 1, EndpointClass.DETAIL, 2, EndpointClass.WRITE, 1),
+                Map.of("teachers", Map.of(EndpointClass.LIST, 2)));
+        meterRegistry = new SimpleMeterRegistry();
+        bulkheads = new Bulkheads(properties);
+        filter = new BulkheadFilter(bulkheads, properties, meterRegistry, new ObjectMapper());
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    private MockHttpServletResponse perform(String method, String uri) throws Exception {
+        var response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(method, uri), response, new MockFilterChain());
+        return response;
+    }
+
+    /**
+     * Starts a request that holds its permit until {@link #release} opens.
+     */
+    private Future<?> performSlow(String method, String uri) throws Exception {
+        var slow = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        var future = executor.submit(() -> {
+            filter.doFilter(new MockHttpServletRequest(method, uri), new MockHttpServletResponse(), new MockFilterChain(slow));
+            return null;
+        });
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        return future;
+    }
+
+    /*
+    BULKHEAD
+    ! 1 - Service unavailable with retry-after when the bulkhead is full
+    * 2 - Other endpoint classes and resources are not affected
+    * 3 - Permits are returned once requests complete
+    * 4 - Limits can be overridden per resource
+    * 5 - A write repeating an in-flight Idempotency-Key waits without taking a permit
+     */
+
+    @Test
+    @DisplayName("Should reject with 503 and retry-after when the bulkhead is full")
+    void testRejectWhenBulkheadIsFull() throws Exception {
+        // given
+        performSlow("GET", "/students");
+
+        // when
+        var response = perform("GET", "/students");
+
+        // then
+        assertEquals(503, response.getStatus());
+        assertEquals("1", response.getHeader("Retry-After"));
+        assertTrue(response.getContentAsString().contains("Too many concurrent requests"));
+        assertEquals(1.0, meterRegistry.get("school.bulkhead.rejected")
+                .tag("endpoint_class", "list").tag("resource", "students").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should not affect other endpoint classes or resources")
+    void testOtherBulkheadsAreNotAffected() throws Exception {
+        // given
+        performSlow("GET", "/students");
+
+        // when + then
+        assertEquals(200, perform("POST", "/students").getStatus());
+        assertEquals(200, perform("GET", "/students/1").getStatus());
+        assertEquals(200, perform("GET", "/directors").getStatus());
+        assertEquals(200, perform("GET", "/stats").getStatus());
+    }
+
+    @Test
+    @DisplayName("Should return permits once requests complete")
+    void testPermitsAreReturned() throws Exception {
+        // given
+        var slow = performSlow("PUT", "/directors/1");
+        assertEquals(0, bulkheads.available("directors", EndpointClass.WRITE));
+
+        // when
+        release.countDown();
+        slow.get(5, TimeUnit.SECONDS);
+
+        // then
+        assertEquals(1, bulkheads.available("directors", EndpointClass.WRITE));
+        assertEquals(200, perform("PUT", "/directors/1").getStatus());
+    }
+
+    @Test
+    @DisplayName("Should apply the limits overridden for a resource")
+    void testResourceOverride() throws Exception {
+        // given
+        performSlow("GET", "/teachers");
+
+        // when + then
+        assertEquals(200, perform("GET", "/teachers").getStatus());
+        assertEquals(1, bulkheads.available("teachers", EndpointClass.LIST));
+    }
+
+    @Test
+    @DisplayName("Should let a write repeating an in-flight idempotency key wait without taking a permit")
+    void testIdempotentRetryTakesNoPermit() throws Exception {
+        // given
+        var properties = new IdempotencyProperties(Duration.ofMinutes(1), 10, Duration.ofSeconds(5));
+        var idempotency = new IdempotencyFilter(new IdempotencyStore(properties), properties, new ObjectMapper());
+        var filters = new ArrayList<Filter>(List.of(filter, idempotency));
+        AnnotationAwareOrderComparator.sort(filters);
+        var slow = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                response.setStatus(201);
+            }
+        };
+        var original = executor.submit(() -> {
+            new MockFilterChain(slow, filters.toArray(Filter[]::new)).doFilter(idempotent(), new MockHttpServletResponse());
+            return null;
+        });
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        // when
+        var retry = CompletableFuture.supplyAsync(() -> {
+            var response = new MockHttpServletResponse();
+            try {
+                new MockFilterChain(new HttpServlet() {
+                }, filters.toArray(Filter[]::new)).doFilter(idempotent(), response);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            return response;
+        });
+        Thread.sleep(200);
+        release.countDown();
+        original.get(5, TimeUnit.SECONDS);
+
+        // then
+        var response = retry.get(5, TimeUnit.SECONDS);
+        assertEquals(201, response.getStatus());
+        assertEquals("true", response.getHeader(IdempotencyFilter.IDEMPOTENT_REPLAYED));
+        assertEquals(1, bulkheads.available("students", EndpointClass.WRITE));
+    }
+
+    private static MockHttpServletRequest idempotent() {
+        var request = new MockHttpServletRequest("POST", "/students");
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY, "retry-1");
+        return request;
+    }
+}
@@ -0,0 +1,118 @@
+package br.com.school.admin.filters;
+
+import br.com.school.admin.config.IdempotencyProperties;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdempotencyStoreTest {
+
+    private IdempotencyStore create(Duration ttl, int maxEntries) {
+        return new IdempotencyStore(new IdempotencyProperties(ttl, maxEntries, Duration.ofSeconds(1)));
+    }
+
+    private final IdempotencyStore.StoredResponse created =
+            new IdempotencyStore.StoredResponse(201, Map.of(), "{}".getBytes(), "hash");
+
+    /*
+    IDEMPOTENCY STORE
+    * 1 - First claim owns the key and later claims share its response
+    * 2 - Abandoned key can be claimed again and waiters are released
+    * 3 - Expired keys are claimed again
+    * 4 - Oldest keys are evicted when the store is full
+    * 5 - Keys still in flight are not evicted
+     */
+
+    @Test
+    @DisplayName("Should give ownership to first claim and share its response with later claims")
+    void testFirstClaimOwnsKey() throws Exception {
+        // given
+        var store = create(Duration.ofHours(1), 10);
+
+        // when
+        var first = store.claim("key");
+        var second = store.claim("key");
+        store.complete(first, created);
+
+        // then
+        assertTrue(first.owner());
+        assertFalse(second.owner());
+        assertSame(created, second.response().get());
+    }
+
+    @Test
+    @DisplayName("Should allow claiming an abandoned key again")
+    void testAbandonedKeyIsClaimable() throws Exception {
+        // given
+        var store = create(Duration.ofHours(1), 10);
+        var first = store.claim("key");
+        var waiter = store.claim("key");
+
+        // when
+        store.abandon(first);
+
+        // then
+        assertNull(waiter.response().get());
+        assertTrue(store.claim("key").owner());
+    }
+
+    @Test
+    @DisplayName("Should allow claiming an expired key again")
+    void testExpiredKeyIsClaimable() throws Exception {
+        // given
+        var store = create(Duration.ofMillis(1), 10);
+        store.complete(store.claim("key"), created);
+
+        // when
+        Thread.sleep(5);
+
+        // then
+        assertTrue(store.claim("key").owner());
+        store.purgeExpired();
+        Thread.sleep(5);
+        store.purgeExpired();
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    @DisplayName("Should evict oldest keys when store is full")
+    void testOldestKeysAreEvicted() {
+        // given
+        var store = create(Duration.ofHours(1), 2);
+
+        // when
+        store.complete(store.claim("a"), created);
+        store.complete(store.claim("b"), created);
+        store.claim("c");
+
+        // then
+        assertEquals(2, store.size());
+        assertTrue(store.claim("a").owner());
+    }
+
+    @Test
+    @DisplayName("Should not evict keys still in flight when store is full")
+    void testInFlightKeysAreNotEvicted() {
+        // given
+        var store = create(Duration.ofHours(1), 2);
+        var inFlight = store.claim("a");
+        store.complete(store.claim("b"), created);
+
+        // when
+        store.claim("c");
+
+        // then
+        assertEquals(2, store.size());
+        assertFalse(store.claim("a").owner());
+        assertTrue(store.claim("b").owner());
+        store.complete(inFlight, created);
+    }
+}
@@ -0,0 +1,91 @@
+package br.com.school.admin.filters;
+
+import br.com.school.admin.config.RateLimitProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RateLimitFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        var limit = new RateLimitProperties.Limit(1, 0.5);
+        var properties = new RateLimitProperties(true, 4,
+                Map.of(EndpointClass.LIST, limit, EndpointClass.DETAIL, limit, EndpointClass.WRITE, limit));
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RateLimitFilter(new TokenBuckets(properties), properties, meterRegistry, new ObjectMapper());
+    }
+
+    private MockHttpServletResponse perform(String method, String uri, String apiKey) throws Exception {
+        var request = new MockHttpServletRequest(method, uri);
+        if (apiKey != null) {
+            request.addHeader(RateLimitFilter.API_KEY, apiKey);
+        }
+        var response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    /*
+    RATE LIMIT
+    ! 1 - Too many requests with retry-after when bucket is empty
+    * 2 - Other api keys are not affected
+    * 3 - Paths outside the person resources are not limited
+     */
+
+    @Test
+    @DisplayName("Should reject with 429 and retry-after when client exhausted its bucket")
+    void testRejectWhenBucketIsEmpty() throws Exception {
+        // given
+        assertEquals(200, perform("GET", "/students", "key").getStatus());
+
+        // when
+        var response = perform("GET", "/students", "key");
+
+        // then
+        assertEquals(429, response.getStatus());
+        assertEquals("2", response.getHeader("Retry-After"));
+        assertEquals(1.0, meterRegistry.get("school.ratelimit.rejected")
+                .tag("endpoint_class", "list").tag("resource", "students").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should not limit other clients")
+    void testOtherClientsAreNotLimited() throws Exception {
+        // given
+        perform("POST", "/teachers", "a");
+
+        // when + then
+        assertEquals(429, perform("PUT", "/teachers/1", "a").getStatus());
+        assertEquals(200, perform("PUT", "/teachers/1", "b").getStatus());
+        assertEquals(200, perform("GET", "/teachers/1", "a").getStatus());
+    }
+
+    @Test
+    @DisplayName("Should not limit paths outside person resources")
+    void testOtherPathsAreNotLimited() throws Exception {
+        // given
+        perform("GET", "/operations/1", null);
+
+        // when
+        var response = perform("GET", "/operations/1", null);
+
+        // then
+        assertEquals(200, response.getStatus());
+        assertNull(response.getHeader("Retry-After"));
+    }
+}
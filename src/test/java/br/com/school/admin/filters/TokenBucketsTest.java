@@ -0,0 +1,75 @@
+package br.com.school.admin.filters;
+
+import br.com.school.admin.config.RateLimitProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketsTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private TokenBuckets buckets;
+
+    @BeforeEach
+    void setUp() {
+        var limits = Map.of(
+                EndpointClass.LIST, new RateLimitProperties.Limit(3, 1),
+                EndpointClass.DETAIL, new RateLimitProperties.Limit(10, 10),
+                EndpointClass.WRITE, new RateLimitProperties.Limit(1, 1));
+        buckets = new TokenBuckets(new RateLimitProperties(true, 4, limits));
+    }
+
+    /*
+    TOKEN BUCKETS
+    * 1 - Allows a burst up to capacity then asks to wait
+    * 2 - Refills tokens over time
+    * 3 - Keeps clients and endpoint classes apart
+     */
+
+    @Test
+    @DisplayName("Should allow a burst up to capacity and then report the wait")
+    void testBurstUpToCapacity() {
+        // given
+        var now = 10 * SECOND;
+
+        // when + then
+        assertEquals(0, buckets.tryAcquire(EndpointClass.LIST, "client", now));
+        assertEquals(0, buckets.tryAcquire(EndpointClass.LIST, "client", now));
+        assertEquals(0, buckets.tryAcquire(EndpointClass.LIST, "client", now));
+        assertEquals(SECOND, buckets.tryAcquire(EndpointClass.LIST, "client", now));
+    }
+
+    @Test
+    @DisplayName("Should refill tokens over time")
+    void testRefill() {
+        // given
+        var now = 10 * SECOND;
+        for (int i = 0; i < 3; i++) {
+            buckets.tryAcquire(EndpointClass.LIST, "client", now);
+        }
+
+        // when + then
+        assertTrue(buckets.tryAcquire(EndpointClass.LIST, "client", now + SECOND / 2) > 0);
+        assertEquals(0, buckets.tryAcquire(EndpointClass.LIST, "client", now + SECOND));
+    }
+
+    @Test
+    @DisplayName("Should keep separate buckets per client and endpoint class")
+    void testSeparateBuckets() {
+        // given
+        var now = 10 * SECOND;
+        buckets.tryAcquire(EndpointClass.WRITE, "a", now);
+
+        // when + then
+        assertTrue(buckets.tryAcquire(EndpointClass.WRITE, "a", now) > 0);
+        assertEquals(0, buckets.tryAcquire(EndpointClass.WRITE, "b", now));
+        assertEquals(0, buckets.tryAcquire(EndpointClass.DETAIL, "a", now));
+        assertEquals(3, buckets.size());
+    }
+}
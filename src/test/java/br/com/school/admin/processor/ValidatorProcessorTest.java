@@ -0,0 +1,107 @@
+package br.com.school.admin.processor;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaFileObject;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ValidatorProcessorTest {
+
+    @TempDir
+    Path dir;
+
+    private final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+
+    private boolean compile(String source) throws IOException {
+        var file = dir.resolve("Sample.java");
+        Files.writeString(file, source);
+        var compiler = ToolProvider.getSystemJavaCompiler();
+        try (var fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+            var options = List.of("-classpath", System.getProperty("java.class.path"), "-d", dir.toString(), "-s", dir.toString());
+            var task = compiler.getTask(null, fileManager, diagnostics, options, null, fileManager.getJavaFileObjects(file));
+            task.setProcessors(List.of(new ValidatorProcessor()));
+            return task.call();
+        }
+    }
+
+    /*
+    GENERATE VALIDATOR
+    * 1 - Validator with per-field checks is generated for constrained String fields
+    ! 2 - Error when a constraint is put on a field that is not a String
+     */
+
+    @Test
+    @DisplayName("Should generate a validator with per-field checks")
+    void testGeneratesValidator() throws IOException {
+        // given
+        var source = """
+                package sample;
+
+                import br.com.school.admin.utils.validators.constraints.Cpf;
+                import br.com.school.admin.utils.validators.constraints.Required;
+
+                public class Sample {
+                    @Required(message = "Name is \\"required\\"")
+                    private String name;
+                    @Required(message = "CPF is required")
+                    @Cpf(message = "CPF is invalid")
+                    private String cpf;
+
+                    public String getName() { return name; }
+                    public String getCpf() { return cpf; }
+                }
+                """;
+
+        // when
+        var compiled = compile(source);
+
+        // then
+        assertTrue(compiled, diagnostics.getDiagnostics().toString());
+        var generated = Files.readString(dir.resolve("sample/SampleValidator.java"));
+        assertTrue(generated.contains("public static void validate(Sample sample)"));
+        assertTrue(generated.contains("throw new IllegalArgumentException(\"Name is \\\"required\\\"\")"));
+        assertTrue(generated.indexOf("\"CPF is required\"") < generated.indexOf("\"CPF is invalid\""));
+        assertTrue(Files.exists(dir.resolve("sample/SampleValidator.class")));
+    }
+
+    @Test
+    @DisplayName("Should fail the build when a constraint is on a field that is not a String")
+    void testRejectsNonStringField() throws IOException {
+        // given
+        var source = """
+                package sample;
+
+                import br.com.school.admin.utils.validators.constraints.Required;
+
+                public class Sample {
+                    @Required(message = "Age is required")
+                    private Integer age;
+
+                    public Integer getAge() { return age; }
+                }
+                """;
+
+        // when
+        var compiled = compile(source);
+
+        // then
+        assertFalse(compiled);
+        var errors = diagnostics.getDiagnostics().stream()
+                .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                .map(diagnostic -> diagnostic.getMessage(null))
+                .toList();
+        assertEquals(List.of("Constraint annotations are only supported on String fields"), errors);
+    }
+}
@@ -0,0 +1,145 @@
+package br.com.school.admin.services;
+
+import br.com.school.admin.AdminApplication;
+import br.com.school.admin.exceptions.ResourceNotFoundException;
+import br.com.school.admin.models.Student;
+import org.h2.tools.Server;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs two application instances against one H2 database served over TCP.
+ */
+class CacheInvalidationServiceTest {
+
+    private static Server server;
+    private static ConfigurableApplicationContext first;
+    private static ConfigurableApplicationContext second;
+
+    @BeforeAll
+    static void startInstances() throws SQLException {
+        server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        var url = "jdbc:h2:tcp://localhost:" + server.getPort() + "/mem:cluster-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        first = startInstance(url);
+        second = startInstance(url);
+    }
+
+    @AfterAll
+    static void stopInstances() {
+        second.close();
+        first.close();
+        server.stop();
+    }
+
+    private static ConfigurableApplicationContext startInstance(String url) {
+        return new SpringApplicationBuilder(AdminApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=" + url,
+                        "school.test.clean-database=false",
+                        "school.near-cache.poll-interval-ms=100",
+                        "spring.jpa.show-sql=false")
+                .run();
+    }
+
+    private static boolean eventually(BooleanSupplier condition) throws InterruptedException {
+        var deadline = System.nanoTime() + 5_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            if (condition.getAsBoolean()) {
+                return true;
+            }
+            Thread.sleep(50);
+        }
+        return false;
+    }
+
+    private static void renameBehindTheCache(Long id, String name) {
+        new JdbcTemplate(first.getBean(DataSource.class))
+                .update("update tb_students set nm_student = ? where cd_student = ?", name, id);
+    }
+
+    /*
+    CLUSTER INVALIDATION
+    * 1 - A person cached on one instance is refreshed after another instance updates it
+    * 2 - A person cached on one instance is gone after another instance deletes it
+    * 3 - A change committed well after it was stamped is still picked up by the next poll
+     */
+
+    @Test
+    @DisplayName("Should refresh a person cached on one instance after another instance updates it")
+    void testUpdateOnOtherInstanceInvalidatesCache() throws InterruptedException {
+        // given
+        var writer = first.getBean(StudentServiceImpl.class);
+        var reader = second.getBean(StudentServiceImpl.class);
+        var id = writer.save(new Student("Joseph", "44007319014")).getId();
+        reader.findById(id);
+        renameBehindTheCache(id, "Stale");
+        assertEquals("Joseph", reader.findById(id).getName());
+
+        // when
+        writer.update(id, new Student("Harry", "44007319014"));
+
+        // then
+        assertTrue(eventually(() -> "Harry".equals(reader.findById(id).getName())));
+    }
+
+    @Test
+    @DisplayName("Should drop a person cached on one instance after another instance deletes it")
+    void testDeleteOnOtherInstanceInvalidatesCache() throws InterruptedException {
+        // given
+        var writer = first.getBean(StudentServiceImpl.class);
+        var reader = second.getBean(StudentServiceImpl.class);
+        var id = writer.save(new Student("Joseph", "47455321058")).getId();
+        assertEquals("Joseph", reader.findById(id).getName());
+
+        // when
+        writer.delete(id);
+
+        // then
+        assertTrue(eventually(() -> {
+            try {
+                reader.findById(id);
+                return false;
+            } catch (ResourceNotFoundException e) {
+                return true;
+            }
+        }));
+        assertThrows(ResourceNotFoundException.class, () -> reader.findById(id));
+    }
+
+    @Test
+    @DisplayName("Should refresh a person whose change committed seconds after it was stamped")
+    void testLateCommittedChangeInvalidatesCache() throws InterruptedException {
+        // given
+        var writer = first.getBean(StudentServiceImpl.class);
+        var reader = second.getBean(StudentServiceImpl.class);
+        var id = writer.save(new Student("Joseph", "52998224725")).getId();
+        assertEquals("Joseph", reader.findById(id).getName());
+
+        // when
+        renameBehindTheCache(id, "Harry");
+        new JdbcTemplate(first.getBean(DataSource.class)).update("insert into tb_change_log"
+                + " (ds_resource, cd_person, ds_origin, dt_changed) values ('students', ?, 'other', ?)",
+                id, Timestamp.from(Instant.now().minusSeconds(3)));
+
+        // then
+        assertTrue(eventually(() -> "Harry".equals(reader.findById(id).getName())));
+    }
+}
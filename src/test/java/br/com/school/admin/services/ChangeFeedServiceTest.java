@@ -0,0 +1,163 @@
+package br.com.school.admin.services;
+
+import br.com.school.admin.config.ChangeFeedProperties;
+import br.com.school.admin.events.ChangeType;
+import br.com.school.admin.events.PersonChangedEvent;
+import br.com.school.admin.models.Student;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangeFeedServiceTest {
+
+    private ChangeFeedService changeFeedService;
+
+    @BeforeEach
+    void setUp() {
+        changeFeedService = new ChangeFeedService(new ChangeFeedProperties(3, Duration.ofMinutes(1)), new ObjectMapper());
+    }
+
+    @AfterEach
+    void tearDown() {
+        changeFeedService.shutdown();
+    }
+
+    private void publish(ChangeType type, long id) throws Exception {
+        var student = new Student("Joseph", "74539808010");
+        student.setId(id);
+        changeFeedService.onPersonChanged(new PersonChangedEvent("students", type, id, student));
+    }
+
+    /*
+    CHANGE FEED
+    * 1 - Changes after a sequence are returned in order
+    * 2 - Deleted changes carry no entity
+    ! 3 - Resync needed when requested changes were overwritten
+    ! 4 - Resync needed when sequence is ahead of the feed
+    * 5 - A change both in the backlog and queued for broadcast is sent once
+     */
+
+    @Test
+    @DisplayName("Should return changes after a sequence in order")
+    void testSinceReturnsChangesInOrder() throws Exception {
+        // given
+        publish(ChangeType.CREATED, 1);
+        publish(ChangeType.UPDATED, 1);
+
+        // when
+        var changes = changeFeedService.since(0);
+
+        // then
+        assertEquals(2, changes.size());
+        assertEquals(1, changes.get(0).seq());
+        assertEquals(ChangeType.UPDATED, changes.get(1).type());
+        assertEquals("{\"resource\":\"students\",\"id\":1,\"entity\":{\"id\":1,\"name\":\"Joseph\",\"cpf\":\"74539808010\"}}",
+                changes.get(0).json());
+        assertTrue(changeFeedService.since(2).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should not include entity in deleted changes")
+    void testDeletedChangeHasNoEntity() throws Exception {
+        // given
+        publish(ChangeType.DELETED, 7);
+
+        // when
+        var changes = changeFeedService.since(0);
+
+        // then
+        assertEquals("{\"resource\":\"students\",\"id\":7}", changes.get(0).json());
+    }
+
+    @Test
+    @DisplayName("Should require resync when requested changes were overwritten")
+    void testSinceOverwrittenRequiresResync() throws Exception {
+        // given
+        for (long id = 1; id <= 5; id++) {
+            publish(ChangeType.CREATED, id);
+        }
+
+        // when + then
+        assertNull(changeFeedService.since(1));
+        assertEquals(3, changeFeedService.since(2).size());
+        assertEquals(5, changeFeedService.lastSeq());
+    }
+
+    @Test
+    @DisplayName("Should require resync when sequence is ahead of the feed")
+    void testSinceAheadRequiresResync() throws Exception {
+        // given
+        publish(ChangeType.CREATED, 1);
+
+        // when + then
+        assertNull(changeFeedService.since(10));
+    }
+
+    @Test
+    @DisplayName("Should send a change in the backlog and queued for broadcast only once")
+    void testBacklogChangeIsNotBroadcastAgain() throws Exception {
+        // given
+        var release = new CountDownLatch(1);
+        var blocker = new RecordingEmitter(release);
+        var subscriber = new RecordingEmitter(null);
+        changeFeedService.subscribe(blocker, null);
+        changeFeedService.heartbeat();
+        changeFeedService.subscribe(subscriber, 0L);
+        publish(ChangeType.CREATED, 1);
+        publish(ChangeType.UPDATED, 1);
+
+        // when
+        release.countDown();
+        changeFeedService.heartbeat();
+
+        // then
+        assertTrue(subscriber.heartbeat.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("1", "2"), subscriber.ids);
+    }
+
+    /**
+     * Records the ids sent to it; with a gate, every send waits until the gate opens.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final CountDownLatch gate;
+        private final CountDownLatch heartbeat = new CountDownLatch(1);
+        private final List<String> ids = new CopyOnWriteArrayList<>();
+
+        RecordingEmitter(CountDownLatch gate) {
+            this.gate = gate;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            if (gate != null) {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            var text = new StringBuilder();
+            builder.build().forEach(part -> text.append(part.getData()));
+            var id = text.toString().lines().filter(line -> line.startsWith("id:")).findFirst();
+            if (id.isPresent()) {
+                ids.add(id.get().substring(3));
+            } else {
+                heartbeat.countDown();
+            }
+        }
+    }
+}
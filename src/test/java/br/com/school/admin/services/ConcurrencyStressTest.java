@@ -0,0 +1,251 @@
+package br.com.school.admin.services;
+
+import br.com.school.admin.exceptions.BusinessRuleException;
+import br.com.school.admin.exceptions.ResourceNotFoundException;
+import br.com.school.admin.factories.CpfFactory;
+import br.com.school.admin.models.Director;
+import br.com.school.admin.models.Student;
+import br.com.school.admin.models.Teacher;
+import br.com.school.admin.utils.sharding.ShardRouter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fires concurrent writes with colliding CPFs at all three roles against the embedded
+ * database and checks the invariants afterwards. The number of operations can be raised
+ * with {@code -Dstress.operations=...}; throughput is logged for comparing write paths.
+ * {@link ShardedConcurrencyStressTest} runs the same scenarios over several shards.
+ */
+@SpringBootTest(properties = {
+        "school.sharding.url=jdbc:h2:mem:stress-${random.uuid}-{shard};DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.show-sql=false"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class ConcurrencyStressTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrencyStressTest.class);
+
+    private static final int THREADS = 16;
+    private static final int OPERATIONS = Integer.getInteger("stress.operations", 3000);
+    private static final String PERSON_CPFS = "select nr_cpf from tb_students union all select nr_cpf from tb_teachers "
+            + "union all select nr_cpf from tb_directors";
+
+    @Autowired
+    StudentServiceImpl studentService;
+
+    @Autowired
+    TeacherServiceImpl teacherService;
+
+    @Autowired
+    DirectorServiceImpl directorService;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    ShardRouter shardRouter;
+
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder conflicted = new LongAdder();
+    private final ConcurrentLinkedQueue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Runs {@code operation} {@link #OPERATIONS} times spread over {@link #THREADS}
+     * threads released together, sorting each outcome, and returns the elapsed nanos.
+     */
+    private long hammer(String scenario, Operation operation) throws InterruptedException {
+        var start = new CountDownLatch(1);
+        var done = new CountDownLatch(THREADS);
+        var next = new AtomicInteger();
+        for (int t = 0; t < THREADS; t++) {
+            var thread = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = next.getAndIncrement(); i < OPERATIONS; i = next.getAndIncrement()) {
+                        attempt(operation, i);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }, "stress-" + t);
+            thread.start();
+        }
+        var began = System.nanoTime();
+        start.countDown();
+        assertTrue(done.await(5, TimeUnit.MINUTES), "Stress threads did not finish");
+        var elapsed = System.nanoTime() - began;
+        log.info("{}: {} operations on {} threads in {} ms, {} ops/s ({} succeeded, {} rejected, {} conflicted)",
+                scenario, OPERATIONS, THREADS, TimeUnit.NANOSECONDS.toMillis(elapsed),
+                Math.round(OPERATIONS / (elapsed / 1e9)), succeeded.sum(), rejected.sum(), conflicted.sum());
+        return elapsed;
+    }
+
+    private void attempt(Operation operation, int index) {
+        try {
+            operation.run(index, ThreadLocalRandom.current());
+            succeeded.increment();
+        } catch (BusinessRuleException | ResourceNotFoundException e) {
+            rejected.increment();
+        } catch (ConcurrencyFailureException e) {
+            conflicted.increment();
+        } catch (Throwable e) {
+            unexpected.add(e);
+        }
+    }
+
+    private void assertNoUnexpectedFailures() {
+        unexpected.forEach(e -> log.error("Unexpected failure", e));
+        assertEquals(List.of(), unexpected.stream().map(Throwable::toString).distinct().toList());
+    }
+
+    /**
+     * Runs {@code sql} on every shard and returns the rows of all of them.
+     */
+    private List<String> queryEveryShard(String sql) {
+        return shardRouter.gather(shard -> jdbcTemplate.queryForList(sql, String.class)).stream()
+                .flatMap(List::stream).toList();
+    }
+
+    private void assertCpfsUniqueAndRegistered() {
+        var personCpfs = queryEveryShard(PERSON_CPFS);
+        var distinct = new HashSet<>(personCpfs);
+        assertEquals(distinct.size(), personCpfs.size(), "A CPF is used by more than one person");
+        assertEquals(distinct, new HashSet<>(queryEveryShard("select nr_cpf from tb_cpfs")));
+    }
+
+    private int countPeople() {
+        return queryEveryShard(PERSON_CPFS).size();
+    }
+
+    /*
+    CONCURRENT WRITES
+    1 - Concurrent saves and deletes with colliding CPFs across roles keep CPFs unique
+    2 - Concurrent patches and updates of the same people lose no write
+     */
+
+    @Test
+    @DisplayName("Should keep cpfs unique under concurrent saves and deletes across roles")
+    void shouldKeepCpfsUniqueUnderConcurrentSaves() throws Exception {
+        // given
+        var cpfs = CpfFactory.validCpfs(200);
+        var deleted = new LongAdder();
+
+        // when
+        hammer("saves and deletes", (index, random) -> {
+            var cpf = cpfs.get(random.nextInt(cpfs.size()));
+            var role = random.nextInt(3);
+            if (random.nextInt(4) > 0) {
+                switch (role) {
+                    case 0 -> studentService.save(new Student("Student " + index, cpf));
+                    case 1 -> teacherService.save(new Teacher("Teacher " + index, cpf, "Math"));
+                    default -> directorService.save(new Director("Director " + index, cpf));
+                }
+            } else {
+                switch (role) {
+                    case 0 -> studentService.delete(studentService.findByCpf(cpf).getId());
+                    case 1 -> teacherService.delete(teacherService.findByCpf(cpf).getId());
+                    default -> directorService.delete(directorService.findByCpf(cpf).getId());
+                }
+                deleted.increment();
+            }
+        });
+
+        // then
+        assertNoUnexpectedFailures();
+        assertCpfsUniqueAndRegistered();
+        assertEquals(succeeded.sum() - 2 * deleted.sum(), countPeople());
+    }
+
+    @Test
+    @DisplayName("Should lose no write under concurrent patches and updates of the same people")
+    void shouldLoseNoWriteUnderConcurrentUpdates() throws Exception {
+        // given
+        var cpfs = CpfFactory.validCpfs(40);
+        var people = new ArrayList<Person>();
+        for (int i = 0; i < 9; i++) {
+            var cpf = cpfs.get(i);
+            people.add(switch (i % 3) {
+                case 0 -> new Person("tb_students", "cd_student", studentService.save(new Student("Student", cpf)).getId());
+                case 1 -> new Person("tb_teachers", "cd_teacher", teacherService.save(new Teacher("Teacher", cpf, "Math")).getId());
+                default -> new Person("tb_directors", "cd_director", directorService.save(new Director("Director", cpf)).getId());
+            });
+        }
+        var writes = new ConcurrentHashMap<Person, LongAdder>();
+
+        // when
+        hammer("patches and updates", (index, random) -> {
+            var person = people.get(random.nextInt(people.size()));
+            var name = "Name " + index;
+            var cpf = cpfs.get(random.nextInt(cpfs.size()));
+            var changes = random.nextBoolean() ? Map.of("name", name) : Map.of("name", name, "cpf", cpf);
+            var replace = random.nextBoolean();
+            switch (person.table()) {
+                case "tb_students" -> {
+                    if (replace) {
+                        studentService.update(person.id(), new Student(name, cpf));
+                    } else {
+                        studentService.patch(person.id(), changes);
+                    }
+                }
+                case "tb_teachers" -> {
+                    if (replace) {
+                        teacherService.update(person.id(), new Teacher(name, cpf, "Physics"));
+                    } else {
+                        teacherService.patch(person.id(), changes);
+                    }
+                }
+                default -> {
+                    if (replace) {
+                        directorService.update(person.id(), new Director(name, cpf));
+                    } else {
+                        directorService.patch(person.id(), changes);
+                    }
+                }
+            }
+            writes.computeIfAbsent(person, p -> new LongAdder()).increment();
+        });
+
+        // then
+        assertNoUnexpectedFailures();
+        assertCpfsUniqueAndRegistered();
+        for (var person : people) {
+            var version = shardRouter.on(shardRouter.shardOfId(person.id()), () -> jdbcTemplate.queryForObject(
+                    "select nr_version from " + person.table() + " where " + person.column() + " = ?",
+                    Long.class, person.id()));
+            assertEquals(writes.getOrDefault(person, new LongAdder()).sum(), version,
+                    "Writes lost on " + person.table() + " " + person.id());
+        }
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        void run(int index, ThreadLocalRandom random);
+    }
+
+    private record Person(String table, String column, Long id) {
+    }
+}
@@ -0,0 +1,111 @@
+package br.com.school.admin.services;
+
+import br.com.school.admin.events.ChangeType;
+import br.com.school.admin.events.PersonChangedEvent;
+import br.com.school.admin.events.PersonsDeletedEvent;
+import br.com.school.admin.repositories.DirectorCrudRepository;
+import br.com.school.admin.repositories.StudentCrudRepository;
+import br.com.school.admin.repositories.TeacherCrudRepository;
+import br.com.school.admin.utils.sharding.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CountServiceTest {
+
+    private final StudentCrudRepository studentRepository = mock(StudentCrudRepository.class);
+    private final TeacherCrudRepository teacherRepository = mock(TeacherCrudRepository.class);
+    private final DirectorCrudRepository directorRepository = mock(DirectorCrudRepository.class);
+    private CountService countService;
+
+    @BeforeEach
+    void setUp() {
+        when(studentRepository.count()).thenReturn(5L);
+        when(teacherRepository.count()).thenReturn(2L);
+        when(directorRepository.count()).thenReturn(1L);
+        countService = new CountService(studentRepository, teacherRepository, directorRepository, ShardRouter.single());
+    }
+
+    private void publish(ChangeType type) {
+        countService.onPersonChanged(new PersonChangedEvent("students", type, 1L, null));
+    }
+
+    /*
+    COUNTERS
+    1 - Counters are seeded with one COUNT per table on first use
+    2 - Creates and deletes move the counter, updates do not
+    3 - A bulk delete moves the counter by the rows it removed
+    4 - Reconciling brings a drifted counter back to the database count
+     */
+
+    @Test
+    @DisplayName("Should seed the counters with one COUNT per table on first use")
+    void testCountersAreSeededOnce() {
+        // when
+        var stats = countService.stats();
+        var students = countService.count("students");
+
+        // then
+        assertEquals(5L, stats.counts().get("students"));
+        assertEquals(2L, stats.counts().get("teachers"));
+        assertEquals(1L, stats.counts().get("directors"));
+        assertNotNull(stats.reconciledAt());
+        assertEquals(5L, students);
+        verify(studentRepository, times(1)).count();
+    }
+
+    @Test
+    @DisplayName("Should move the counter on creates and deletes but not on updates")
+    void testCreatesAndDeletesMoveTheCounter() {
+        // given
+        countService.count("students");
+
+        // when
+        publish(ChangeType.CREATED);
+        publish(ChangeType.CREATED);
+        publish(ChangeType.UPDATED);
+        publish(ChangeType.DELETED);
+
+        // then
+        assertEquals(6L, countService.count("students"));
+        verify(studentRepository, times(1)).count();
+    }
+
+    @Test
+    @DisplayName("Should move the counter by the rows a bulk delete removed")
+    void testBulkDeleteMovesTheCounter() {
+        // given
+        countService.count("students");
+
+        // when
+        countService.onPersonsDeleted(new PersonsDeletedEvent("students", List.of(1L, 2L, 3L), Instant.now()));
+
+        // then
+        assertEquals(2L, countService.count("students"));
+    }
+
+    @Test
+    @DisplayName("Should bring a drifted counter back to the database count when reconciled")
+    void testReconcileCorrectsDrift() {
+        // given
+        countService.count("students");
+        publish(ChangeType.CREATED);
+        when(studentRepository.count()).thenReturn(9L);
+
+        // when
+        countService.reconcile();
+
+        // then
+        assertEquals(9L, countService.count("students"));
+    }
+}
@@ -1,16 +1,21 @@
 package br.com.school.admin.services;
 
 import br.com.school.admin.exceptions.BusinessRuleException;
+import br.com.school.admin.repositories.CpfRegistryRepository;
 import br.com.school.admin.repositories.DirectorCrudRepository;
 import br.com.school.admin.repositories.StudentCrudRepository;
 import br.com.school.admin.repositories.TeacherCrudRepository;
+import br.com.school.admin.utils.sharding.ShardRouter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -24,6 +29,8 @@ class CpfServiceTest {
 
     private DirectorCrudRepository directorRepository;
 
+    private CpfRegistryRepository registryRepository;
+
     private CpfService cpfService;
 
     @BeforeEach
@@ -31,7 +38,9 @@ class CpfServiceTest {
         studentRepository = mock(StudentCrudRepository.class);
         teacherRepository = mock(TeacherCrudRepository.class);
         directorRepository = mock(DirectorCrudRepository.class);
-        cpfService = new CpfService(studentRepository, teacherRepository, directorRepository);
+        registryRepository = mock(CpfRegistryRepository.class);
+        cpfService = new CpfService(studentRepository, teacherRepository, directorRepository,
+                registryRepository, ShardRouter.single());
     }
 
     /*
@@ -91,4 +100,38 @@ class CpfServiceTest {
         verify(directorRepository, times(1)).existsByCpf(cpf);
         verifyNoMoreInteractions(studentRepository, teacherRepository, directorRepository);
     }
+
+    /*
+    REGISTER CPF
+    ! 1 - Error when the registry already holds the cpf
+    * 2 - Success registering a new cpf and releasing the previous one
+     */
+
+    @Test
+    @DisplayName("Should throw an error when the registry already holds the cpf")
+    void testRegisterCpfAlreadyRegisteredThrowError() {
+        // given
+        var cpf = "12345678910";
+        willThrow(new DataIntegrityViolationException("pk_cpfs")).given(registryRepository).register(cpf, "students");
+
+        // when
+        var exception = assertThrows(BusinessRuleException.class, () -> cpfService.register(cpf, null, "students"));
+
+        // then
+        assertEquals("CPF already exists", exception.getMessage());
+        verify(registryRepository, times(1)).register(cpf, "students");
+        verifyNoMoreInteractions(registryRepository);
+    }
+
+    @Test
+    @DisplayName("Should register the new cpf and release the previous one")
+    void testRegisterChangedCpfReleasesPrevious() {
+        // when
+        cpfService.register("12345678910", "10987654321", "teachers");
+
+        // then
+        verify(registryRepository, times(1)).register("12345678910", "teachers");
+        verify(registryRepository, times(1)).release("10987654321");
+        verifyNoMoreInteractions(registryRepository);
+    }
 }
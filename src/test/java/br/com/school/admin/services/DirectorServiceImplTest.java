@@ -1,16 +1,27 @@
 package br.com.school.admin.services;
 
+import br.com.school.admin.events.PersonChangedEvent;
 import br.com.school.admin.exceptions.BusinessRuleException;
 import br.com.school.admin.exceptions.ResourceNotFoundException;
 import br.com.school.admin.models.Director;
 import br.com.school.admin.repositories.DirectorCrudRepository;
+import br.com.school.admin.repositories.TombstoneRepository;
+import br.com.school.admin.utils.columnar.ReadModel;
+import br.com.school.admin.utils.concurrent.NearCaches;
+import br.com.school.admin.utils.sharding.ShardRouter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -35,6 +46,24 @@ class DirectorServiceImplTest {
     @Mock
     private CpfService cpfService;
 
+    @Mock
+    private TombstoneRepository tombstoneRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private ShardRouter shardRouter = ShardRouter.single();
+
+    @Spy
+    private NearCaches nearCaches = new NearCaches(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private ReadModel readModel = new ReadModel();
+
     @InjectMocks
     private DirectorServiceImpl directorService;
 
@@ -79,7 +108,9 @@ class DirectorServiceImplTest {
         assertEquals(director.getName(), createdDirector.getName());
         assertEquals(director.getCpf(), createdDirector.getCpf());
         verify(cpfService, times(1)).checkIfExistsWithCpf(director.getCpf(), null);
+        verify(cpfService, times(1)).register(director.getCpf(), null, DirectorServiceImpl.RESOURCE);
         verify(directorCrudRepository, times(1)).save(director);
+        verify(eventPublisher, times(1)).publishEvent(any(PersonChangedEvent.class));
         verifyNoMoreInteractions(directorCrudRepository, cpfService);
     }
 
@@ -154,6 +185,7 @@ class DirectorServiceImplTest {
         verify(directorCrudRepository, times(1)).findById(1L);
         verify(directorCrudRepository, times(1)).save(any(Director.class));
         verify(cpfService, times(1)).checkIfExistsWithCpf(anyString(), anyString());
+        verify(cpfService, times(1)).register("47455321058", "44007319014", DirectorServiceImpl.RESOURCE);
         verifyNoMoreInteractions(directorCrudRepository, cpfService);
     }
 
@@ -255,7 +287,7 @@ class DirectorServiceImplTest {
 
         var directors = List.of(director1, director2);
 
-        given(directorCrudRepository.findAll())
+        given(directorCrudRepository.findAll(any(Sort.class)))
                 .willReturn(directors);
 
         // when
@@ -269,7 +301,7 @@ class DirectorServiceImplTest {
         assertEquals(directors.get(1).getId(), foundDirectors.get(1).getId());
         assertEquals(directors.get(1).getName(), foundDirectors.get(1).getName());
         assertEquals(directors.get(1).getCpf(), foundDirectors.get(1).getCpf());
-        verify(directorCrudRepository, times(1)).findAll();
+        verify(directorCrudRepository, times(1)).findAll(any(Sort.class));
     }
 
     @Test
@@ -278,7 +310,7 @@ class DirectorServiceImplTest {
         // given
         var directors = new ArrayList<Director>();
 
-        given(directorCrudRepository.findAll())
+        given(directorCrudRepository.findAll(any(Sort.class)))
                 .willReturn(directors);
 
         // when
@@ -286,6 +318,6 @@ class DirectorServiceImplTest {
 
         // then
         assertEquals(0, foundDirectors.size());
-        verify(directorCrudRepository, times(1)).findAll();
+        verify(directorCrudRepository, times(1)).findAll(any(Sort.class));
     }
 }
\ No newline at end of file
@@ -0,0 +1,192 @@
+package br.com.school.admin.services;
+
+import br.com.school.admin.config.SqlCapture;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+        "school.read-model.enabled=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=br.com.school.admin.config.SqlCapture"})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class ReadModelServiceTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ReadModelService readModelService;
+
+    private boolean readPersonTables() {
+        return SqlCapture.statements().stream()
+                .map(sql -> sql.toLowerCase(Locale.ROOT))
+                .anyMatch(sql -> sql.startsWith("select") && sql.matches(".*from tb_(students|teachers|directors).*"));
+    }
+
+    private void createTeacher(String name, String cpf, String specialty) throws Exception {
+        mockMvc.perform(post("/teachers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"" + name + "\", \"cpf\": \"" + cpf + "\", \"specialty\": \"" + specialty + "\"}"))
+                .andExpect(status().isCreated());
+    }
+
+    /*
+    READ MODEL
+    1 - Reads are served from the columns after each committed write
+    2 - Deleted people are no longer served
+    3 - The footprint is reported next to the entity estimate
+    4 - People with a CPF that is not eleven digits are served and survive a rebuild
+    5 - Bulk updated teachers are served with their new values without reloading them
+     */
+
+    @Test
+    @DisplayName("Should serve reads from the columns after each committed write")
+    void shouldServeReadsFromColumnsAfterWrites() throws Exception {
+        // given
+        readModelService.refresh();
+        createTeacher("Joseph", "23759841023", "Math");
+        createTeacher("Maria", "52998224725", "History");
+        mockMvc.perform(put("/teachers/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Joseph\", \"cpf\": \"74539808010\", \"specialty\": \"History\"}"))
+                .andExpect(status().isOk());
+        SqlCapture.clear();
+
+        // then
+        mockMvc.perform(get("/teachers"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].cpf").value("74539808010"));
+
+        mockMvc.perform(get("/teachers/2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Maria"));
+
+        mockMvc.perform(get("/teachers").param("cpf", "74539808010"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1));
+
+        mockMvc.perform(get("/teachers").param("specialty", "History"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+
+        mockMvc.perform(get("/teachers").param("page", "1").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(2));
+
+        mockMvc.perform(get("/teachers/2").param("fields", "name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Maria"))
+                .andExpect(jsonPath("$.cpf").doesNotExist());
+
+        assertFalse(readPersonTables());
+    }
+
+    @Test
+    @DisplayName("Should no longer serve deleted people")
+    void shouldNoLongerServeDeletedPeople() throws Exception {
+        // given
+        readModelService.refresh();
+        createTeacher("Joseph", "23759841023", "Math");
+
+        // when
+        mockMvc.perform(delete("/teachers/1")).andExpect(status().isNoContent());
+
+        // then
+        mockMvc.perform(get("/teachers/1"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Teacher not found"));
+
+        mockMvc.perform(get("/teachers").param("cpf", "23759841023"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Should report the footprint next to the entity estimate")
+    void shouldReportFootprint() throws Exception {
+        // given
+        createTeacher("Joseph", "23759841023", "Math");
+        readModelService.refresh();
+
+        // then
+        mockMvc.perform(get("/admin/read-model"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[2].resource").value("teachers"))
+                .andExpect(jsonPath("$[2].rows").value(1))
+                .andExpect(jsonPath("$[2].columnarBytesPerMillion").isNumber())
+                .andExpect(jsonPath("$[2].entityBytesPerMillion").isNumber());
+    }
+
+    @Test
+    @DisplayName("Should serve people with a cpf that is not eleven digits and keep them across rebuilds")
+    void shouldServePeopleWithOtherCpfs() throws Exception {
+        // given
+        readModelService.refresh();
+        createTeacher("Joseph", "123", "Math");
+        createTeacher("Maria", "52998224725", "History");
+
+        // when
+        readModelService.refresh();
+
+        // then
+        mockMvc.perform(get("/teachers/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cpf").value("123"));
+
+        mockMvc.perform(get("/teachers").param("cpf", "123"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1));
+
+        mockMvc.perform(get("/teachers"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    @DisplayName("Should serve bulk updated teachers with their new values without reloading them")
+    void shouldServeBulkUpdatedTeachers() throws Exception {
+        // given
+        readModelService.refresh();
+        createTeacher("Joseph", "23759841023", "Math");
+        createTeacher("Maria", "52998224725", "History");
+
+        // when
+        mockMvc.perform(patch("/teachers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"filter\": {\"specialty\": \"Math\"}, \"changes\": {\"specialty\": \"Mathematics\"}}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.affected").value(1));
+        SqlCapture.clear();
+
+        // then
+        mockMvc.perform(get("/teachers").param("specialty", "Mathematics"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("Joseph"))
+                .andExpect(jsonPath("$[0].cpf").value("23759841023"));
+
+        mockMvc.perform(get("/teachers/2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.specialty").value("History"));
+
+        assertFalse(readPersonTables());
+    }
+}
@@ -0,0 +1,12 @@
+package br.com.school.admin.services;
+
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * The scenarios of {@link ConcurrencyStressTest} with people spread over three shards, so
+ * the routing of every write, CPF check and retry is exercised under contention. A CPF
+ * change to one kept on another shard is rejected and counted as such.
+ */
+@TestPropertySource(properties = "school.sharding.shards=3")
+class ShardedConcurrencyStressTest extends ConcurrencyStressTest {
+}
@@ -1,16 +1,31 @@
 package br.com.school.admin.services;
 
+import br.com.school.admin.dtos.BulkDeleteDto;
+import br.com.school.admin.events.PersonChangedEvent;
+import br.com.school.admin.events.PersonsDeletedEvent;
 import br.com.school.admin.exceptions.BusinessRuleException;
 import br.com.school.admin.exceptions.ResourceNotFoundException;
 import br.com.school.admin.models.Student;
+import br.com.school.admin.models.Tombstone;
 import br.com.school.admin.repositories.StudentCrudRepository;
+import br.com.school.admin.repositories.TombstoneRepository;
+import br.com.school.admin.utils.columnar.ReadModel;
+import br.com.school.admin.utils.concurrent.NearCaches;
+import br.com.school.admin.utils.sharding.ShardRouter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -18,10 +33,13 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -35,6 +53,24 @@ class StudentServiceImplTest {
     @Mock
     private CpfService cpfService;
 
+    @Mock
+    private TombstoneRepository tombstoneRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private ShardRouter shardRouter = ShardRouter.single();
+
+    @Spy
+    private NearCaches nearCaches = new NearCaches(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private ReadModel readModel = new ReadModel();
+
     @InjectMocks
     private StudentServiceImpl studentService;
 
@@ -79,7 +115,9 @@ class StudentServiceImplTest {
         assertEquals(student.getName(), createdStudent.getName());
         assertEquals(student.getCpf(), createdStudent.getCpf());
         verify(cpfService, times(1)).checkIfExistsWithCpf(student.getCpf(), null);
+        verify(cpfService, times(1)).register(student.getCpf(), null, StudentServiceImpl.RESOURCE);
         verify(studentCrudRepository, times(1)).save(student);
+        verify(eventPublisher, times(1)).publishEvent(any(PersonChangedEvent.class));
         verifyNoMoreInteractions(studentCrudRepository, cpfService);
     }
 
@@ -154,6 +192,7 @@ class StudentServiceImplTest {
         verify(studentCrudRepository, times(1)).findById(1L);
         verify(studentCrudRepository, times(1)).save(any(Student.class));
         verify(cpfService, times(1)).checkIfExistsWithCpf(anyString(), anyString());
+        verify(cpfService, times(1)).register("47455321058", "44007319014", StudentServiceImpl.RESOURCE);
         verifyNoMoreInteractions(studentCrudRepository, cpfService);
     }
 
@@ -194,6 +233,7 @@ class StudentServiceImplTest {
         assertDoesNotThrow(() -> studentService.delete(1L));
         verify(studentCrudRepository, times(1)).findById(1L);
         verify(studentCrudRepository, times(1)).delete(student);
+        verify(tombstoneRepository, times(1)).save(any(Tombstone.class));
     }
 
     /*
@@ -255,7 +295,7 @@ class StudentServiceImplTest {
 
         var students = List.of(student1, student2);
 
-        given(studentCrudRepository.findAll())
+        given(studentCrudRepository.findAll(any(Sort.class)))
                 .willReturn(students);
 
         // when
@@ -269,7 +309,7 @@ class StudentServiceImplTest {
         assertEquals(students.get(1).getId(), foundStudents.get(1).getId());
         assertEquals(students.get(1).getName(), foundStudents.get(1).getName());
         assertEquals(students.get(1).getCpf(), foundStudents.get(1).getCpf());
-        verify(studentCrudRepository, times(1)).findAll();
+        verify(studentCrudRepository, times(1)).findAll(any(Sort.class));
     }
 
     @Test
@@ -278,7 +318,7 @@ class StudentServiceImplTest {
         // given
         var students = new ArrayList<Student>();
 
-        given(studentCrudRepository.findAll())
+        given(studentCrudRepository.findAll(any(Sort.class)))
                 .willReturn(students);
 
         // when
@@ -286,6 +326,79 @@ class StudentServiceImplTest {
 
         // then
         assertEquals(0, foundStudents.size());
-        verify(studentCrudRepository, times(1)).findAll();
+        verify(studentCrudRepository, times(1)).findAll(any(Sort.class));
+    }
+
+    /*
+    FIND STUDENTS CHANGED SINCE
+    * 1 - Success with changed students, deleted ids and a trailing watermark
+     */
+
+    @Test
+    @DisplayName("Should find students changed and deleted since a watermark")
+    void testFindChangedSinceSucess() {
+        // given
+        var since = Instant.parse("2026-01-01T00:00:00Z");
+        var student = new Student("Harry", "44007319014");
+        student.setId(1L);
+
+        given(studentCrudRepository.findByUpdatedAtAfterOrderByUpdatedAt(since))
+                .willReturn(List.of(student));
+        given(tombstoneRepository.findDeletedIdsSince(StudentServiceImpl.RESOURCE, since))
+                .willReturn(List.of(2L));
+
+        // when
+        var before = Instant.now();
+        var sync = studentService.findChangedSince(since);
+
+        // then
+        assertEquals(List.of(student), sync.changed());
+        assertEquals(List.of(2L), sync.deleted());
+        assertTrue(sync.watermark().isBefore(before));
+        verify(studentCrudRepository, times(1)).findByUpdatedAtAfterOrderByUpdatedAt(since);
+        verifyNoMoreInteractions(studentCrudRepository);
+    }
+
+    /*
+    DELETE STUDENTS IN BULK
+    ! 1 - Error when neither ids nor updatedBefore is given
+    * 2 - Success with set-based statements and a single event
+     */
+
+    @Test
+    @DisplayName("Should throw error when trying to delete students in bulk without a filter")
+    void testDeleteAllWithoutFilterThrowsError() {
+        // given
+        var filter = new BulkDeleteDto(null, null);
+
+        // when + then
+        var currentException = assertThrows(IllegalArgumentException.class,
+                () -> studentService.deleteAll(filter));
+        assertEquals("Provide either ids or updatedBefore", currentException.getMessage());
+        verifyNoMoreInteractions(studentCrudRepository);
+    }
+
+    @Test
+    @DisplayName("Should delete students in bulk")
+    void testDeleteAllSucess() {
+        // given
+        var before = Instant.parse("2026-01-01T00:00:00Z");
+        var ids = List.of(1L, 2L);
+
+        given(studentCrudRepository.insertTombstonesUpdatedBefore(eq(StudentServiceImpl.RESOURCE), eq(before), any(Instant.class)))
+                .willReturn(2);
+        given(studentCrudRepository.findTombstonedIds(eq(StudentServiceImpl.RESOURCE), any(Instant.class)))
+                .willReturn(ids);
+        given(studentCrudRepository.deleteTombstoned(eq(StudentServiceImpl.RESOURCE), any(Instant.class)))
+                .willReturn(2);
+
+        // when
+        var deleted = studentService.deleteAll(new BulkDeleteDto(null, before));
+
+        // then
+        assertEquals(2, deleted);
+        verify(studentCrudRepository, times(1)).releaseTombstonedCpfs(eq(StudentServiceImpl.RESOURCE), any(Instant.class));
+        verify(eventPublisher, times(1)).publishEvent(any(PersonsDeletedEvent.class));
+        verify(eventPublisher, never()).publishEvent(any(PersonChangedEvent.class));
     }
-}
\ No newline at end of file
+}
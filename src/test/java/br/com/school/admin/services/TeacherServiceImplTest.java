@@ -1,18 +1,34 @@
 package br.com.school.admin.services;
 
+import br.com.school.admin.dtos.TeacherBulkUpdateDto;
+import br.com.school.admin.events.PersonChangedEvent;
+import br.com.school.admin.events.TeachersUpdatedEvent;
 import br.com.school.admin.exceptions.BusinessRuleException;
 import br.com.school.admin.exceptions.ResourceNotFoundException;
 import br.com.school.admin.models.Teacher;
 import br.com.school.admin.repositories.TeacherCrudRepository;
+import br.com.school.admin.repositories.TombstoneRepository;
+import br.com.school.admin.utils.columnar.ReadModel;
+import br.com.school.admin.utils.concurrent.NearCaches;
+import br.com.school.admin.utils.sharding.ShardRouter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
@@ -20,10 +36,14 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 
 @ExtendWith(SpringExtension.class)
@@ -35,6 +55,24 @@ class TeacherServiceImplTest {
     @Mock
     private CpfService cpfService;
 
+    @Mock
+    private TombstoneRepository tombstoneRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private ShardRouter shardRouter = ShardRouter.single();
+
+    @Spy
+    private NearCaches nearCaches = new NearCaches(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private ReadModel readModel = new ReadModel();
+
     @InjectMocks
     private TeacherServiceImpl teacherService;
 
@@ -80,7 +118,9 @@ class TeacherServiceImplTest {
         assertEquals(teacher.getCpf(), createdTeacher.getCpf());
         assertEquals(teacher.getSpecialty(), createdTeacher.getSpecialty());
         verify(cpfService, times(1)).checkIfExistsWithCpf(teacher.getCpf(), null);
+        verify(cpfService, times(1)).register(teacher.getCpf(), null, TeacherServiceImpl.RESOURCE);
         verify(teacherCrudRepository, times(1)).save(teacher);
+        verify(eventPublisher, times(1)).publishEvent(any(PersonChangedEvent.class));
         verifyNoMoreInteractions(teacherCrudRepository, cpfService);
     }
 
@@ -156,6 +196,7 @@ class TeacherServiceImplTest {
         verify(teacherCrudRepository, times(1)).findById(1L);
         verify(teacherCrudRepository, times(1)).save(any(Teacher.class));
         verify(cpfService, times(1)).checkIfExistsWithCpf(anyString(), anyString());
+        verify(cpfService, times(1)).register("47455321058", "44007319014", TeacherServiceImpl.RESOURCE);
         verifyNoMoreInteractions(teacherCrudRepository, cpfService);
     }
 
@@ -258,7 +299,7 @@ class TeacherServiceImplTest {
 
         var teachers = List.of(teacher1, teacher2);
 
-        given(teacherCrudRepository.findAll())
+        given(teacherCrudRepository.findAll(any(Sort.class)))
                 .willReturn(teachers);
 
         // when
@@ -274,7 +315,7 @@ class TeacherServiceImplTest {
         assertEquals(teachers.get(1).getName(), foundTeachers.get(1).getName());
         assertEquals(teachers.get(1).getCpf(), foundTeachers.get(1).getCpf());
         assertEquals(teachers.get(1).getSpecialty(), foundTeachers.get(1).getSpecialty());
-        verify(teacherCrudRepository, times(1)).findAll();
+        verify(teacherCrudRepository, times(1)).findAll(any(Sort.class));
     }
 
     @Test
@@ -283,7 +324,7 @@ class TeacherServiceImplTest {
         // given
         var teachers = new ArrayList<Teacher>();
 
-        given(teacherCrudRepository.findAll())
+        given(teacherCrudRepository.findAll(any(Sort.class)))
                 .willReturn(teachers);
 
         // when
@@ -291,6 +332,100 @@ class TeacherServiceImplTest {
 
         // then
         assertEquals(0, foundTeachers.size());
-        verify(teacherCrudRepository, times(1)).findAll();
+        verify(teacherCrudRepository, times(1)).findAll(any(Sort.class));
+    }
+
+    /*
+    UPDATE TEACHERS IN BULK
+    ! 1 - Error when trying to change cpf in bulk
+    * 2 - Success with one update statement and one event per shard
+     */
+
+    @Test
+    @DisplayName("Should throw error when trying to change cpf of teachers in bulk")
+    void testUpdateAllWithCpfThrowsError() {
+        // given
+        var update = new TeacherBulkUpdateDto(new TeacherBulkUpdateDto.Filter(List.of(1L), null),
+                new TeacherBulkUpdateDto.Changes(null, "44007319014", null));
+
+        // when + then
+        var currentException = assertThrows(BusinessRuleException.class,
+                () -> teacherService.updateAll(update));
+        assertEquals("CPF cannot be changed in bulk", currentException.getMessage());
+        verifyNoMoreInteractions(teacherCrudRepository, cpfService);
+    }
+
+    @Test
+    @DisplayName("Should update teachers in bulk")
+    void testUpdateAllSucess() {
+        // given
+        var update = new TeacherBulkUpdateDto(new TeacherBulkUpdateDto.Filter(null, "Math"),
+                new TeacherBulkUpdateDto.Changes(null, null, "Mathematics"));
+
+        given(teacherCrudRepository.updateAllBySpecialty(eq("Math"), isNull(), eq("Mathematics"), any(Instant.class)))
+                .willReturn(2);
+        given(teacherCrudRepository.findIdsUpdatedAt(any(Instant.class)))
+                .willReturn(List.of(1L, 2L));
+
+        // when
+        var updated = teacherService.updateAll(update);
+
+        // then
+        assertEquals(2, updated);
+        var event = ArgumentCaptor.forClass(TeachersUpdatedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(event.capture());
+        assertEquals(List.of(1L, 2L), event.getValue().ids());
+        assertEquals("Mathematics", event.getValue().specialty());
+        verify(teacherCrudRepository, never()).findAllById(any());
+        verifyNoMoreInteractions(cpfService);
+    }
+
+    /*
+    PATCH TEACHER
+    * 1 - Success when the cpf in the patch is unchanged, without checking it
+    * 2 - Success when the cpf changes, checking it once
+     */
+
+    @Test
+    @DisplayName("Should patch teacher without checking an unchanged cpf")
+    void testPatchTeacherWithUnchangedCpfSucess() {
+        // given
+        var teacher = new Teacher("Harry", "44007319014", "Math");
+        teacher.setId(1L);
+
+        given(teacherCrudRepository.findById(1L))
+                .willReturn(Optional.of(teacher));
+        given(teacherCrudRepository.save(teacher))
+                .willReturn(teacher);
+
+        // when
+        var patched = teacherService.patch(1L, Map.of("cpf", "44007319014", "specialty", "Physics"));
+
+        // then
+        assertEquals("Physics", patched.getSpecialty());
+        assertEquals("Harry", patched.getName());
+        verifyNoInteractions(cpfService);
+    }
+
+    @Test
+    @DisplayName("Should patch teacher checking a changed cpf")
+    void testPatchTeacherWithChangedCpfSucess() {
+        // given
+        var teacher = new Teacher("Harry", "44007319014", "Math");
+        teacher.setId(1L);
+
+        given(teacherCrudRepository.findById(1L))
+                .willReturn(Optional.of(teacher));
+        given(teacherCrudRepository.save(teacher))
+                .willReturn(teacher);
+
+        // when
+        var patched = teacherService.patch(1L, Map.of("cpf", "47455321058"));
+
+        // then
+        assertEquals("47455321058", patched.getCpf());
+        verify(cpfService, times(1)).checkIfExistsWithCpf("47455321058", "44007319014");
+        verify(cpfService, times(1)).register("47455321058", "44007319014", TeacherServiceImpl.RESOURCE);
+        verifyNoMoreInteractions(cpfService);
     }
-}
\ No newline at end of file
+}
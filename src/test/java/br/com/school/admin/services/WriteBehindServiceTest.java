@@ -0,0 +1,203 @@
+package br.com.school.admin.services;
+
+import br.com.school.admin.config.WriteBehindProperties;
+import br.com.school.admin.dtos.OperationDto;
+import br.com.school.admin.exceptions.BusinessRuleException;
+import br.com.school.admin.exceptions.ResourceNotFoundException;
+import br.com.school.admin.exceptions.ServiceUnavailableException;
+import br.com.school.admin.utils.sharding.ShardRouter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+class WriteBehindServiceTest {
+
+    private WriteBehindService writeBehindService;
+
+    private WriteBehindService create(int queueCapacity) {
+        return create(queueCapacity, ShardRouter.single());
+    }
+
+    private WriteBehindService create(int queueCapacity, ShardRouter shardRouter) {
+        writeBehindService = new WriteBehindService(new WriteBehindProperties(queueCapacity, 10, 100),
+                shardRouter, new SimpleMeterRegistry());
+        return writeBehindService;
+    }
+
+    /**
+     * Parks the worker on a write of its own until the returned latch is released, so the
+     * writes submitted meanwhile are drained as one batch.
+     */
+    private CountDownLatch parkWorker(WriteBehindService service) throws InterruptedException {
+        var release = new CountDownLatch(1);
+        var started = new CountDownLatch(1);
+        service.submit("students", 0, () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return 0L;
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        return release;
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        writeBehindService.shutdown();
+    }
+
+    private OperationDto awaitCompletion(String id) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            var operation = writeBehindService.findById(id);
+            if (operation.status() != OperationDto.Status.PENDING) {
+                return operation;
+            }
+            TimeUnit.MILLISECONDS.sleep(20);
+        }
+        throw new AssertionError("Operation did not complete");
+    }
+
+    /*
+    WRITE BEHIND
+    * 1 - Success when queued write is persisted
+    ! 2 - Failed status when queued write throws
+    ! 3 - Error when queue is full
+    ! 4 - Error when operation is unknown
+    * 5 - A batch commits once per shard
+    ! 6 - A failing write rolls its shard's batch back and is replayed alone
+     */
+
+    @Test
+    @DisplayName("Should persist queued write and report its id")
+    void testSubmitPersistsWrite() throws Exception {
+        // given
+        var service = create(10);
+
+        // when
+        var operation = service.submit("students", 0, () -> 42L);
+
+        // then
+        assertEquals(OperationDto.Status.PENDING, operation.status());
+        var completed = awaitCompletion(operation.id());
+        assertEquals(OperationDto.Status.DONE, completed.status());
+        assertEquals(42L, completed.resourceId());
+    }
+
+    @Test
+    @DisplayName("Should report failure of a queued write without affecting others")
+    void testSubmitReportsFailure() throws Exception {
+        // given
+        var service = create(10);
+
+        // when
+        var failing = service.submit("students", 0, () -> {
+            throw new BusinessRuleException("CPF already exists");
+        });
+        var succeeding = service.submit("students", 0, () -> 7L);
+
+        // then
+        var failed = awaitCompletion(failing.id());
+        assertEquals(OperationDto.Status.FAILED, failed.status());
+        assertEquals("CPF already exists", failed.message());
+        assertEquals(OperationDto.Status.DONE, awaitCompletion(succeeding.id()).status());
+    }
+
+    @Test
+    @DisplayName("Should reject write when queue is full")
+    void testSubmitRejectsWhenQueueIsFull() throws Exception {
+        // given
+        var service = create(1);
+        var release = parkWorker(service);
+        service.submit("students", 0, () -> 2L);
+
+        // when + then
+        assertThrows(ServiceUnavailableException.class, () -> service.submit("students", 0, () -> 3L));
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("Should throw error when operation is unknown")
+    void testFindUnknownOperationThrowsError() {
+        // given
+        var service = create(1);
+
+        // when + then
+        assertThrows(ResourceNotFoundException.class, () -> service.findById("unknown"));
+    }
+
+    @Test
+    @DisplayName("Should commit a batch of writes once per shard")
+    void testBatchCommitsOncePerShard() throws Exception {
+        // given
+        var commits = new AtomicInteger();
+        var service = create(10, new ShardRouter(2, new CountingTransactions(commits)));
+        var release = parkWorker(service);
+        var operations = new ArrayList<OperationDto>();
+        for (long id = 1; id <= 6; id++) {
+            var resourceId = id;
+            operations.add(service.submit("students", (int) (id % 2), () -> resourceId));
+        }
+
+        // when
+        release.countDown();
+
+        // then
+        for (var operation : operations) {
+            assertEquals(OperationDto.Status.DONE, awaitCompletion(operation.id()).status());
+        }
+        assertEquals(1 + 2, commits.get());
+    }
+
+    @Test
+    @DisplayName("Should replay the writes of a failing shard batch alone")
+    void testFailingBatchIsReplayedAlone() throws Exception {
+        // given
+        var commits = new AtomicInteger();
+        var service = create(10, new ShardRouter(2, new CountingTransactions(commits)));
+        var release = parkWorker(service);
+        var before = service.submit("students", 1, () -> 1L);
+        var failing = service.submit("students", 1, () -> {
+            throw new BusinessRuleException("CPF already exists");
+        });
+        var after = service.submit("students", 1, () -> 3L);
+        var otherShard = service.submit("students", 0, () -> 4L);
+
+        // when
+        release.countDown();
+
+        // then
+        assertEquals(OperationDto.Status.DONE, awaitCompletion(before.id()).status());
+        assertEquals("CPF already exists", awaitCompletion(failing.id()).message());
+        assertEquals(3L, awaitCompletion(after.id()).resourceId());
+        assertEquals(OperationDto.Status.DONE, awaitCompletion(otherShard.id()).status());
+        assertEquals(1 + 1, commits.get());
+    }
+
+    /**
+     * Runs callbacks without a transaction and counts the ones that complete, as a
+     * transaction manager would count commits.
+     */
+    private record CountingTransactions(AtomicInteger commits) implements TransactionOperations {
+
+        @Override
+        public <T> T execute(TransactionCallback<T> action) {
+            var result = TransactionOperations.withoutTransaction().execute(action);
+            commits.incrementAndGet();
+            return result;
+        }
+    }
+}
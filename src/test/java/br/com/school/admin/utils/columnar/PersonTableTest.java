@@ -0,0 +1,199 @@
+package br.com.school.admin.utils.columnar;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PersonTableTest {
+
+    /*
+    PERSON TABLE
+    * 1 - Rows are kept in id order and found by id and by CPF
+    * 2 - Changing a CPF moves the row in the CPF index
+    * 3 - Removed rows are no longer found
+    * 4 - A bulk load answers the same lookups as single inserts
+    * 5 - Specialties are filtered by dictionary code
+    * 6 - CPFs that are not eleven digits are kept aside and still found
+    * 7 - A row older than the one held is ignored
+    * 8 - Columns take less memory than the equivalent entities
+    * 9 - Two rows swapping CPFs are both found by their new CPF
+     */
+
+    @Test
+    @DisplayName("Should keep rows in id order and find them by id and by CPF")
+    void testFindByIdAndCpf() {
+        // given
+        var table = new PersonTable("students", false);
+
+        // when
+        table.upsert(new PersonRow(3, "Maria", "52998224725", null, 0));
+        table.upsert(new PersonRow(1, "Joseph", "02345678901", null, 0));
+        table.upsert(new PersonRow(2, "Maria", "74539808010", null, 0));
+
+        // then
+        assertEquals(List.of(1L, 2L, 3L), table.findAll().stream().map(PersonRow::id).toList());
+        assertEquals(new PersonRow(1, "Joseph", "02345678901", null, 0), table.get(1));
+        assertEquals(3, table.findByCpf("52998224725").id());
+        assertNull(table.get(4));
+        assertNull(table.findByCpf("11111111111"));
+        assertEquals(List.of(2L, 3L), table.page(1, 5).stream().map(PersonRow::id).toList());
+    }
+
+    @Test
+    @DisplayName("Should move the row in the CPF index when its CPF changes")
+    void testCpfChange() {
+        // given
+        var table = new PersonTable("students", false);
+        table.upsert(new PersonRow(1, "Joseph", "52998224725", null, 0));
+        table.upsert(new PersonRow(2, "Maria", "74539808010", null, 0));
+
+        // when
+        table.upsert(new PersonRow(1, "Joseph Smith", "99999999999", null, 0));
+
+        // then
+        assertNull(table.findByCpf("52998224725"));
+        assertEquals("Joseph Smith", table.findByCpf("99999999999").name());
+        assertEquals(2, table.findByCpf("74539808010").id());
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    @DisplayName("Should no longer find removed rows")
+    void testRemove() {
+        // given
+        var table = new PersonTable("students", false);
+        table.upsert(new PersonRow(1, "Joseph", "52998224725", null, 0));
+        table.upsert(new PersonRow(2, "Maria", "74539808010", null, 0));
+
+        // when
+        table.remove(1);
+        table.remove(5);
+
+        // then
+        assertNull(table.get(1));
+        assertNull(table.findByCpf("52998224725"));
+        assertEquals(2, table.findByCpf("74539808010").id());
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    @DisplayName("Should answer the same lookups after a bulk load as after single inserts")
+    void testLoad() {
+        // given
+        var rows = new ArrayList<PersonRow>();
+        for (long id = 1; id <= 1000; id++) {
+            rows.add(new PersonRow(id, "Student " + id % 10, String.format("%011d", (id * 7919) % 100_000), null, 0));
+        }
+        var inserted = new PersonTable("students", false);
+        rows.forEach(inserted::upsert);
+
+        // when
+        var loaded = new PersonTable("students", false);
+        loaded.load(rows);
+
+        // then
+        assertEquals(inserted.findAll(), loaded.findAll());
+        for (var row : rows) {
+            assertEquals(row, loaded.findByCpf(row.cpf()));
+        }
+    }
+
+    @Test
+    @DisplayName("Should filter teachers by specialty")
+    void testFindBySpecialty() {
+        // given
+        var table = new PersonTable("teachers", true);
+        table.upsert(new PersonRow(1, "Joseph", "52998224725", "Math", 0));
+        table.upsert(new PersonRow(2, "Maria", "74539808010", "History", 0));
+        table.upsert(new PersonRow(3, "Ana", "02345678901", "Math", 0));
+
+        // then
+        assertEquals(List.of(1L, 3L), table.findBySpecialty("Math").stream().map(PersonRow::id).toList());
+        assertEquals("History", table.get(2).specialty());
+        assertTrue(table.findBySpecialty("Physics").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should keep CPFs that are not eleven digits aside and still find them")
+    void testOtherCpfs() {
+        // given
+        var table = new PersonTable("students", false);
+        table.load(List.of(new PersonRow(1, "Joseph", "123", null, 0), new PersonRow(2, "Maria", "74539808010", null, 0)));
+
+        // when
+        table.upsert(new PersonRow(3, "Ana", "529.982.247-25", null, 0));
+        table.upsert(new PersonRow(1, "Joseph", "52998224725", null, 1));
+
+        // then
+        assertEquals(new PersonRow(3, "Ana", "529.982.247-25", null, 0), table.get(3));
+        assertEquals(3, table.findByCpf("529.982.247-25").id());
+        assertEquals(1, table.findByCpf("52998224725").id());
+        assertEquals(2, table.findByCpf("74539808010").id());
+        assertNull(table.findByCpf("123"));
+        table.remove(3);
+        assertNull(table.findByCpf("529.982.247-25"));
+        assertEquals(2, table.size());
+    }
+
+    @Test
+    @DisplayName("Should ignore a row older than the one it holds")
+    void testOlderVersionIgnored() {
+        // given
+        var table = new PersonTable("students", false);
+        table.upsert(new PersonRow(1, "Joseph", "52998224725", null, 0));
+        table.upsert(new PersonRow(1, "Joseph Smith", "74539808010", null, 2));
+
+        // when
+        table.upsert(new PersonRow(1, "Joe", "52998224725", null, 1));
+
+        // then
+        assertEquals(new PersonRow(1, "Joseph Smith", "74539808010", null, 2), table.get(1));
+        assertNull(table.findByCpf("52998224725"));
+    }
+
+    @Test
+    @DisplayName("Should take less memory than the same rows as entities")
+    void testFootprint() {
+        // given
+        var table = new PersonTable("students", false);
+        var rows = new ArrayList<PersonRow>();
+        for (long id = 1; id <= 10_000; id++) {
+            rows.add(new PersonRow(id, "Student " + id % 500, String.format("%011d", id), null, 0));
+        }
+        table.load(rows);
+
+        // when
+        var footprint = table.footprint();
+
+        // then
+        assertEquals(10_000, footprint.rows());
+        assertTrue(footprint.columnarBytes() * 3 < footprint.entityBytes());
+    }
+
+    @Test
+    @DisplayName("Should find both rows by their new CPF after they swap CPFs")
+    void testCpfSwap() {
+        // given
+        var table = new PersonTable("students", false);
+        table.upsert(new PersonRow(1, "Joseph", "52998224725", null, 0));
+        table.upsert(new PersonRow(2, "Maria", "74539808010", null, 0));
+        table.upsert(new PersonRow(3, "Harry", "02345678901", null, 0));
+
+        // when
+        table.upsert(new PersonRow(1, "Joseph", "74539808010", null, 1));
+        table.upsert(new PersonRow(2, "Maria", "52998224725", null, 1));
+        table.remove(3);
+
+        // then
+        assertEquals(1, table.findByCpf("74539808010").id());
+        assertEquals(2, table.findByCpf("52998224725").id());
+        assertNull(table.findByCpf("02345678901"));
+        assertEquals(2, table.size());
+    }
+}
@@ -0,0 +1,141 @@
+package br.com.school.admin.utils.concurrent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NearCacheTest {
+
+    /*
+    NEAR CACHE
+    * 1 - Loaded values are served from the cache until invalidated
+    * 2 - A value loaded while an invalidation ran is not cached
+    * 3 - Entries expire after the ttl
+    * 4 - Concurrent misses join one load
+    * 5 - A miss after an invalidation does not join a load started before it
+     */
+
+    @Test
+    @DisplayName("Should serve loaded values from the cache until they are invalidated")
+    void testHitUntilInvalidated() {
+        // given
+        var cache = new NearCache<Long, String>("test.hit", 10, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        var loads = new AtomicInteger();
+
+        // when
+        cache.get(1L, () -> "teacher-" + loads.incrementAndGet());
+        var cached = cache.get(1L, () -> "teacher-" + loads.incrementAndGet());
+        cache.invalidate(1L);
+        var reloaded = cache.get(1L, () -> "teacher-" + loads.incrementAndGet());
+
+        // then
+        assertEquals("teacher-1", cached);
+        assertEquals("teacher-2", reloaded);
+        assertEquals(1, cache.hitCount());
+        assertEquals(2, cache.missCount());
+    }
+
+    @Test
+    @DisplayName("Should not cache a value loaded while it was being invalidated")
+    void testInvalidatedDuringLoad() {
+        // given
+        var cache = new NearCache<Long, String>("test.race", 10, Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+        // when
+        var stale = cache.get(1L, () -> {
+            cache.invalidate(1L);
+            return "stale";
+        });
+        var fresh = cache.get(1L, () -> "fresh");
+
+        // then
+        assertEquals("stale", stale);
+        assertEquals("fresh", fresh);
+    }
+
+    @Test
+    @DisplayName("Should load again once the entry has expired")
+    void testExpiredEntryIsReloaded() throws InterruptedException {
+        // given
+        var cache = new NearCache<Long, String>("test.ttl", 10, Duration.ofMillis(20), new SimpleMeterRegistry());
+        cache.get(1L, () -> "old");
+
+        // when
+        Thread.sleep(40);
+        var value = cache.get(1L, () -> "new");
+
+        // then
+        assertEquals("new", value);
+    }
+
+    @Test
+    @DisplayName("Should let concurrent misses join one load")
+    void testConcurrentMissesJoinOneLoad() throws Exception {
+        // given
+        var cache = new NearCache<Long, String>("test.join", 10, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var loads = new AtomicInteger();
+        var leader = CompletableFuture.supplyAsync(() -> cache.get(1L, () -> {
+            started.countDown();
+            await(release);
+            return "teacher-" + loads.incrementAndGet();
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // when
+        var follower = CompletableFuture.supplyAsync(() -> cache.get(1L, () -> "teacher-" + loads.incrementAndGet()));
+        while (cache.coalescedCount() == 0) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        // then
+        assertEquals("teacher-1", leader.get(5, TimeUnit.SECONDS));
+        assertEquals("teacher-1", follower.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("Should not join a load that started before the latest invalidation")
+    void testMissAfterInvalidationLoadsAgain() throws Exception {
+        // given
+        var cache = new NearCache<Long, String>("test.epoch", 10, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var stale = CompletableFuture.supplyAsync(() -> cache.get(1L, () -> {
+            started.countDown();
+            await(release);
+            return "stale";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // when
+        cache.invalidate(1L);
+        var fresh = cache.get(1L, () -> "fresh");
+        release.countDown();
+
+        // then
+        assertEquals("stale", stale.get(5, TimeUnit.SECONDS));
+        assertEquals("fresh", fresh);
+        assertEquals("fresh", cache.get(1L, () -> "reloaded"));
+        assertEquals(0, cache.coalescedCount());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
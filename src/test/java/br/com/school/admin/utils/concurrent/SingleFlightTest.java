@@ -0,0 +1,113 @@
+package br.com.school.admin.utils.concurrent;
+
+import br.com.school.admin.exceptions.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    /*
+    SINGLE FLIGHT
+    * 1 - Concurrent calls for the same key share one execution
+    ! 2 - Concurrent callers receive the leader's exception
+    * 3 - Sequential calls execute again
+     */
+
+    @Test
+    @DisplayName("Should share one execution between concurrent calls for the same key")
+    void testConcurrentCallsAreCoalesced() throws Exception {
+        // given
+        var singleFlight = new SingleFlight<Long, String>("test.coalesced", new SimpleMeterRegistry());
+        var loads = new AtomicInteger();
+        var release = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(8);
+        var results = new ArrayList<Future<String>>();
+
+        // when
+        for (int i = 0; i < 8; i++) {
+            results.add(executor.submit(() -> singleFlight.execute(1L, () -> {
+                loads.incrementAndGet();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "teacher-1";
+            })));
+        }
+        while (singleFlight.executedCount() + singleFlight.coalescedCount() < 8) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        // then
+        for (var result : results) {
+            assertEquals("teacher-1", result.get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        assertEquals(1, loads.get());
+        assertEquals(1, singleFlight.executedCount());
+        assertEquals(7, singleFlight.coalescedCount());
+    }
+
+    @Test
+    @DisplayName("Should rethrow leader exception to coalesced callers")
+    void testCoalescedCallersReceiveException() throws Exception {
+        // given
+        var singleFlight = new SingleFlight<Long, String>("test.failure", new SimpleMeterRegistry());
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        var executor = Executors.newSingleThreadExecutor();
+        var leader = executor.submit(() -> singleFlight.execute(1L, () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new ResourceNotFoundException("Teacher not found");
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // when
+        var follower = Executors.newSingleThreadExecutor().submit(() -> singleFlight.execute(1L, () -> "unused"));
+        while (singleFlight.coalescedCount() < 1) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        // then
+        var exception = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertTrue(exception.getCause() instanceof ResourceNotFoundException);
+        assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should execute again once the previous call finished")
+    void testSequentialCallsExecuteAgain() {
+        // given
+        var singleFlight = new SingleFlight<String, Integer>("test.sequential", new SimpleMeterRegistry());
+        var loads = new AtomicInteger();
+
+        // when
+        singleFlight.execute("all", loads::incrementAndGet);
+        var second = singleFlight.execute("all", loads::incrementAndGet);
+
+        // then
+        assertEquals(2, second);
+        assertEquals(0, singleFlight.coalescedCount());
+    }
+}
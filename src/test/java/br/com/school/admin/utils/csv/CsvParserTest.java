@@ -0,0 +1,51 @@
+package br.com.school.admin.utils.csv;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CsvParserTest {
+
+    /*
+    PARSE LINE
+    * 1 - Plain fields are split and trimmed
+    * 2 - Quoted fields keep commas and escaped quotes
+    * 3 - Escaped values are parsed back to the original
+     */
+
+    @Test
+    @DisplayName("Should split and trim plain fields")
+    void testParsePlainFields() {
+        // when
+        var fields = CsvParser.parseLine(" Joseph , 44007319014,Math");
+
+        // then
+        assertEquals(List.of("Joseph", "44007319014", "Math"), fields);
+    }
+
+    @Test
+    @DisplayName("Should keep commas and escaped quotes inside quoted fields")
+    void testParseQuotedFields() {
+        // when
+        var fields = CsvParser.parseLine("\"Silva, Ana\",\"say \"\"hi\"\"\",");
+
+        // then
+        assertEquals(List.of("Silva, Ana", "say \"hi\"", ""), fields);
+    }
+
+    @Test
+    @DisplayName("Should parse escaped values back to the original")
+    void testEscapeRoundTrip() {
+        // given
+        var values = List.of("Silva, Ana", "say \"hi\"", "plain");
+
+        // when
+        var line = String.join(",", values.stream().map(CsvParser::escape).toList());
+
+        // then
+        assertEquals(values, CsvParser.parseLine(line));
+    }
+}
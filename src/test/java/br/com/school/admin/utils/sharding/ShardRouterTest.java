@@ -0,0 +1,113 @@
+package br.com.school.admin.utils.sharding;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ShardRouterTest {
+
+    private final ShardRouter router = new ShardRouter(3, TransactionOperations.withoutTransaction());
+
+    /*
+    SHARD ROUTING
+    * 1 - Ids handed out by a shard are routed back to it
+    * 2 - CPFs always go to the same shard and spread over all of them
+    * 3 - The chosen shard is visible only inside the call
+     */
+
+    @Test
+    @DisplayName("Should route ids back to the shard that handed them out")
+    void testShardOfId() {
+        for (int shard = 0; shard < 3; shard++) {
+            for (long k = 0; k < 5; k++) {
+                assertEquals(shard, router.shardOfId(shard + 1 + k * 3));
+            }
+        }
+        assertEquals(0, ShardRouter.single().shardOfId(42L));
+    }
+
+    @Test
+    @DisplayName("Should place a CPF on the same shard every time and use every shard")
+    void testShardOfCpf() {
+        var used = new HashSet<Integer>();
+        for (long cpf = 10000000000L; cpf < 10000000100L; cpf++) {
+            var shard = router.shardOfCpf(String.valueOf(cpf));
+            assertEquals(shard, router.shardOfCpf(String.valueOf(cpf)));
+            used.add(shard);
+        }
+        assertEquals(3, used.size());
+    }
+
+    @Test
+    @DisplayName("Should expose the chosen shard only while the call runs")
+    void testCurrentShardIsRestored() {
+        router.run(2, () -> {
+            assertEquals(2, ShardRouter.current());
+            router.run(1, () -> assertEquals(1, ShardRouter.current()));
+            assertEquals(2, ShardRouter.current());
+        });
+        assertNull(ShardRouter.current());
+    }
+
+    /*
+    SCATTER GATHER
+    * 1 - Results come back in shard order
+    * 2 - Pages are merged across shards in id order
+    ! 3 - Error when page or size is out of range
+     */
+
+    @Test
+    @DisplayName("Should gather one result per shard in shard order")
+    void testGather() {
+        assertEquals(List.of(0, 1, 2), router.gather(shard -> ShardRouter.current()));
+    }
+
+    @Test
+    @DisplayName("Should merge pages from every shard in id order")
+    void testGatherPage() {
+        // given
+        var shards = new ArrayList<List<Long>>();
+        for (int shard = 0; shard < 3; shard++) {
+            var first = shard + 1;
+            shards.add(LongStream.iterate(first, id -> id <= 20, id -> id + 3).boxed().toList());
+        }
+
+        // when
+        var pages = new ArrayList<List<Long>>();
+        for (int page = 0; page < 4; page++) {
+            pages.add(router.gatherPage(page, 6, Sort.by("id"), Comparator.<Long>naturalOrder(), pageable -> {
+                var rows = shards.get(ShardRouter.current());
+                return rows.subList(0, Math.min(rows.size(), pageable.getPageSize()));
+            }));
+        }
+
+        // then
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L), pages.get(0));
+        assertEquals(List.of(7L, 8L, 9L, 10L, 11L, 12L), pages.get(1));
+        assertEquals(List.of(19L, 20L), pages.get(3));
+        assertEquals(LongStream.rangeClosed(1, 20).boxed().toList(),
+                pages.stream().flatMap(List::stream).toList());
+    }
+
+    @Test
+    @DisplayName("Should throw error when page or size is out of range")
+    void testGatherPageOutOfRange() {
+        assertThrows(IllegalArgumentException.class,
+                () -> router.gatherPage(-1, 10, Sort.by("id"), Comparator.<Long>naturalOrder(), pageable -> List.of()));
+        assertThrows(IllegalArgumentException.class,
+                () -> router.gatherPage(0, 0, Sort.by("id"), Comparator.<Long>naturalOrder(), pageable -> List.of()));
+        assertThrows(IllegalArgumentException.class, () -> router.gatherPage(0, ShardRouter.MAX_PAGE_SIZE + 1,
+                Sort.by("id"), Comparator.<Long>naturalOrder(), pageable -> List.of()));
+    }
+}